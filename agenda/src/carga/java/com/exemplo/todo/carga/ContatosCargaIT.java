@@ -0,0 +1,320 @@
+package com.exemplo.todo.carga;
+
+import com.exemplo.todo.TodoListApplication;
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.config.ReativoConfig;
+import com.exemplo.todo.config.TenantFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga mista em /contatos (busca, leitura por id, páginas, criação e atualização) contra a
+ * aplicação inteira, com servidor web, num H2 em modo MySQL no lugar do MySQL. A mesma carga roda
+ * na API MVC/JPA (cenário "contatos") e na variante WebFlux/R2DBC (cenário "contatos-reativo"),
+ * que sobem juntas sobre o mesmo banco; conexoesLentas compara a memória e as conexões de banco
+ * que cada uma segura por cliente lento. Para medir contra um MySQL de verdade:
+ * -Dcarga.banco.url=jdbc:mysql://... [-Dcarga.banco.url-r2dbc=r2dbc:mysql://... -Dcarga.banco.usuario -Dcarga.banco.senha].
+ *
+ * <pre>
+ * mvn -Pcarga verify [-Dcarga.rps=50 -Dcarga.duracao=30s -Dcarga.aquecimento=30s -Dcarga.registros=10000
+ *                     -Dcarga.conexoes-lentas=16 -Dcarga.registros-lentas=50000]
+ * </pre>
+ */
+class ContatosCargaIT {
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+            "Heitor", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima",
+            "Carvalho", "Ferreira", "Rodrigues", "Almeida", "Costa", "Gomes"};
+
+    private static final String TENANT_LENTO = "lento";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static ConfigurableApplicationContext contexto;
+    private static HttpClient http;
+    private static String base;
+    private static String baseReativa;
+    private static final AtomicInteger novos = new AtomicInteger(1_000_000);
+    // Contatos semeados, na ordem da listagem: o PUT reenvia nome e telefone para não violar a chave única
+    private static final List<JsonNode> contatos = new ArrayList<>();
+
+    @BeforeAll
+    static void iniciar() throws Exception {
+        contexto = new SpringApplicationBuilder(TodoListApplication.class).run(argumentos());
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        baseReativa = "http://localhost:" + contexto.getBean(ReativoConfig.ServidorReativo.class).getPorta();
+        // O Tomcat não tem h2c ligado: HTTP/1.1 evita a tentativa de upgrade em cada conexão nova
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        semear(Integer.getInteger("carga.registros", 10_000));
+    }
+
+    @AfterAll
+    static void encerrar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    // Passados como argumentos para terem precedência sobre o application.properties
+    private static String[] argumentos() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                // Toda a carga sai do mesmo IP: o limite por cliente transformaria quase tudo em 429
+                "--agenda.limite-taxa.habilitado=false",
+                "--agenda.reativo.habilitado=true",
+                "--agenda.reativo.porta=0",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        String url = System.getProperty("carga.banco.url");
+        if (url != null) {
+            argumentos.add("--spring.datasource.url=" + url);
+            argumentos.add("--spring.datasource.username=" + System.getProperty("carga.banco.usuario", "root"));
+            argumentos.add("--spring.datasource.password=" + System.getProperty("carga.banco.senha", ""));
+            // jdbc:mysql://host/banco?opcoes -> r2dbc:mysql://host/banco
+            argumentos.add("--agenda.reativo.r2dbc.url=" + System.getProperty("carga.banco.url-r2dbc",
+                    url.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", "")));
+        } else {
+            argumentos.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    // O mesmo banco em memória, pelo driver R2DBC do H2 (mesma JVM)
+                    "--agenda.reativo.r2dbc.url=r2dbc:h2:mem:///carga?options=MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        }
+        return argumentos.toArray(String[]::new);
+    }
+
+    // Importa pelo /contatos/bulk e depois lê de volta pela listagem, que é de onde vêm os ids
+    private static void semear(int registros) throws Exception {
+        importar(ContextoTenant.PADRAO, registros);
+
+        String cursor = "";
+        do {
+            HttpResponse<String> pagina = http.send(HttpRequest.newBuilder(URI.create(base + "/contatos?tamanho=1000" + cursor))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode corpo = JSON.readTree(pagina.body());
+            corpo.get("contatos").forEach(contatos::add);
+            cursor = corpo.get("proximoCursor").isNull() ? null : "&cursor=" + corpo.get("proximoCursor").asLong();
+        } while (cursor != null);
+        assertFalse(contatos.isEmpty(), "Nenhum contato semeado");
+    }
+
+    private static void importar(String tenant, int registros) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < registros; i++) {
+            ndjson.append(JSON.writeValueAsString(contato(i, "pessoa" + i + "@exemplo.com"))).append('\n');
+        }
+        HttpResponse<String> importacao = http.send(HttpRequest.newBuilder(URI.create(base + "/contatos/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .header(TenantFilter.CABECALHO, tenant)
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString())).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, importacao.statusCode(), importacao.body());
+    }
+
+    private static JsonNode contato(int i, String email) {
+        return JSON.createObjectNode()
+                .put("nome", NOMES[i % NOMES.length] + " " + SOBRENOMES[i / NOMES.length % SOBRENOMES.length] + " " + i)
+                .put("telefone", String.format("(11) 9%04d-%04d", i / 10_000, i % 10_000))
+                .put("email", email);
+    }
+
+    @Test
+    @DisplayName("Carga mista em /contatos deve ficar dentro da linha de base de p99 e vazão")
+    void cargaMista() throws Exception {
+        GeradorCarga.Resultado resultado = GeradorCarga.configurado(http, 50).executar("contatos", mix(base));
+
+        List<String> violacoes = LinhaDeBase.verificar(resultado);
+        assertTrue(violacoes.isEmpty(), String.join("\n", violacoes));
+    }
+
+    @Test
+    @DisplayName("A mesma carga mista na variante reativa deve ficar dentro da sua linha de base")
+    void cargaMistaReativa() throws Exception {
+        GeradorCarga.Resultado resultado = GeradorCarga.configurado(http, 50).executar("contatos-reativo", mix(baseReativa));
+
+        List<String> violacoes = LinhaDeBase.verificar(resultado);
+        assertTrue(violacoes.isEmpty(), String.join("\n", violacoes));
+    }
+
+    /**
+     * Abre carga.conexoes-lentas clientes que pedem em streaming a agenda inteira de um tenant à
+     * parte, com carga.registros-lentas contatos (bem mais que cabe nos buffers de socket), e param
+     * de ler logo depois do cabeçalho; com todos parados, mede o heap (após GC), as threads e as conexões
+     * de banco em uso, e no fim lê tudo para conferir que nenhum stream se perdeu. O heap inclui o
+     * lado cliente, que é o mesmo (um socket) nas duas variantes. No H2 o stream JDBC do MVC guarda
+     * o resultado inteiro da consulta; no MySQL, com useCursorFetch, só o lote do fetch size.
+     */
+    @Test
+    @DisplayName("Clientes lentos: memória e conexões de banco por conexão no MVC e no WebFlux")
+    void conexoesLentas() throws Exception {
+        int conexoes = Integer.getInteger("carga.conexoes-lentas", 16);
+        int registros = Integer.getInteger("carga.registros-lentas", 50_000);
+        importar(TENANT_LENTO, registros);
+        MeterRegistry metricas = contexto.getBean(MeterRegistry.class);
+        ReativoConfig.ConexoesReativas r2dbc = contexto.getBean(ReativoConfig.ConexoesReativas.class);
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("conexoes", conexoes);
+        relatorio.put("contatos", registros);
+        relatorio.put("mvc", medirConexoesLentas(URI.create(base + "/contatos/stream"), conexoes, registros,
+                () -> (int) metricas.get("hikaricp.connections.active").gauge().value()));
+        relatorio.put("reativo", medirConexoesLentas(URI.create(baseReativa + "/contatos"), conexoes, registros,
+                () -> r2dbc.metricas().acquiredSize()));
+
+        System.out.println("[carga] conexoes-lentas: " + relatorio);
+        Path relatorios = Path.of(System.getProperty("carga.relatorios", "target/carga"));
+        Files.createDirectories(relatorios);
+        JSON.writerWithDefaultPrettyPrinter().writeValue(relatorios.resolve("conexoes-lentas.json").toFile(), relatorio);
+    }
+
+    private static Map<String, Object> medirConexoesLentas(URI uri, int conexoes, int registros,
+                                                           IntSupplier conexoesBanco) throws Exception {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long heapAntes = heapAposGc(memoria);
+        int threadsAntes = threads.getThreadCount();
+
+        List<Socket> clientes = new ArrayList<>();
+        try {
+            for (int i = 0; i < conexoes; i++) {
+                clientes.add(abrirClienteLento(uri));
+            }
+            // Tempo para o servidor encher os buffers dos sockets e parar de escrever
+            Thread.sleep(3_000);
+            long heapParado = heapAposGc(memoria);
+            Map<String, Object> medicao = new LinkedHashMap<>();
+            medicao.put("heapPorConexaoKb", (heapParado - heapAntes) / 1024 / conexoes);
+            medicao.put("threadsPlataformaAMais", threads.getThreadCount() - threadsAntes);
+            medicao.put("conexoesBancoEmUso", conexoesBanco.getAsInt());
+
+            for (Socket cliente : clientes) {
+                int lidos = lerAteOFim(cliente);
+                assertEquals(registros, lidos, "Stream incompleto em " + uri);
+            }
+            return medicao;
+        } finally {
+            for (Socket cliente : clientes) {
+                cliente.close();
+            }
+        }
+    }
+
+    private static long heapAposGc(MemoryMXBean memoria) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+
+    // Socket cru com janela de recepção pequena: o HttpClient leria (e guardaria) o corpo por conta própria
+    private static Socket abrirClienteLento(URI uri) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()));
+        socket.getOutputStream().write(("GET " + uri.getRawPath() + " HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept: application/x-ndjson\r\n" + TenantFilter.CABECALHO + ": " + TENANT_LENTO + "\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        // Só a linha de status: garante que o streaming começou antes de o cliente parar de ler
+        String status = linha(socket.getInputStream());
+        assertTrue(status.contains(" 200"), "Resposta inesperada de " + uri + ": " + status);
+        return socket;
+    }
+
+    // Lê o resto da resposta (cabeçalhos e corpo em chunks) e conta os contatos
+    private static int lerAteOFim(Socket cliente) throws IOException {
+        cliente.setSoTimeout(30_000);
+        InputStream entrada = new BufferedInputStream(cliente.getInputStream());
+        while (!linha(entrada).isEmpty()) {
+            // cabeçalhos
+        }
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        for (int tamanho = Integer.parseInt(linha(entrada), 16); tamanho > 0; tamanho = Integer.parseInt(linha(entrada), 16)) {
+            corpo.write(entrada.readNBytes(tamanho));
+            linha(entrada);
+        }
+        return corpo.toString(StandardCharsets.UTF_8).split("\"id\":", -1).length - 1;
+    }
+
+    // Byte a byte, sem o \r\n: um leitor com buffer consumiria parte do corpo
+    private static String linha(InputStream entrada) throws IOException {
+        StringBuilder linha = new StringBuilder();
+        for (int lido = entrada.read(); lido != -1 && lido != '\n'; lido = entrada.read()) {
+            if (lido != '\r') {
+                linha.append((char) lido);
+            }
+        }
+        return linha.toString();
+    }
+
+    private static List<GeradorCarga.Operacao> mix(String servidor) {
+        return List.of(
+                new GeradorCarga.Operacao("busca", 40, aleatorio -> get(servidor, "/contatos/busca?q="
+                        + URLEncoder.encode(NOMES[aleatorio.nextInt(NOMES.length)].substring(0, 3), StandardCharsets.UTF_8))),
+                new GeradorCarga.Operacao("porId", 25, aleatorio -> get(servidor, "/contatos/" + sortear(aleatorio).get("id").asLong())),
+                new GeradorCarga.Operacao("pagina", 15, aleatorio -> get(servidor, "/contatos?tamanho=50&cursor="
+                        + sortear(aleatorio).get("id").asLong())),
+                new GeradorCarga.Operacao("criar", 10, aleatorio -> json(servidor, "POST", "/contatos",
+                        contato(novos.getAndIncrement(), null))),
+                new GeradorCarga.Operacao("atualizar", 10, aleatorio -> {
+                    JsonNode atual = sortear(aleatorio);
+                    JsonNode alterado = JSON.createObjectNode()
+                            .put("nome", atual.get("nome").asText())
+                            .put("telefone", atual.get("telefone").asText())
+                            .put("email", "atualizado" + aleatorio.nextInt(1000) + "@exemplo.com");
+                    return json(servidor, "PUT", "/contatos/" + atual.get("id").asLong(), alterado).header("If-Match", "*");
+                }));
+    }
+
+    private static JsonNode sortear(SplittableRandom aleatorio) {
+        return contatos.get(aleatorio.nextInt(contatos.size()));
+    }
+
+    private static HttpRequest.Builder get(String servidor, String caminho) {
+        return HttpRequest.newBuilder(URI.create(servidor + caminho));
+    }
+
+    private static HttpRequest.Builder json(String servidor, String metodo, String caminho, JsonNode corpo) {
+        return HttpRequest.newBuilder(URI.create(servidor + caminho))
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(corpo.toString()));
+    }
+}
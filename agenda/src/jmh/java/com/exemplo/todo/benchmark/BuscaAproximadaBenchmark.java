@@ -0,0 +1,64 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoIndiceBusca;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Busca aproximada x busca por substring no índice em memória, sem banco: só o custo de achar e ordenar os ids.
+// Os nomes combinam poucos prenomes e sobrenomes, então as listas de cada chave fonética são grandes (pior caso)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaAproximadaBenchmark {
+
+    private static final String[] PRENOMES = {"João", "José", "Maria", "Ana", "Antônio", "Francisco", "Carlos", "Paulo",
+            "Pedro", "Lucas", "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo",
+            "Felipe", "Raimundo", "Rodrigo", "Fernanda", "Juliana", "Patrícia", "Aline", "Sandra", "Camila", "Amanda",
+            "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela", "Thiago", "Conceição", "Helena"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes",
+            "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado",
+            "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Cavalcanti", "Monteiro",
+            "Batista", "Guimarães"};
+
+    @Param({"1000000"})
+    private int tamanho;
+
+    // Nome completo sem acento, com erros de digitação, prenome raro + sobrenome com troca de consoante, uma palavra só
+    @Param({"Joao da Silva", "Jaoo Sliva", "Conceicao Guimaraes", "Helena Cavalcamti", "Nacimento"})
+    private String termo;
+
+    private ContatoIndiceBusca indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        indice = new ContatoIndiceBusca();
+        Random aleatorio = new Random(42);
+        for (long i = 1; i <= tamanho; i++) {
+            String nome = PRENOMES[aleatorio.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            // Só o nome: as buscas comparadas aqui não olham email nem telefone
+            indice.indexar(new Contato(i, nome, null, null));
+        }
+        indice.marcarPronto();
+    }
+
+    @Benchmark
+    public List<ContatoIndiceBusca.Resultado> aproximada() {
+        return indice.buscarAproximado(termo, 20);
+    }
+
+    // O que havia antes: o mesmo termo como substring do nome
+    @Benchmark
+    public List<ContatoIndiceBusca.Resultado> substring() {
+        return indice.buscar(termo, ContatoIndiceBusca.Campo.NOME, 20);
+    }
+}
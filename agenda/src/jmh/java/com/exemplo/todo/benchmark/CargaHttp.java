@@ -0,0 +1,86 @@
+package com.exemplo.todo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de carga em laço fechado: N clientes simultâneos (threads virtuais) repetem GET
+ * em uma URL por um tempo fixo. Serve para comparar a aplicação com
+ * AGENDA_THREADS_VIRTUAIS=true e false sob a mesma carga.
+ *
+ * <pre>
+ * java -cp ... com.exemplo.todo.benchmark.CargaHttp http://localhost:8080/contatos 1000 30
+ * </pre>
+ */
+public final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/contatos");
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duracao = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).GET().build();
+        AtomicLong erros = new AtomicLong();
+        long fim = System.nanoTime() + duracao.toNanos();
+
+        List<Future<long[]>> resultados = new ArrayList<>(clientes);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                resultados.add(executor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < fim) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() >= 400) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        if (n == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, n * 2);
+                        }
+                        latencias[n++] = System.nanoTime() - inicio;
+                    }
+                    return Arrays.copyOf(latencias, n);
+                }));
+            }
+        }
+
+        long[] todas = resultados.stream().map(CargaHttp::obter).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("clientes=%d requisicoes=%d erros=%d vazao=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                clientes, todas.length, erros.get(), todas.length / (double) duracao.toSeconds(),
+                percentil(todas, 0.50), percentil(todas, 0.99), todas.length == 0 ? 0 : todas[todas.length - 1] / 1e6);
+    }
+
+    private static long[] obter(Future<long[]> futuro) {
+        try {
+            return futuro.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,77 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoImportacaoService;
+import com.exemplo.todo.service.ContatoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContatoServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tamanho;
+
+    private ConfigurableApplicationContext contexto;
+    private ContatoService service;
+    private ObjectMapper objectMapper;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        contexto = ContextoBenchmark.iniciar("contatos" + tamanho);
+        service = contexto.getBean(ContatoService.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+        // Carga pelo caminho de importação em lote, que também alimenta o índice de busca
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            ndjson.append("{\"nome\":\"Contato ").append(i)
+                    .append("\",\"telefone\":\"").append(String.format("%011d", i))
+                    .append("\",\"email\":\"contato").append(i).append("@exemplo.com\"}\n");
+        }
+        contexto.getBean(ContatoImportacaoService.class)
+                .importar(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Contato criar() {
+        long n = sequencia.incrementAndGet();
+        return service.criar(new Contato(null, "Novo " + n, "novo-" + n, null));
+    }
+
+    @Benchmark
+    public List<Contato> buscarPorNome() {
+        return service.buscarPorNomeOuEmail("contato 42", null);
+    }
+
+    @Benchmark
+    public List<Contato> buscarPorEmail() {
+        return service.buscarPorNomeOuEmail(null, "contato777@");
+    }
+
+    // Corpo de GET /contatos na maior página (1000), consultado e serializado pelo ObjectMapper da aplicação.
+    // Com -Djmh.args="-prof gc", gc.alloc.rate.norm é a alocação por página
+    @Benchmark
+    public void listarPagina() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), service.listarPagina(null, 1000));
+    }
+}
@@ -0,0 +1,28 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.TodoListApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Sobe a aplicação sem servidor web, apontando para um H2 em memória no lugar do MySQL
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String banco) {
+        // Passadas como argumentos para terem precedência sobre o application.properties
+        return new SpringApplicationBuilder(TodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:" + banco + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+}
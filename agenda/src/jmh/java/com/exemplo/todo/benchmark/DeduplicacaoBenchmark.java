@@ -0,0 +1,144 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.dto.CandidatoDuplicata;
+import com.exemplo.todo.dto.ResultadoDeduplicacao;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import com.exemplo.todo.service.ContatoDeduplicacaoService;
+import com.exemplo.todo.service.ContatoIndiceBusca;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Cada operação é uma deduplicação completa (só propostas). Sem banco: o repositório gera as linhas de cada passada
+// já na ordem da chave, como as leituras por índice entregariam, então o tempo medido é o do bloqueio e da pontuação.
+// O heap pequeno é proposital: a deduplicação precisa caber em memória limitada, qualquer que seja o tamanho da tabela
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class DeduplicacaoBenchmark {
+
+    private static final String[] PRENOMES = {"João", "José", "Maria", "Ana", "Antônio", "Francisco", "Carlos", "Paulo",
+            "Pedro", "Lucas", "Luiz", "Marcos", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe",
+            "Rodrigo", "Fernanda", "Juliana", "Patrícia", "Aline", "Sandra", "Camila", "Amanda", "Bruna", "Letícia", "Helena"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes",
+            "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado",
+            "Mendes", "Freitas"};
+
+    @Param({"5000000"})
+    private int tamanho;
+
+    // A cada quantos contatos vem uma duplicata do anterior: nome com duas letras trocadas, mesmo telefone e email
+    // depois de normalizados (na tabela estariam formatados de outro jeito e em maiúsculas)
+    @Param({"50"})
+    private int intervaloDuplicatas;
+
+    // Nome de cada linha (índice em nomes) e as linhas na ordem do nome normalizado
+    private String[] nomes;
+    private int[] nomeDaLinha;
+    private int[] ordemPorNome;
+    private ContatoDeduplicacaoService service;
+    private ResultadoDeduplicacao ultimo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        TreeMap<String, Integer> distintos = new TreeMap<>();
+        String[] nomePorLinha = new String[tamanho + 1];
+        for (int i = 1; i <= tamanho; i++) {
+            nomePorLinha[i] = i % intervaloDuplicatas == 0 ? trocarLetras(nomePorLinha[i - 1])
+                    : PRENOMES[aleatorio.nextInt(PRENOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)]
+                    + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            distintos.putIfAbsent(nomePorLinha[i], 0);
+        }
+        // Poucos nomes distintos: ordenar os nomes e distribuir as linhas por eles (counting sort) sai barato
+        TreeMap<String, String> porNormalizado = new TreeMap<>();
+        distintos.keySet().forEach(nome -> porNormalizado.put(Contato.normalizarNome(nome) + "\u0000" + nome, nome));
+        nomes = porNormalizado.values().toArray(String[]::new);
+        TreeMap<String, Integer> posicao = new TreeMap<>();
+        for (int n = 0; n < nomes.length; n++) {
+            posicao.put(nomes[n], n);
+        }
+        nomeDaLinha = new int[tamanho + 1];
+        int[] inicioDoNome = new int[nomes.length + 1];
+        for (int i = 1; i <= tamanho; i++) {
+            nomeDaLinha[i] = posicao.get(nomePorLinha[i]);
+            inicioDoNome[nomeDaLinha[i] + 1]++;
+        }
+        Arrays.parallelPrefix(inicioDoNome, Integer::sum);
+        ordemPorNome = new int[tamanho];
+        for (int i = 1; i <= tamanho; i++) {
+            ordemPorNome[inicioDoNome[nomeDaLinha[i]]++] = i;
+        }
+        service = new ContatoDeduplicacaoService(repositorio(), new ContatoIndiceBusca(), evento -> {
+        }, new SemTransacao(), 70, 5, 500, 50, 100_000, 500_000, 0);
+    }
+
+    private static String trocarLetras(String nome) {
+        char[] letras = nome.toCharArray();
+        char segunda = letras[1];
+        letras[1] = letras[2];
+        letras[2] = segunda;
+        return new String(letras);
+    }
+
+    private CandidatoDuplicata candidato(int linha) {
+        // A duplicata tem o telefone e o email do contato anterior
+        int pessoa = linha % intervaloDuplicatas == 0 ? linha - 1 : linha;
+        return new CandidatoDuplicata((long) linha, nomes[nomeDaLinha[linha]],
+                "+55119" + String.format("%08d", pessoa), String.format("contato%08d@exemplo.com", pessoa), 0L);
+    }
+
+    // Telefone e email crescem com a linha; o nome segue a ordem pré-calculada
+    private ContatoRepository repositorio() {
+        return (ContatoRepository) Proxy.newProxyInstance(ContatoRepository.class.getClassLoader(),
+                new Class<?>[]{ContatoRepository.class}, (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "streamPorTelefone", "streamPorEmail" -> IntStream.rangeClosed(1, tamanho).mapToObj(this::candidato);
+                    case "streamPorNome" -> Arrays.stream(ordemPorNome).mapToObj(this::candidato);
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    private static final class SemTransacao implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definicao) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        service.encerrar();
+        System.out.println("Última execução: " + ultimo.lidos() + " linhas lidas, " + ultimo.blocos() + " blocos, "
+                + ultimo.paresComparados() + " pares comparados, " + ultimo.propostas().size() + " propostas");
+    }
+
+    @Benchmark
+    public ResultadoDeduplicacao deduplicar() {
+        ultimo = service.deduplicar(false);
+        return ultimo;
+    }
+}
@@ -0,0 +1,89 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.controller.CodificacaoResposta;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoExportacaoService;
+import com.exemplo.todo.service.FormatoExportacao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// Cada operação exporta a agenda inteira (GET /contatos/export sem o HTTP) para uma saída que só conta bytes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportacaoBenchmark {
+
+    @Param({"1000000"})
+    private int tamanho;
+
+    @Param({"CSV", "VCARD"})
+    private FormatoExportacao formato;
+
+    @Param({"IDENTIDADE", "GZIP"})
+    private CodificacaoResposta codificacao;
+
+    private ConfigurableApplicationContext contexto;
+    private ContatoExportacaoService service;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("exportacao" + tamanho);
+        service = contexto.getBean(ContatoExportacaoService.class);
+        // Carga direta por JDBC em lotes: pelo importador, 1M contatos levariam minutos só para preparar
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        List<Object[]> lote = new ArrayList<>(10_000);
+        for (int i = 1; i <= tamanho; i++) {
+            String nome = "Contato " + i;
+            String telefone = String.format("119%08d", i);
+            String email = "contato" + i + "@exemplo.com";
+            lote.add(new Object[]{(long) i, nome, telefone, email,
+                    Contato.normalizarNome(nome), Contato.normalizarTelefone(telefone), email});
+            if (lote.size() == 10_000 || i == tamanho) {
+                jdbc.batchUpdate("""
+                        insert into contato (id, nome, telefone, email, versao, nome_normalizado, telefone_normalizado, email_normalizado)
+                        values (?, ?, ?, ?, 0, ?, ?, ?)""", lote);
+                lote.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long exportar() throws IOException {
+        ContagemBytes saida = new ContagemBytes();
+        try (OutputStream corpo = codificacao.envolver(saida, Deflater.BEST_SPEED)) {
+            service.exportar(formato, corpo);
+        }
+        return saida.bytes;
+    }
+
+    private static final class ContagemBytes extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int tamanho) {
+            bytes += tamanho;
+        }
+    }
+}
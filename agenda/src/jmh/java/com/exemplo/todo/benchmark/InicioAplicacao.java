@@ -0,0 +1,81 @@
+package com.exemplo.todo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tempo até a primeira resposta e memória residente (RSS) de uma subida da aplicação: dispara o
+ * comando, consulta a URL a cada 10 ms até receber um status abaixo de 400 e lê o VmRSS do
+ * processo nesse instante (Linux). Repete a subida N vezes e informa a mediana.
+ *
+ * <pre>
+ * java -cp ... com.exemplo.todo.benchmark.InicioAplicacao http://localhost:8080/contatos 5 \
+ *      java -jar target/agenda-0.0.1-SNAPSHOT.jar
+ * </pre>
+ */
+public final class InicioAplicacao {
+
+    private InicioAplicacao() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int repeticoes = Integer.parseInt(args[1]);
+        List<String> comando = Arrays.asList(args).subList(2, args.length);
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(5)).build();
+        long[] tempos = new long[repeticoes];
+        long[] memorias = new long[repeticoes];
+        for (int i = 0; i < repeticoes; i++) {
+            Process processo = new ProcessBuilder(new ArrayList<>(comando))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            long inicio = System.nanoTime();
+            try {
+                while (!respondeu(http, requisicao)) {
+                    if (!processo.isAlive()) {
+                        throw new IllegalStateException("A aplicação encerrou antes de responder (saída " + processo.exitValue() + ")");
+                    }
+                    Thread.sleep(10);
+                }
+                tempos[i] = System.nanoTime() - inicio;
+                memorias[i] = rss(processo.pid());
+                System.out.printf("subida %d: primeira resposta=%d ms rss=%.1f MB%n", i + 1, tempos[i] / 1_000_000, memorias[i] / 1048576.0);
+            } finally {
+                processo.destroy();
+                processo.waitFor();
+            }
+        }
+        Arrays.sort(tempos);
+        Arrays.sort(memorias);
+        System.out.printf("mediana: primeira resposta=%d ms rss=%.1f MB%n",
+                tempos[repeticoes / 2] / 1_000_000, memorias[repeticoes / 2] / 1048576.0);
+    }
+
+    private static boolean respondeu(HttpClient http, HttpRequest requisicao) {
+        try {
+            return http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static long rss(long pid) throws Exception {
+        for (String linha : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+            if (linha.startsWith("VmRSS:")) {
+                return Long.parseLong(linha.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.config.SerializacaoConfig;
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.entity.Contato;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reflexão (BeanSerializer) contra os serializadores de SerializacaoConfig. Alocação por operação
+// com -Djmh.args="-prof gc" (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializacaoBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Como o ObjectMapper da aplicação, que recebe o módulo pelo bean
+    private final ObjectMapper objectMapperManual = new ObjectMapper().registerModule(SerializacaoConfig.modulo());
+    private List<Contato> contatos;
+    private List<ContatoResumo> resumos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contatos = new ArrayList<>(tamanho);
+        resumos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            contatos.add(new Contato((long) i, "Contato " + i, String.format("%011d", i), "contato" + i + "@exemplo.com", 0L));
+            resumos.add(new ContatoResumo((long) i, "Contato " + i, String.format("%011d", i), "contato" + i + "@exemplo.com", 0L));
+        }
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), contatos);
+    }
+
+    @Benchmark
+    public void serializarListaManual() throws IOException {
+        objectMapperManual.writeValue(OutputStream.nullOutputStream(), contatos);
+    }
+
+    // O corpo de GET /contatos (a página, sem o cursor)
+    @Benchmark
+    public void serializarResumos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), resumos);
+    }
+
+    @Benchmark
+    public void serializarResumosManual() throws IOException {
+        objectMapperManual.writeValue(OutputStream.nullOutputStream(), resumos);
+    }
+}
@@ -2,8 +2,10 @@ package com.exemplo.todo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class TodoListApplication {
     public static void main(String[] args) {
         SpringApplication.run(TodoListApplication.class, args);
@@ -0,0 +1,67 @@
+package com.exemplo.todo.config;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Tenant (time) dono dos dados da requisição atual. Definido pelo TenantFilter a partir do
+ * cabeçalho X-Tenant e lido pelo Hibernate (@TenantId), pelo cache, pelo índice de busca e
+ * pelo feed. Fora de uma requisição (subida, tarefas em segundo plano) vale o tenant padrão,
+ * a menos que o código rode explicitamente como outro tenant com executarComo.
+ */
+public final class ContextoTenant {
+
+    public static final String PADRAO = "padrao";
+    // Também vira nome de esquema e de arquivo, então só letras minúsculas, dígitos, _ e -
+    static final Pattern FORMATO = Pattern.compile("[a-z0-9][a-z0-9_-]{0,63}");
+
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private ContextoTenant() {
+    }
+
+    public static String atual() {
+        String tenant = ATUAL.get();
+        return tenant != null ? tenant : PADRAO;
+    }
+
+    public static boolean valido(String tenant) {
+        return tenant != null && FORMATO.matcher(tenant).matches();
+    }
+
+    // Chave do cache "contatos": ids são únicos, mas a entrada só pode ser lida pelo próprio tenant
+    public static String chave(Object id) {
+        return atual() + ":" + id;
+    }
+
+    public static <T> T executarComo(String tenant, Supplier<T> tarefa) {
+        String anterior = trocar(tenant);
+        try {
+            return tarefa.get();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+
+    public static void executarComo(String tenant, Runnable tarefa) {
+        executarComo(tenant, () -> {
+            tarefa.run();
+            return null;
+        });
+    }
+
+    // Define o tenant da thread e devolve o anterior, que deve voltar com restaurar num finally
+    static String trocar(String tenant) {
+        String anterior = ATUAL.get();
+        ATUAL.set(tenant);
+        return anterior;
+    }
+
+    static void restaurar(String anterior) {
+        if (anterior == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(anterior);
+        }
+    }
+}
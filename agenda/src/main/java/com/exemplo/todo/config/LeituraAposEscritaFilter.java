@@ -0,0 +1,64 @@
+package com.exemplo.todo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Leitura das próprias escritas com réplicas: requisições de escrita rodam inteiras no primário
+ * e devolvem um cookie curto; enquanto ele vale, as leituras do mesmo cliente também vão ao
+ * primário em vez de a uma réplica que talvez ainda não tenha recebido a alteração.
+ */
+public class LeituraAposEscritaFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "agenda-primario";
+    private static final Set<String> METODOS_LEITURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int aderenciaSegundos;
+
+    public LeituraAposEscritaFilter(Duration aderencia) {
+        this.aderenciaSegundos = (int) Math.max(1, aderencia.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean escrita = !METODOS_LEITURA.contains(request.getMethod());
+        if (escrita) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge(aderenciaSegundos);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!escrita && !temCookie(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RoteamentoDataSource.fixarNoPrimario(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoteamentoDataSource.fixarNoPrimario(false);
+        }
+    }
+
+    private static boolean temCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
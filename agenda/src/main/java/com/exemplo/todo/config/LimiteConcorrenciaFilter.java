@@ -0,0 +1,61 @@
+package com.exemplo.todo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas requisições podem estar em andamento ao mesmo tempo. Com threads virtuais
+ * o Tomcat deixa de ser o gargalo e milhares de requisições chegariam ao pool do Hikari;
+ * aqui as excedentes esperam um pouco e, se não houver vaga, recebem 503 com Retry-After.
+ */
+@Component
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permissoes;
+    private final long esperaMaximaNanos;
+
+    public LimiteConcorrenciaFilter(@Value("${agenda.concorrencia.max-requisicoes:200}") int maxRequisicoes,
+                                    @Value("${agenda.concorrencia.espera-maxima:500ms}") Duration esperaMaxima) {
+        this.permissoes = new Semaphore(maxRequisicoes);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtida = false;
+        }
+        if (!obtida) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor sobrecarregado, tente novamente.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permissoes.release();
+        }
+    }
+}
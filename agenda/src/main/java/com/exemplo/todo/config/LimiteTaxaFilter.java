@@ -0,0 +1,128 @@
+package com.exemplo.todo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita, por cliente, a taxa de GETs nos caminhos caros (listagem e busca) com um balde de
+ * fichas: cada cliente pode fazer uma rajada de "rajada" requisições e depois uma a cada
+ * 1/"requisicoes-por-segundo". Acima disso recebe 429 com Retry-After. O caminho comparado é o
+ * mesmo que o Spring MVC usa para achar o controller (decodificado e sem ;parametros), então
+ * /contato%73 e /contatos;x contam como /contatos.
+ * O cliente é o endereço remoto (atrás de proxy, configure server.forward-headers-strategy): clientes
+ * atrás do mesmo NAT ou proxy sem X-Forwarded-For dividem um balde. Com cabecalho-cliente, o cliente
+ * passa a ser o valor desse cabeçalho; só use um cabeçalho que o gateway define e o cliente não
+ * consegue trocar, senão cada valor novo é um balde cheio.
+ * Roda depois da observação HTTP, para os 429 aparecerem em http.server.requests, e antes do
+ * limite de concorrência, para um cliente barrado aqui não ocupar vaga lá.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "agenda.limite-taxa.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private final Set<String> caminhos;
+    private final String cabecalhoCliente;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    // Um balde parado mais que o tempo de reabastecer está cheio, igual a um novo; pode sair do mapa sem perda
+    private final Cache<String, Balde> baldes;
+    private final Counter aceitas;
+    private final Counter rejeitadas;
+
+    public LimiteTaxaFilter(@Value("${agenda.limite-taxa.requisicoes-por-segundo:20}") double requisicoesPorSegundo,
+                            @Value("${agenda.limite-taxa.rajada:40}") int rajada,
+                            @Value("${agenda.limite-taxa.caminhos:/contatos,/contatos/busca}") String[] caminhos,
+                            @Value("${agenda.limite-taxa.cabecalho-cliente:}") String cabecalhoCliente,
+                            MeterRegistry registry) {
+        this.caminhos = Set.of(caminhos);
+        this.cabecalhoCliente = cabecalhoCliente;
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requisicoesPorSegundo);
+        this.toleranciaNanos = intervaloNanos * rajada;
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofNanos(toleranciaNanos + intervaloNanos))
+                .build();
+        this.aceitas = registry.counter("agenda.limite.taxa", "resultado", "aceita");
+        this.rejeitadas = registry.counter("agenda.limite.taxa", "resultado", "rejeitada");
+        registry.gauge("agenda.limite.taxa.clientes", baldes, Cache::estimatedSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !caminhos.contains(UrlPathHelper.defaultInstance.getLookupPathForRequest(request));
+    }
+
+    // Sem o cabeçalho configurado (ou sem valor nele), o endereço remoto
+    private String cliente(HttpServletRequest request) {
+        String valor = cabecalhoCliente.isEmpty() ? null : request.getHeader(cabecalhoCliente);
+        return valor != null && !valor.isBlank() ? cabecalhoCliente + ":" + valor : request.getRemoteAddr();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long agora = System.nanoTime();
+        long espera = baldes.get(cliente(request), cliente -> new Balde(agora))
+                .consumir(agora, intervaloNanos, toleranciaNanos);
+        if (espera > 0) {
+            rejeitadas.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Limite de requisições excedido, tente novamente.");
+            return;
+        }
+        aceitas.increment();
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Balde de fichas no formato GCRA: guarda só o instante teórico em que o balde volta a
+     * ficar cheio, então consumir é um compareAndSet, sem trava mesmo com o mesmo cliente
+     * em várias threads.
+     */
+    static final class Balde {
+
+        private final AtomicLong cheioEm;
+
+        Balde(long agora) {
+            this.cheioEm = new AtomicLong(agora);
+        }
+
+        // 0 se a ficha foi consumida; senão, quantos nanos faltam para a próxima
+        long consumir(long agora, long intervalo, long tolerancia) {
+            while (true) {
+                long atual = cheioEm.get();
+                long novo = (atual - agora > 0 ? atual : agora) + intervalo;
+                long excesso = novo - agora - tolerancia;
+                if (excesso > 0) {
+                    return excesso;
+                }
+                if (cheioEm.compareAndSet(atual, novo)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.exemplo.todo.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga a medição dos serviços anotados com @Observed (timer agenda.servico por classe e método).
+ * Com agenda.metricas.servicos.habilitado=false o aspecto nem é registrado, então as
+ * chamadas não passam por nenhuma interceptação nem alocam contexto de observação.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "agenda.metricas.servicos.habilitado", havingValue = "true", matchIfMissing = true)
+public class MetricasConfig {
+
+    @Bean
+    ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.exemplo.todo.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(Flyway.class)
+public class MigracoesConfig {
+
+    // A execução de treino do CDS (spring.context.exit=onRefresh) sobe o contexto e encerra; sem
+    // migrar ela não precisa de banco, e as migrações ficam para a primeira subida de verdade
+    @Bean
+    FlywayMigrationStrategy estrategiaMigracao(Environment ambiente) {
+        return flyway -> {
+            if (!"onRefresh".equals(ambiente.getProperty("spring.context.exit"))) {
+                flyway.migrate();
+            }
+        };
+    }
+}
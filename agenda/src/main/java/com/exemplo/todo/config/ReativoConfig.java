@@ -0,0 +1,141 @@
+package com.exemplo.todo.config;
+
+import com.exemplo.todo.controller.ContatoReativoHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+
+import java.time.Duration;
+
+/**
+ * Variante reativa da API de contatos (agenda.reativo.habilitado): as rotas do
+ * ContatoReativoHandler num servidor Netty próprio, em agenda.reativo.porta, ao lado do Tomcat.
+ * O acesso ao banco é por R2DBC, num pool separado do Hikari. A autoconfiguração de R2DBC do Boot
+ * fica desligada (application.properties): ela exigiria spring.r2dbc.url mesmo com a variante
+ * desligada.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "agenda.reativo.habilitado", havingValue = "true")
+public class ReativoConfig {
+
+    // Usuário e senha são os mesmos do datasource; a URL muda só o protocolo (r2dbc:mysql://...)
+    @Bean
+    ConexoesReativas conexoesReativas(@Value("${agenda.reativo.r2dbc.url}") String url,
+                                      @Value("${spring.datasource.username:}") String usuario,
+                                      @Value("${spring.datasource.password:}") String senha,
+                                      @Value("${agenda.reativo.r2dbc.tamanho-pool:20}") int tamanhoPool) {
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, senha)
+                .build();
+        return new ConexoesReativas(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+                .maxSize(tamanhoPool)
+                // Mesmo limite do connection-timeout do Hikari: esperar mais só acumula requisições
+                .maxAcquireTime(Duration.ofSeconds(2))
+                .build()));
+    }
+
+    @Bean
+    DatabaseClient bancoReativo(ConexoesReativas conexoesReativas) {
+        return DatabaseClient.create(conexoesReativas.pool);
+    }
+
+    @Bean
+    ServidorReativo servidorReativo(ContatoReativoHandler handler, ObjectMapper objectMapper,
+                                    ServerProperties servidor, ObservationRegistry observacoes,
+                                    @Value("${agenda.reativo.porta:8081}") int porta) {
+        // Mesmo ObjectMapper do MVC, para o JSON sair igual nas duas variantes
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        // Métrica própria (agenda.reativo.requisicoes) para não misturar com o http.server.requests do Tomcat
+        HttpHandler http = WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(handler.rotas(), estrategias))
+                .exceptionHandlers(tratadores -> tratadores.addAll(estrategias.exceptionHandlers()))
+                .observationRegistry(observacoes)
+                .observationConvention(new DefaultServerRequestObservationConvention("agenda.reativo.requisicoes"))
+                .build();
+        NettyReactiveWebServerFactory fabrica = new NettyReactiveWebServerFactory(porta);
+        // A mesma compressão configurada para o Tomcat (server.compression.*)
+        fabrica.setCompression(servidor.getCompression());
+        return new ServidorReativo(fabrica.getWebServer(http));
+    }
+
+    /**
+     * Dono do pool R2DBC. O pool não é registrado como bean ConnectionFactory de propósito: com
+     * um desses no contexto, a autoconfiguração do Boot deixa de criar o DataSource do JPA.
+     */
+    public static final class ConexoesReativas implements DisposableBean {
+
+        private final ConnectionPool pool;
+
+        ConexoesReativas(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        // Conexões em uso e pedidos esperando, para comparar com o Hikari
+        public PoolMetrics metricas() {
+            return pool.getMetrics().orElseThrow();
+        }
+
+        @Override
+        public void destroy() {
+            pool.dispose();
+        }
+    }
+
+    public static final class ServidorReativo implements SmartLifecycle {
+
+        private final WebServer servidor;
+        private volatile boolean rodando;
+
+        ServidorReativo(WebServer servidor) {
+            this.servidor = servidor;
+        }
+
+        // Porta efetiva (com agenda.reativo.porta=0, a escolhida pelo sistema)
+        public int getPorta() {
+            return servidor.getPort();
+        }
+
+        @Override
+        public void start() {
+            servidor.start();
+            rodando = true;
+        }
+
+        @Override
+        public void stop() {
+            servidor.stop();
+            rodando = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return rodando;
+        }
+    }
+}
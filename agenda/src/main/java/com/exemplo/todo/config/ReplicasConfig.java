@@ -0,0 +1,60 @@
+package com.exemplo.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura (agenda.replicas.habilitado=true): o primário continua vindo de
+ * spring.datasource.*; cada URL em agenda.replicas.urls vira um pool com as mesmas
+ * configurações do Hikari e as mesmas credenciais.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "agenda.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    RoteamentoDataSource roteamentoDataSource(HikariDataSource primario,
+                                              @Value("${agenda.replicas.urls}") List<String> urls,
+                                              @Value("${agenda.replicas.espera-apos-falha:30s}") Duration esperaAposFalha) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            // Sem iniciar o pool aqui: réplica fora do ar na subida não impede a aplicação de subir
+            HikariDataSource replica = new HikariDataSource();
+            primario.copyStateTo(replica);
+            replica.setJdbcUrl(url);
+            replica.setPoolName("agenda-replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new RoteamentoDataSource(primario, replicas, esperaAposFalha);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(RoteamentoDataSource roteamento) {
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    LeituraAposEscritaFilter leituraAposEscritaFilter(@Value("${agenda.replicas.aderencia:5s}") Duration aderencia) {
+        return new LeituraAposEscritaFilter(aderencia);
+    }
+}
@@ -0,0 +1,116 @@
+package com.exemplo.todo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * DataSource que manda as transações somente leitura para as réplicas, em rodízio, e todo o
+ * resto para o primário. Uma réplica que falha ao entregar conexão fica fora do rodízio por
+ * um tempo e a leitura cai na próxima réplica ou no primário. Precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy: só assim a conexão é pedida depois de a transação já estar
+ * marcada como readOnly.
+ */
+public class RoteamentoDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    // Leitura das próprias escritas: enquanto ligado na thread, até leituras vão ao primário
+    private static final ThreadLocal<Boolean> PRIMARIO_FIXADO = new ThreadLocal<>();
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long esperaAposFalhaNanos;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, List<? extends DataSource> replicas, Duration esperaAposFalha) {
+        this.primario = primario;
+        this.replicas = IntStream.range(0, replicas.size()).mapToObj(i -> new Replica(i, replicas.get(i))).toList();
+        this.esperaAposFalhaNanos = esperaAposFalha.toNanos();
+    }
+
+    public static void fixarNoPrimario(boolean fixar) {
+        if (fixar) {
+            PRIMARIO_FIXADO.set(Boolean.TRUE);
+        } else {
+            PRIMARIO_FIXADO.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection conectar(Abertura abertura) throws SQLException {
+        if (replicas.isEmpty() || Boolean.TRUE.equals(PRIMARIO_FIXADO.get())
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return abertura.abrir(primario);
+        }
+        long agora = System.nanoTime();
+        for (int tentativa = 0; tentativa < replicas.size(); tentativa++) {
+            Replica replica = replicas.get(Math.floorMod(proxima.getAndIncrement(), replicas.size()));
+            if (!replica.disponivel(agora)) {
+                continue;
+            }
+            try {
+                return abertura.abrir(replica.dataSource);
+            } catch (SQLException e) {
+                replica.suspender(agora + esperaAposFalhaNanos);
+                log.warn("Réplica {} indisponível, fora do rodízio por {} s: {}",
+                        replica.indice, esperaAposFalhaNanos / 1_000_000_000, e.getMessage());
+            }
+        }
+        return abertura.abrir(primario);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Abertura {
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        final int indice;
+        final DataSource dataSource;
+        private volatile boolean suspensa;
+        private volatile long voltaEm;
+
+        Replica(int indice, DataSource dataSource) {
+            this.indice = indice;
+            this.dataSource = dataSource;
+        }
+
+        boolean disponivel(long agora) {
+            return !suspensa || agora - voltaEm >= 0;
+        }
+
+        void suspender(long ate) {
+            voltaEm = ate;
+            suspensa = true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.exemplo.todo.config;
+
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.entity.Contato;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Serializadores escritos à mão para Contato e ContatoResumo, os tipos das respostas de listagem,
+ * busca e streaming. O BeanSerializer do Jackson percorre as propriedades por reflexão (getter,
+ * checagem de nulo e inclusão a cada campo); aqui os nomes já vêm codificados em UTF-8
+ * (SerializedString) e os valores vão direto para o gerador, que escreve no buffer da resposta.
+ * O JSON é o mesmo que o da reflexão: mesmos campos, mesma ordem, nulos incluídos. Vale também
+ * para a variante reativa, que usa o mesmo ObjectMapper.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SerializacaoConfig {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOME = new SerializedString("nome");
+    private static final SerializableString TELEFONE = new SerializedString("telefone");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString VERSAO = new SerializedString("versao");
+
+    // O Boot registra todo bean Module no ObjectMapper da aplicação
+    @Bean
+    Module serializacaoContatos() {
+        return modulo();
+    }
+
+    // Também usado direto por quem monta o próprio ObjectMapper (benchmarks, testes)
+    public static SimpleModule modulo() {
+        return new SimpleModule("serializacao-contatos")
+                .addSerializer(Contato.class, new ContatoSerializer())
+                .addSerializer(ContatoResumo.class, new ContatoResumoSerializer());
+    }
+
+    static final class ContatoSerializer extends StdSerializer<Contato> {
+
+        ContatoSerializer() {
+            super(Contato.class);
+        }
+
+        // Chaves normalizadas e tenant ficam de fora, como os @JsonIgnore da entidade
+        @Override
+        public void serialize(Contato contato, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(contato);
+            numero(gerador, ID, contato.getId());
+            texto(gerador, NOME, contato.getNome());
+            texto(gerador, TELEFONE, contato.getTelefone());
+            texto(gerador, EMAIL, contato.getEmail());
+            numero(gerador, VERSAO, contato.getVersao());
+            gerador.writeEndObject();
+        }
+    }
+
+    static final class ContatoResumoSerializer extends StdSerializer<ContatoResumo> {
+
+        ContatoResumoSerializer() {
+            super(ContatoResumo.class);
+        }
+
+        @Override
+        public void serialize(ContatoResumo contato, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(contato);
+            numero(gerador, ID, contato.id());
+            texto(gerador, NOME, contato.nome());
+            texto(gerador, TELEFONE, contato.telefone());
+            texto(gerador, EMAIL, contato.email());
+            numero(gerador, VERSAO, contato.versao());
+            gerador.writeEndObject();
+        }
+    }
+
+    private static void numero(JsonGenerator gerador, SerializableString nome, Long valor) throws IOException {
+        gerador.writeFieldName(nome);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor.longValue());
+        }
+    }
+
+    private static void texto(JsonGenerator gerador, SerializableString nome, String valor) throws IOException {
+        gerador.writeFieldName(nome);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(valor);
+        }
+    }
+}
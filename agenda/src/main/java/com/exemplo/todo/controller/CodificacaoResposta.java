@@ -0,0 +1,128 @@
+package com.exemplo.todo.controller;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Content-Encoding das respostas em streaming, escolhido pelo Accept-Encoding do cliente
+public enum CodificacaoResposta {
+
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTIDADE(null);
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final String nome;
+
+    CodificacaoResposta(String nome) {
+        this.nome = nome;
+    }
+
+    // Valor do cabeçalho Content-Encoding; nulo sem compressão
+    public String nome() {
+        return nome;
+    }
+
+    // Prefere gzip, depois deflate; q=0 recusa a codificação e "*" vale para as não citadas
+    public static CodificacaoResposta negociar(String aceitas) {
+        if (aceitas == null || aceitas.isBlank()) {
+            return IDENTIDADE;
+        }
+        Double gzip = null;
+        Double deflate = null;
+        Double qualquer = null;
+        for (String item : aceitas.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (codificacao) {
+                case "gzip", "x-gzip" -> gzip = q;
+                case "deflate" -> deflate = q;
+                case "*" -> qualquer = q;
+                default -> {
+                }
+            }
+        }
+        double qGzip = gzip != null ? gzip : qualquer != null ? qualquer : 0;
+        double qDeflate = deflate != null ? deflate : qualquer != null ? qualquer : 0;
+        if (qGzip > 0 && qGzip >= qDeflate) {
+            return GZIP;
+        }
+        return qDeflate > 0 ? DEFLATE : IDENTIDADE;
+    }
+
+    /**
+     * Envolve a saída da resposta. Fechar o stream devolvido só termina a compressão e libera o
+     * Deflater; a saída da resposta continua aberta para o Spring concluir a requisição.
+     */
+    public OutputStream envolver(OutputStream saida, int nivel) throws IOException {
+        return switch (this) {
+            case GZIP -> new SaidaGzip(saida, nivel);
+            case DEFLATE -> new SaidaDeflate(saida, nivel);
+            case IDENTIDADE -> new SaidaSemCompressao(saida);
+        };
+    }
+
+    private static final class SaidaGzip extends GZIPOutputStream {
+
+        SaidaGzip(OutputStream saida, int nivel) throws IOException {
+            super(saida, TAMANHO_BUFFER);
+            def.setLevel(nivel);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            out.flush();
+            def.end();
+        }
+    }
+
+    // "deflate" no HTTP é o formato zlib (RFC 1950), que é o padrão do DeflaterOutputStream
+    private static final class SaidaDeflate extends DeflaterOutputStream {
+
+        SaidaDeflate(OutputStream saida, int nivel) {
+            super(saida, new Deflater(nivel), TAMANHO_BUFFER);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            out.flush();
+            def.end();
+        }
+    }
+
+    private static final class SaidaSemCompressao extends FilterOutputStream {
+
+        SaidaSemCompressao(OutputStream saida) {
+            super(saida);
+        }
+
+        // O FilterOutputStream escreveria byte a byte
+        @Override
+        public void write(byte[] bytes, int inicio, int tamanho) throws IOException {
+            out.write(bytes, inicio, tamanho);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -1,18 +1,62 @@
 package com.exemplo.todo.controller;
 
+import com.exemplo.todo.dto.PaginaContatos;
+import com.exemplo.todo.dto.ResultadoImportacao;
+import com.exemplo.todo.dto.SituacaoDeduplicacao;
 import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoDeduplicacaoService;
+import com.exemplo.todo.service.ContatoExportacaoService;
+import com.exemplo.todo.service.ContatoImportacaoService;
+import com.exemplo.todo.service.ContatoIndiceBusca;
 import com.exemplo.todo.service.ContatoService;
+import com.exemplo.todo.service.FeedAlteracoes;
+import com.exemplo.todo.service.FormatoExportacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/contatos")
 public class ContatoController {
 
     private final ContatoService service;
+    private final ContatoImportacaoService importacaoService;
+    private final FeedAlteracoes feed;
+    private final ObjectMapper objectMapper;
+    private final ContatoExportacaoService exportacaoService;
+    private final ContatoDeduplicacaoService deduplicacaoService;
+    private final int nivelCompressao;
 
-    public ContatoController(ContatoService service) {
+    public ContatoController(ContatoService service, ContatoImportacaoService importacaoService,
+                             FeedAlteracoes feed, ObjectMapper objectMapper,
+                             ContatoExportacaoService exportacaoService,
+                             ContatoDeduplicacaoService deduplicacaoService,
+                             @Value("${agenda.exportacao.nivel-compressao:1}") int nivelCompressao) {
         this.service = service;
+        this.importacaoService = importacaoService;
+        this.feed = feed;
+        this.objectMapper = objectMapper;
+        this.exportacaoService = exportacaoService;
+        this.deduplicacaoService = deduplicacaoService;
+        this.nivelCompressao = nivelCompressao;
     }
 
     @PostMapping
@@ -20,19 +64,140 @@ public class ContatoController {
         return service.criar(contato);
     }
 
+    // Importação em lote: aceita array JSON ou NDJSON, lido em streaming
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResultadoImportacao importar(InputStream corpo) throws IOException {
+        return importacaoService.importar(corpo);
+    }
+
+    // Deduplicação do tenant em segundo plano: só propõe mesclagens, a menos que aplicar=true. Uma por vez (senão 409)
+    @PostMapping("/deduplicacao")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public SituacaoDeduplicacao deduplicar(@RequestParam(defaultValue = "false") boolean aplicar) {
+        return deduplicacaoService.iniciar(aplicar);
+    }
+
+    // Situação da última deduplicação do tenant, com as propostas em páginas a partir do cursor
+    @GetMapping("/deduplicacao")
+    public SituacaoDeduplicacao situacaoDeduplicacao(@RequestParam(required = false) Long cursor,
+                                                     @RequestParam(defaultValue = "${agenda.contatos.pagina.tamanho-padrao:100}") int tamanho) {
+        return deduplicacaoService.situacao(cursor, tamanho);
+    }
+
+    // O ETag é o contador de alterações do tenant; se o cliente já tem a versão atual, responde 304 sem buscar a página
     @GetMapping
-    public List<Contato> listar() {
-        return service.listarTodos();
+    public ResponseEntity<PaginaContatos> listar(@RequestParam(required = false) Long cursor,
+                                                 @RequestParam(defaultValue = "${agenda.contatos.pagina.tamanho-padrao:100}") int tamanho,
+                                                 WebRequest requisicao) {
+        // Calculado antes da página: uma gravação no meio só faz o próximo GET baixar de novo.
+        // ETag fraco: o Tomcat não comprime respostas com ETag forte, e a página em gzip é equivalente
+        String etag = "W/\"" + service.resumirVersoes().etag() + "\"";
+        if (requisicao.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(service.listarPagina(cursor, tamanho));
     }
 
-// ContatoController.java
+    // O Spring responde 304 sozinho quando If-None-Match bate com o ETag (a versão do contato)
+    @GetMapping("/{id}")
+    public ResponseEntity<Contato> buscarPorId(@PathVariable Long id) {
+        Contato contato = service.buscarPorId(id);
+        return ResponseEntity.ok().eTag(String.valueOf(contato.getVersao())).body(contato);
+    }
+
+    // Busca por substring/prefixo no índice em memória; campo opcional (NOME, EMAIL ou TELEFONE).
+    // Com aproximada=true, busca só por nome, ignorando acentos e tolerando erros de digitação
+    @GetMapping("/busca")
+    public List<Contato> buscar(@RequestParam String q,
+                                @RequestParam(required = false) ContatoIndiceBusca.Campo campo,
+                                @RequestParam(defaultValue = "${agenda.contatos.busca.limite-padrao:20}") int limite,
+                                @RequestParam(defaultValue = "false") boolean aproximada) {
+        if (aproximada) {
+            if (campo != null && campo != ContatoIndiceBusca.Campo.NOME) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A busca aproximada é só por nome.");
+            }
+            return service.buscarAproximado(q, limite);
+        }
+        return service.buscar(q, campo, limite);
+    }
+
+    // Exporta todos os contatos em NDJSON, escrevendo cada linha assim que é lida do banco
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody stream() {
+        return saida -> {
+            try (SequenceWriter escritor = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(saida)) {
+                service.percorrerTodos(contato -> {
+                    try {
+                        escritor.write(contato);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
+    // Exporta a agenda inteira em CSV ou vCard, comprimida conforme o Accept-Encoding
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceitas,
+                                                          WebRequest requisicao) {
+        CodificacaoResposta codificacao = CodificacaoResposta.negociar(aceitas);
+        // Cada formato e codificação é uma representação diferente, com ETag próprio
+        String etag = service.resumirVersoes().etag() + "-" + formato.extensao() + "-" + codificacao.name().toLowerCase(Locale.ROOT);
+        if (requisicao.checkNotModified(etag)) {
+            return null;
+        }
+        // O ETag já foi posto na resposta pelo checkNotModified
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(formato.tipo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("contatos." + formato.extensao()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (codificacao.nome() != null) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, codificacao.nome());
+        }
+        return resposta.body(saida -> {
+            try (OutputStream corpo = codificacao.envolver(saida, nivelCompressao)) {
+                exportacaoService.exportar(formato, corpo);
+            }
+        });
+    }
+
+    // Feed de alterações (SSE); Last-Event-ID ou ?desde= retomam a partir do último offset recebido
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento,
+                              @RequestParam(required = false) Long desde) {
+        return feed.inscrever(ultimoEvento != null ? ultimoEvento : desde);
+    }
+
+    // If-Match (ETag do GET) ou o campo versao do corpo protegem contra sobrescrever alteração alheia (409)
     @PutMapping("/{id}")
-    public Contato atualizar(@PathVariable Long id, @RequestBody Contato contato) {
-        return service.atualizar(id, contato);
+    public ResponseEntity<Contato> atualizar(@PathVariable Long id, @RequestBody Contato contato,
+                                             @RequestHeader(value = "If-Match", required = false) String seCorresponder) {
+        Long versao = seCorresponder != null ? versaoDoEtag(seCorresponder) : contato.getVersao();
+        Contato salvo = service.atualizar(id, contato, versao);
+        return ResponseEntity.ok().eTag(String.valueOf(salvo.getVersao())).body(salvo);
     }
 
     @DeleteMapping("/{id}")
     public void excluir(@PathVariable Long id) {
         service.excluir(id);
     }
-}
\ No newline at end of file
+
+    // "3" -> 3; "*" aceita qualquer versão. If-Match usa comparação forte, então ETag fraco (W/) é recusado
+    static Long versaoDoEtag(String etag) {
+        String valor = etag.trim();
+        if (valor.equals("*")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(valor.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match inválido.");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.exemplo.todo.controller;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.config.TenantFilter;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoIndiceBusca;
+import com.exemplo.todo.service.ContatoReativoService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.*;
+
+/**
+ * Rotas /contatos da variante reativa (servidor Netty de ReativoConfig), com os mesmos
+ * parâmetros da API MVC. Listagem e busca respondem em streaming: NDJSON quando o cliente
+ * aceita application/x-ndjson, senão um array JSON escrito à medida que os contatos chegam.
+ * Em ambos os casos a escrita segue a demanda da conexão: sem espaço no buffer do socket,
+ * nenhum lote novo é lido do banco.
+ */
+@Component
+@ConditionalOnProperty(name = "agenda.reativo.habilitado", havingValue = "true")
+public class ContatoReativoHandler {
+
+    private static final String ATRIBUTO_TENANT = ContatoReativoHandler.class.getName() + ".tenant";
+
+    private final ContatoReativoService service;
+    private final int limiteBuscaPadrao;
+    private final int tamanhoPaginaPadrao;
+
+    public ContatoReativoHandler(ContatoReativoService service,
+                                 @Value("${agenda.contatos.busca.limite-padrao:20}") int limiteBuscaPadrao,
+                                 @Value("${agenda.contatos.pagina.tamanho-padrao:100}") int tamanhoPaginaPadrao) {
+        this.service = service;
+        this.limiteBuscaPadrao = limiteBuscaPadrao;
+        this.tamanhoPaginaPadrao = tamanhoPaginaPadrao;
+    }
+
+    public RouterFunction<ServerResponse> rotas() {
+        return RouterFunctions.route()
+                .path("/contatos", rotas -> rotas
+                        .GET("", this::listar)
+                        .GET("/busca", this::buscar)
+                        .GET("/{id}", this::buscarPorId)
+                        .POST("", contentType(MediaType.APPLICATION_JSON), this::criar)
+                        .PUT("/{id}", contentType(MediaType.APPLICATION_JSON), this::atualizar)
+                        .DELETE("/{id}", this::excluir))
+                .filter(this::resolverTenant)
+                .build();
+    }
+
+    // Mesmas regras do TenantFilter, guardando o tenant na requisição (não há ThreadLocal aqui)
+    private Mono<ServerResponse> resolverTenant(ServerRequest requisicao, HandlerFunction<ServerResponse> proximo) {
+        String tenant = requisicao.headers().firstHeader(TenantFilter.CABECALHO);
+        if (tenant == null || tenant.isEmpty()) {
+            tenant = ContextoTenant.PADRAO;
+        } else if (!ContextoTenant.valido(tenant)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "X-Tenant inválido."));
+        }
+        requisicao.attributes().put(ATRIBUTO_TENANT, tenant);
+        requisicao.exchange().getResponse().getHeaders().add(HttpHeaders.VARY, TenantFilter.CABECALHO);
+        return proximo.handle(requisicao);
+    }
+
+    // Sem "tamanho", o mesmo padrão da API MVC; um tamanho maior é lido em lotes, conforme o cliente consome
+    Mono<ServerResponse> listar(ServerRequest requisicao) {
+        Long cursor = parametroNumerico(requisicao, "cursor").orElse(null);
+        long tamanho = parametroNumerico(requisicao, "tamanho").orElse((long) tamanhoPaginaPadrao);
+        return emStreaming(requisicao, service.listar(tenant(requisicao), cursor, tamanho));
+    }
+
+    Mono<ServerResponse> buscar(ServerRequest requisicao) {
+        String termo = requisicao.queryParam("q")
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parâmetro q obrigatório."));
+        ContatoIndiceBusca.Campo campo = requisicao.queryParam("campo").map(ContatoReativoHandler::campo).orElse(null);
+        int limite = parametroNumerico(requisicao, "limite").map(Math::toIntExact).orElse(limiteBuscaPadrao);
+        if (requisicao.queryParam("aproximada").map(Boolean::parseBoolean).orElse(false)) {
+            if (campo != null && campo != ContatoIndiceBusca.Campo.NOME) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "A busca aproximada é só por nome."));
+            }
+            return emStreaming(requisicao, service.buscarAproximado(tenant(requisicao), termo, limite));
+        }
+        return emStreaming(requisicao, service.buscar(tenant(requisicao), termo, campo, limite));
+    }
+
+    // Com o ETag na resposta, o WebFlux responde 304 sozinho quando If-None-Match bate
+    Mono<ServerResponse> buscarPorId(ServerRequest requisicao) {
+        return service.buscarPorId(tenant(requisicao), id(requisicao))
+                .flatMap(contato -> ServerResponse.ok().eTag(String.valueOf(contato.getVersao())).bodyValue(contato));
+    }
+
+    Mono<ServerResponse> criar(ServerRequest requisicao) {
+        return requisicao.bodyToMono(Contato.class)
+                .flatMap(contato -> service.criar(tenant(requisicao), contato))
+                .flatMap(salvo -> ServerResponse.ok().bodyValue(salvo));
+    }
+
+    // If-Match (ETag do GET) ou o campo versao do corpo, como no ContatoController
+    Mono<ServerResponse> atualizar(ServerRequest requisicao) {
+        String seCorresponder = requisicao.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return requisicao.bodyToMono(Contato.class)
+                .flatMap(contato -> service.atualizar(tenant(requisicao), id(requisicao), contato,
+                        seCorresponder != null ? ContatoController.versaoDoEtag(seCorresponder) : contato.getVersao()))
+                .flatMap(salvo -> ServerResponse.ok().eTag(String.valueOf(salvo.getVersao())).bodyValue(salvo));
+    }
+
+    Mono<ServerResponse> excluir(ServerRequest requisicao) {
+        return service.excluir(tenant(requisicao), id(requisicao)).then(ServerResponse.ok().build());
+    }
+
+    private static Mono<ServerResponse> emStreaming(ServerRequest requisicao, Flux<Contato> contatos) {
+        MediaType tipo = requisicao.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(tipo).body(contatos, Contato.class);
+    }
+
+    private static String tenant(ServerRequest requisicao) {
+        return (String) requisicao.attributes().get(ATRIBUTO_TENANT);
+    }
+
+    private static Long id(ServerRequest requisicao) {
+        return numero(requisicao.pathVariable("id"));
+    }
+
+    private static Optional<Long> parametroNumerico(ServerRequest requisicao, String nome) {
+        return requisicao.queryParam(nome).map(ContatoReativoHandler::numero);
+    }
+
+    // Parâmetros inválidos são 400, como na conversão de tipos do MVC
+    private static Long numero(String valor) {
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valor numérico inválido: " + valor);
+        }
+    }
+
+    private static ContatoIndiceBusca.Campo campo(String valor) {
+        try {
+            return ContatoIndiceBusca.Campo.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + valor);
+        }
+    }
+}
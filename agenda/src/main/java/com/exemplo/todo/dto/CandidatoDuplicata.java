@@ -0,0 +1,6 @@
+package com.exemplo.todo.dto;
+
+// Colunas comparadas na deduplicação, lidas por projeção: telefone e email já normalizados; a versão
+// lida deixa a mesclagem recusar um contato alterado depois da leitura
+public record CandidatoDuplicata(Long id, String nome, String telefone, String email, Long versao) {
+}
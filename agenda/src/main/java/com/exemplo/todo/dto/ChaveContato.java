@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Par (nome, telefone) normalizado usado na checagem de duplicatas em lote
+public record ChaveContato(String nome, String telefone) {
+}
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Colunas exportadas de um contato, lidas por projeção (sem entidade no contexto de persistência)
+public record ContatoExportado(Long id, String nome, String telefone, String email) {
+}
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Projeção somente leitura de Contato usada na listagem paginada (não passa pelo contexto de persistência)
+public record ContatoResumo(Long id, String nome, String telefone, String email, Long versao) {
+}
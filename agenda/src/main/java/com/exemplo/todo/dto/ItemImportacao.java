@@ -0,0 +1,9 @@
+package com.exemplo.todo.dto;
+
+// Linha rejeitada na importação em lote (linha começa em 1)
+public record ItemImportacao(int linha, Situacao situacao, String motivo) {
+
+    public enum Situacao {
+        DUPLICADO, INVALIDO
+    }
+}
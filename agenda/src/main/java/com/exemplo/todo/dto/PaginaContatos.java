@@ -0,0 +1,11 @@
+package com.exemplo.todo.dto;
+
+import java.util.List;
+
+// Página de contatos; proximoCursor é nulo quando não há mais páginas. Imutável: páginas
+// coalescidas são a mesma instância para todas as requisições
+public record PaginaContatos(List<ContatoResumo> contatos, Long proximoCursor) {
+    public PaginaContatos {
+        contatos = List.copyOf(contatos);
+    }
+}
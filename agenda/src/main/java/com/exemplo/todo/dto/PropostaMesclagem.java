@@ -0,0 +1,11 @@
+package com.exemplo.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
+// Grupo de duplicatas: fica o contato mais antigo, saem os outros; pontuação do par mais fraco do grupo.
+// versoes guarda a versão lida de cada contato do grupo, conferida antes de mesclar
+public record PropostaMesclagem(Long manter, List<Long> remover, int pontuacao, @JsonIgnore Map<Long, Long> versoes) {
+}
@@ -0,0 +1,12 @@
+package com.exemplo.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+// Relatório da deduplicação: linhas lidas nas passadas, blocos e pares pontuados, propostas e contatos removidos.
+// truncado indica que o limite de pares foi atingido e parte das duplicatas ficou para a próxima execução.
+// As propostas não vão no JSON: GET /contatos/deduplicacao as devolve em páginas
+public record ResultadoDeduplicacao(long lidos, long blocos, long paresComparados, boolean truncado,
+                                    @JsonIgnore List<PropostaMesclagem> propostas, int mesclados, long duracaoMs) {
+}
@@ -0,0 +1,8 @@
+package com.exemplo.todo.dto;
+
+import java.util.List;
+
+// Relatório da importação em lote: totais, vazão e as linhas que não foram inseridas
+public record ResultadoImportacao(int total, int inseridos, int duplicados, int invalidos,
+                                  double linhasPorSegundo, List<ItemImportacao> rejeitados) {
+}
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Validador (ETag) das listagens: muda a cada inclusão, alteração ou exclusão
+public record ResumoVersoes(String etag) {
+}
@@ -0,0 +1,18 @@
+package com.exemplo.todo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Situação da última deduplicação do tenant: resultado só depois de concluída, erro só se falhou.
+// Traz uma página das propostas; proximoCursor (id do contato mantido) é nulo quando não há mais páginas
+public record SituacaoDeduplicacao(Estado estado, boolean aplicar, Instant iniciadaEm, ResultadoDeduplicacao resultado,
+                                   String erro, int totalPropostas, List<PropostaMesclagem> propostas, Long proximoCursor) {
+
+    public enum Estado {
+        EM_ANDAMENTO, CONCLUIDA, FALHOU
+    }
+
+    public SituacaoDeduplicacao {
+        propostas = List.copyOf(propostas);
+    }
+}
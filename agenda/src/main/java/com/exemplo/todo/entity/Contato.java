@@ -1,17 +1,37 @@
 package com.exemplo.todo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.util.Locale;
 
 @Entity
+// Todas as consultas filtram por tenant, então todo índice começa por ele
+@Table(indexes = {
+        @Index(name = "idx_contato_tenant_telefone", columnList = "tenant, telefone_normalizado"),
+        // Paginação por cursor e streaming percorrem o tenant em ordem de id
+        @Index(name = "idx_contato_tenant_id", columnList = "tenant, id"),
+        // Passada por email da deduplicação, que lê o tenant ordenado pelo email normalizado
+        @Index(name = "idx_contato_tenant_email", columnList = "tenant, email_normalizado")
+},
+        // A checagem de duplicata é o próprio insert: quem viola esta chave já existe (no mesmo tenant)
+        uniqueConstraints = @UniqueConstraint(name = Contato.CHAVE_NOME_TELEFONE,
+                columnNames = {"tenant", "nome_normalizado", "telefone_normalizado"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Contato {
 
+    public static final String CHAVE_NOME_TELEFONE = "uk_contato_nome_telefone";
+
+    // Sequência com pool (hi-lo) para que o Hibernate consiga agrupar os inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contato_seq")
+    @SequenceGenerator(name = "contato_seq", sequenceName = "contato_seq", allocationSize = 50)
     private Long id;
     @NotBlank
     private String nome;
@@ -20,4 +40,74 @@ public class Contato {
 
     private String email;
 
+    // Controle de concorrência otimista: gravações com versão desatualizada são recusadas (409)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Chaves de comparação, recalculadas a cada gravação; nulas só em linhas antigas ainda não migradas
+    @JsonIgnore
+    @Column(name = "nome_normalizado")
+    private String nomeNormalizado;
+    @JsonIgnore
+    @Column(name = "telefone_normalizado")
+    private String telefoneNormalizado;
+    @JsonIgnore
+    @Column(name = "email_normalizado")
+    private String emailNormalizado;
+
+    // Dono do contato: preenchido no insert e filtrado em toda consulta pelo Hibernate (ContextoTenant)
+    @TenantId
+    @JsonIgnore
+    @ColumnDefault("'padrao'")
+    @Column(nullable = false, length = 64)
+    private String tenant;
+
+    public Contato(Long id, String nome, String telefone, String email) {
+        this(id, nome, telefone, email, null);
+    }
+
+    public Contato(Long id, String nome, String telefone, String email, Long versao) {
+        this(id, nome, telefone, email, versao, null, null, null, null);
+    }
+
+    // Cópia com todos os campos, fora do contexto de persistência (o cache guarda e entrega cópias)
+    public Contato copiar() {
+        return new Contato(id, nome, telefone, email, versao, nomeNormalizado, telefoneNormalizado, emailNormalizado, tenant);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void atualizarChaves() {
+        nomeNormalizado = normalizarNome(nome);
+        telefoneNormalizado = normalizarTelefone(telefone);
+        emailNormalizado = normalizarEmail(email);
+    }
+
+    // Sem diferença de caixa e de espaços repetidos: "  Bruce   WAYNE " -> "bruce wayne"
+    public static String normalizarNome(String nome) {
+        return nome == null ? null : nome.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static String normalizarEmail(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Só os dígitos; números brasileiros com DDD viram E.164 (+55...). Celular antigo de 8 dígitos
+     * ganha o nono dígito, então "(11) 9999-0000", "11999990000" e "+55 11 99999-0000" são o mesmo número.
+     */
+    public static String normalizarTelefone(String telefone) {
+        if (telefone == null) {
+            return null;
+        }
+        String digitos = telefone.replaceAll("\\D", "");
+        if (digitos.startsWith("55") && (digitos.length() == 12 || digitos.length() == 13)) {
+            digitos = digitos.substring(2);
+        }
+        if (digitos.length() == 10 && digitos.charAt(2) >= '6') {
+            digitos = digitos.substring(0, 2) + "9" + digitos.substring(2);
+        }
+        return digitos.length() == 10 || digitos.length() == 11 ? "+55" + digitos : digitos;
+    }
 }
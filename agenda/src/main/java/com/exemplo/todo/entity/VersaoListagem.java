@@ -0,0 +1,22 @@
+package com.exemplo.todo.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Contador de alterações dos contatos de um tenant, usado como ETag das listagens (ver VersoesListagem)
+@Entity
+@Table(name = "versao_listagem")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoListagem {
+
+    @Id
+    private String tenant;
+
+    private long versao;
+}
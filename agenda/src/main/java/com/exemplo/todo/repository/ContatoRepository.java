@@ -1,15 +1,157 @@
 package com.exemplo.todo.repository;
 
+import com.exemplo.todo.dto.CandidatoDuplicata;
+import com.exemplo.todo.dto.ChaveContato;
+import com.exemplo.todo.dto.ContatoExportado;
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.dto.ResumoVersoes;
 import com.exemplo.todo.entity.Contato;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+// Cache "contatos" (por tenant e id), configurado em spring.cache.*.
+// Consultas JPQL e derivadas são filtradas pelo tenant atual (@TenantId em Contato); as nativas não
 public interface ContatoRepository extends JpaRepository<Contato, Long> {
 
-    boolean existsByNomeAndTelefone(String nome, String telefone);
+    @Override
+    @Cacheable(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0)")
+    Optional<Contato> findById(Long id);
+
+    @Override
+    @Caching(evict = @CacheEvict(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0.id)", condition = "#p0.id != null", beforeInvocation = true),
+            put = @CachePut(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#result.id)"))
+    <S extends Contato> S save(S contato);
+
+    // Criação: o flush faz a violação da chave única aparecer aqui, e não no commit
+    @Override
+    @CachePut(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#result.id)")
+    <S extends Contato> S saveAndFlush(S contato);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    <S extends Contato> List<S> saveAll(Iterable<S> contatos);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0)")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0.id)", condition = "#p0.id != null")
+    void delete(Contato contato);
+
+    // Demais gravações e remoções em lote: esvaziam o cache inteiro, como saveAll
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    <S extends Contato> List<S> saveAllAndFlush(Iterable<S> contatos);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAll(Iterable<? extends Contato> contatos);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAllInBatch(Iterable<Contato> contatos);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "contatos", allEntries = true)
+    void deleteAllInBatch();
 
     List<Contato> findByNomeContainingIgnoreCase(String nome);
 
     List<Contato> findByEmailContainingIgnoreCase(String email);
+
+    // Checagem de duplicatas de um lote inteiro em uma consulta só, pelas chaves normalizadas
+    @Query("""
+            select new com.exemplo.todo.dto.ChaveContato(c.nomeNormalizado, c.telefoneNormalizado) from Contato c
+            where c.telefoneNormalizado in :telefones""")
+    List<ChaveContato> findChavesByTelefoneNormalizadoIn(Collection<String> telefones);
+
+    // Linhas gravadas antes das chaves normalizadas existirem ((tenant, nome_normalizado) abre a chave única, então usa o índice)
+    @Query("select c from Contato c where c.nomeNormalizado is null and c.id > :cursor order by c.id")
+    List<Contato> findSemChaves(Long cursor, Limit limite);
+
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = "contatos", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0)")
+    @Query("""
+            update Contato c set c.nomeNormalizado = :nome, c.telefoneNormalizado = :telefone, c.emailNormalizado = :email
+            where c.id = :id""")
+    int preencherChaves(Long id, String nome, String telefone, String email);
+
+    // Paginação por cursor (keyset): usa o índice (tenant, id) em vez de OFFSET. Projeção só com as colunas da resposta:
+    // sem entidades gerenciadas nem as chaves normalizadas, que a página não usa
+    @Query("""
+            select new com.exemplo.todo.dto.ContatoResumo(c.id, c.nome, c.telefone, c.email, c.versao) from Contato c
+            where c.id > :cursor order by c.id""")
+    List<ContatoResumo> listarResumos(Long cursor, Limit limite);
+
+    // Validador (ETag) da listagem: o contador de alterações do tenant, uma linha lida pela chave (ver VersoesListagem)
+    default ResumoVersoes resumirVersoes() {
+        return new ResumoVersoes(String.valueOf(contarAlteracoes()));
+    }
+
+    @Query("select coalesce(max(v.versao), 0) from VersaoListagem v where v.tenant = :#{T(com.exemplo.todo.config.ContextoTenant).atual()}")
+    long contarAlteracoes();
+
+    // Leitura em streaming; precisa ser consumida dentro de uma transação e fechada ao final
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select c from Contato c order by c.id")
+    Stream<Contato> streamTodos();
+
+    // Exportação: só as colunas exportadas, lidas por cursor em blocos de fetch-size
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.exemplo.todo.dto.ContatoExportado(c.id, c.nome, c.telefone, c.email) from Contato c order by c.id")
+    Stream<ContatoExportado> streamExportacao();
+
+    // Deduplicação: cada passada lê o tenant ordenado pela sua chave de bloqueio, para os blocos chegarem contíguos.
+    // Telefone e nome seguem o índice (tenant, telefone_normalizado) e a chave única; email, idx_contato_tenant_email
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.exemplo.todo.dto.CandidatoDuplicata(c.id, c.nome, c.telefoneNormalizado, c.emailNormalizado, c.versao) from Contato c
+            where c.telefoneNormalizado is not null order by c.telefoneNormalizado, c.id""")
+    Stream<CandidatoDuplicata> streamPorTelefone();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.exemplo.todo.dto.CandidatoDuplicata(c.id, c.nome, c.telefoneNormalizado, c.emailNormalizado, c.versao) from Contato c
+            where c.emailNormalizado is not null and c.telefoneNormalizado is not null order by c.emailNormalizado, c.id""")
+    Stream<CandidatoDuplicata> streamPorEmail();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.exemplo.todo.dto.CandidatoDuplicata(c.id, c.nome, c.telefoneNormalizado, c.emailNormalizado, c.versao) from Contato c
+            where c.nomeNormalizado is not null and c.telefoneNormalizado is not null order by c.nomeNormalizado, c.id""")
+    Stream<CandidatoDuplicata> streamPorNome();
+
+    // Tenants com contatos no esquema padrão (nativa: fora do filtro de tenant); as tarefas de subida usam TenantsConhecidos,
+    // que soma os tenants de esquema próprio
+    @Query(value = "select distinct tenant from contato", nativeQuery = true)
+    List<String> listarTenants();
 }
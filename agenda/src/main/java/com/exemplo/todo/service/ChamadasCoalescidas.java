@@ -0,0 +1,79 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalescência de chamadas idênticas ("single flight"): enquanto uma consulta com a mesma
+ * operação e os mesmos argumentos está em andamento, as seguintes esperam por ela e recebem
+ * o mesmo resultado (ou a mesma exceção) em vez de irem ao banco. Não é cache: assim que a
+ * consulta termina a entrada sai do mapa, e a próxima chamada executa de novo. Só se juntam
+ * chamadas do mesmo tenant.
+ * O resultado da consulta não sai daqui: cada chamada, inclusive a que executou, recebe a
+ * sua própria cópia, feita pela função informada (ou o próprio resultado, se for imutável).
+ */
+@Component
+public class ChamadasCoalescidas {
+
+    private record Chave(String tenant, String operacao, List<?> argumentos) {
+    }
+
+    private final ConcurrentHashMap<Chave, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public ChamadasCoalescidas(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Para resultados imutáveis, entregues a todos sem cópia
+    public <T> T executar(String operacao, List<?> argumentos, Supplier<T> chamada) {
+        return executar(operacao, argumentos, chamada, UnaryOperator.identity());
+    }
+
+    // Os argumentos entram na chave por equals; use Arrays.asList quando algum puder ser nulo
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String operacao, List<?> argumentos, Supplier<T> chamada, UnaryOperator<T> copia) {
+        Chave chave = new Chave(ContextoTenant.atual(), operacao, argumentos);
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            contar(operacao, "compartilhada");
+            return copia.apply((T) aguardar(existente));
+        }
+        contar(operacao, "executada");
+        try {
+            T resultado = chamada.get();
+            nova.complete(resultado);
+            return copia.apply(resultado);
+        } catch (RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    private static Object aguardar(CompletableFuture<Object> emAndamento) {
+        try {
+            return emAndamento.join();
+        } catch (CompletionException e) {
+            // A chamada original só lança RuntimeException ou Error
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private void contar(String operacao, String resultado) {
+        registry.counter("agenda.coalescencia", "operacao", operacao, "resultado", resultado).increment();
+    }
+}
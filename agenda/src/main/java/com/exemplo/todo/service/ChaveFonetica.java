@@ -0,0 +1,144 @@
+package com.exemplo.todo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Chaves da busca aproximada por nome. As palavras do nome são dobradas (minúsculas, sem acentos,
+ * só letras e dígitos) e cada uma ganha uma chave fonética com as regras de pronúncia do português:
+ * ç, ss, sc e z soam como s, ph como f, ch e sh como x, g antes de e/i como j, h é mudo, y vale
+ * como vogal e w como v. Depois da primeira letra as vogais saem da chave, então "João" e "Joao",
+ * "Luiz" e "Luís" ou "Rafael" e "Rafeal" caem na mesma chave; o que sobra de erro de digitação é
+ * medido pela distância de edição entre as palavras dobradas.
+ */
+final class ChaveFonetica {
+
+    // Partículas de ligação que não ajudam a distinguir um nome ("d" vem do apóstrofo de d'Ávila)
+    private static final Set<String> PARTICULAS = Set.of("d", "da", "de", "do", "das", "dos", "e");
+
+    private ChaveFonetica() {
+    }
+
+    // Palavras dobradas do nome, na ordem, sem as partículas
+    static String[] palavras(String nome) {
+        if (nome == null) {
+            return new String[0];
+        }
+        // O ç vira s antes de os acentos saírem: sem a cedilha sobraria um c, que soa como k antes de a/o/u
+        String decomposto = Normalizer.normalize(nome.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replace("c\u0327", "s");
+        List<String> palavras = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // Acento separado da letra pelo NFD
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                atual.append(c);
+            } else {
+                fechar(atual, palavras);
+            }
+        }
+        fechar(atual, palavras);
+        return palavras.toArray(String[]::new);
+    }
+
+    private static void fechar(StringBuilder atual, List<String> palavras) {
+        if (!atual.isEmpty()) {
+            String palavra = atual.toString();
+            if (!PARTICULAS.contains(palavra)) {
+                palavras.add(palavra);
+            }
+            atual.setLength(0);
+        }
+    }
+
+    // Chave fonética de uma palavra já dobrada: vogal inicial vira "a", as demais vogais somem
+    static String chave(String palavra) {
+        StringBuilder chave = new StringBuilder(palavra.length());
+        char anterior = 0;
+        for (int i = 0; i < palavra.length(); i++) {
+            char c = palavra.charAt(i);
+            char seguinte = i + 1 < palavra.length() ? palavra.charAt(i + 1) : 0;
+            char som;
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u', 'y' -> {
+                    if (chave.isEmpty()) {
+                        chave.append('a');
+                    }
+                    anterior = 0;
+                    continue;
+                }
+                case 'h' -> {
+                    // Mudo; os dígrafos ch, ph e sh são tratados na letra anterior
+                    continue;
+                }
+                case 'c' -> som = seguinte == 'h' ? 'x' : antesDeEouI(seguinte) ? 's' : 'k';
+                case 'p' -> som = seguinte == 'h' ? 'f' : 'p';
+                case 's' -> som = seguinte == 'h' ? 'x' : 's';
+                case 'g' -> som = antesDeEouI(seguinte) ? 'j' : 'g';
+                case 'q' -> som = 'k';
+                case 'z' -> som = 's';
+                case 'w' -> som = 'v';
+                default -> som = c;
+            }
+            // Consoantes repetidas em sequência (rr, ss, ll, sc antes de e/i) contam uma vez
+            if (som != anterior) {
+                chave.append(som);
+            }
+            anterior = som;
+        }
+        return chave.toString();
+    }
+
+    private static boolean antesDeEouI(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+
+    // Quantos erros de digitação uma palavra do termo admite: nenhum até 3 letras, um até 6, dois acima disso
+    static int tolerancia(String palavra) {
+        return palavra.length() <= 3 ? 0 : palavra.length() <= 6 ? 1 : 2;
+    }
+
+    /**
+     * Distância de edição com transposição de letras vizinhas (inserção, remoção, troca ou inversão
+     * custam 1). Limitada: para assim que passa de maximo e então devolve maximo + 1.
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] antesDaAnterior = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, atual[j - 1] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, antesDaAnterior[j - 2] + 1);
+                }
+                atual[j] = valor;
+                menorDaLinha = Math.min(menorDaLinha, valor);
+            }
+            if (menorDaLinha > maximo) {
+                return maximo + 1;
+            }
+            int[] livre = antesDaAnterior;
+            antesDaAnterior = anterior;
+            anterior = atual;
+            atual = livre;
+        }
+        return Math.min(anterior[b.length()], maximo + 1);
+    }
+}
@@ -0,0 +1,499 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.dto.CandidatoDuplicata;
+import com.exemplo.todo.dto.PropostaMesclagem;
+import com.exemplo.todo.dto.ResultadoDeduplicacao;
+import com.exemplo.todo.dto.SituacaoDeduplicacao;
+import com.exemplo.todo.dto.SituacaoDeduplicacao.Estado;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import com.exemplo.todo.service.FeedAlteracoes.Tipo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Deduplicação offline dos contatos do tenant atual (POST /contatos/deduplicacao). Roda em segundo plano,
+ * uma por vez no servidor, e a situação com as propostas em páginas fica em GET /contatos/deduplicacao
+ * até a próxima execução do mesmo tenant. Em vez de comparar
+ * todos com todos, faz três passadas, cada uma lendo o tenant em streaming ordenado por uma chave de
+ * bloqueio: telefone normalizado, email normalizado e prefixo do nome sem acentos. Linhas seguidas com a
+ * mesma chave formam um bloco e só pares do mesmo bloco são pontuados; num bloco maior que
+ * tamanho-maximo-bloco (prefixo de nome comum), cada contato é comparado só com os janela seguintes.
+ * Os blocos são pontuados num ForkJoinPool enquanto a leitura continua, com no máximo
+ * registros-em-voo contatos aguardando, então a memória não cresce com a tabela.
+ * Os pares a partir de pontuacao-minima viram grupos (duplicata de duplicata entra no mesmo grupo) e
+ * cada grupo, uma proposta: fica o contato mais antigo, saem os outros. Guardam-se no máximo maximo-pares
+ * pares, o que limita também os grupos e as propostas; o excedente fica para a próxima execução.
+ * Com aplicar, cada proposta é gravada na sua própria transação, só se nenhum contato do grupo mudou
+ * desde a leitura, e o contato mantido herda o email que lhe faltar.
+ */
+@Service
+public class ContatoDeduplicacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContatoDeduplicacaoService.class);
+
+    // Campo igual soma PESO_IGUAL; telefone ou email a um caractere de distância, PESO_PARECIDO;
+    // nome perde 10 pontos por erro, até 2 erros
+    private static final int PESO_IGUAL = 40;
+    private static final int PESO_PARECIDO = 20;
+    // Faixa de linhas de um bloco que uma tarefa pontua sem se dividir
+    private static final int FAIXA_MINIMA = 64;
+
+    enum Bloqueio {
+        TELEFONE, EMAIL, NOME
+    }
+
+    private record Par(long menor, long versaoMenor, long maior, long versaoMaior, int pontuacao) {
+    }
+
+    // Uma execução em segundo plano; resultado e erro são escritos pela thread da deduplicação
+    private static final class Tarefa {
+        private final boolean aplicar;
+        private final Instant iniciadaEm = Instant.now();
+        private volatile ResultadoDeduplicacao resultado;
+        private volatile String erro;
+
+        private Tarefa(boolean aplicar) {
+            this.aplicar = aplicar;
+        }
+    }
+
+    private final ContatoRepository repository;
+    private final ContatoIndiceBusca indice;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate transacao;
+    private final int pontuacaoMinima;
+    private final int prefixoNome;
+    private final int tamanhoMaximoBloco;
+    private final int janela;
+    private final int registrosEmVoo;
+    private final int maximoPares;
+    // Um pool para todas as execuções
+    private final ForkJoinPool pool;
+    private final ExecutorService execucoes = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "deduplicacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Última execução de cada tenant, com as suas propostas
+    private final Map<String, Tarefa> ultimas = new ConcurrentHashMap<>();
+    // Protegido pela trava do serviço (this)
+    private Tarefa emAndamento;
+
+    public ContatoDeduplicacaoService(ContatoRepository repository, ContatoIndiceBusca indice,
+                                      ApplicationEventPublisher eventos, PlatformTransactionManager transactionManager,
+                                      @Value("${agenda.deduplicacao.pontuacao-minima:70}") int pontuacaoMinima,
+                                      @Value("${agenda.deduplicacao.prefixo-nome:5}") int prefixoNome,
+                                      @Value("${agenda.deduplicacao.tamanho-maximo-bloco:500}") int tamanhoMaximoBloco,
+                                      @Value("${agenda.deduplicacao.janela:50}") int janela,
+                                      @Value("${agenda.deduplicacao.registros-em-voo:100000}") int registrosEmVoo,
+                                      @Value("${agenda.deduplicacao.maximo-pares:500000}") int maximoPares,
+                                      @Value("${agenda.deduplicacao.paralelismo:0}") int paralelismo) {
+        this.repository = repository;
+        this.indice = indice;
+        this.eventos = eventos;
+        // Passadas de leitura só leem: com réplicas, vão para elas
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.pontuacaoMinima = pontuacaoMinima;
+        this.prefixoNome = prefixoNome;
+        this.tamanhoMaximoBloco = tamanhoMaximoBloco;
+        this.janela = janela;
+        this.registrosEmVoo = registrosEmVoo;
+        this.maximoPares = maximoPares;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Começa a deduplicação do tenant atual em segundo plano; com outra em andamento (de qualquer tenant), 409
+    public synchronized SituacaoDeduplicacao iniciar(boolean aplicar) {
+        if (emAndamento != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já há uma deduplicação em andamento; tente mais tarde.");
+        }
+        String tenant = ContextoTenant.atual();
+        Tarefa tarefa = new Tarefa(aplicar);
+        execucoes.execute(() -> executar(tenant, tarefa));
+        emAndamento = tarefa;
+        ultimas.put(tenant, tarefa);
+        return situacao(tarefa, null, 0);
+    }
+
+    // Situação da última deduplicação do tenant atual, com a página de propostas depois do cursor
+    public SituacaoDeduplicacao situacao(Long cursor, int tamanho) {
+        Tarefa tarefa = ultimas.get(ContextoTenant.atual());
+        if (tarefa == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nenhuma deduplicação iniciada.");
+        }
+        return situacao(tarefa, cursor, Math.max(1, Math.min(tamanho, ContatoService.TAMANHO_MAXIMO_PAGINA)));
+    }
+
+    private void executar(String tenant, Tarefa tarefa) {
+        ResultadoDeduplicacao resultado = null;
+        String erro = "Interrompida";
+        try {
+            resultado = ContextoTenant.executarComo(tenant, () -> deduplicar(tarefa.aplicar));
+            erro = null;
+        } catch (RuntimeException e) {
+            log.error("Deduplicação do tenant {} falhou", tenant, e);
+            erro = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            // Quem vê a execução terminada já pode iniciar outra
+            synchronized (this) {
+                emAndamento = null;
+                tarefa.erro = erro;
+                tarefa.resultado = resultado;
+            }
+        }
+    }
+
+    private static SituacaoDeduplicacao situacao(Tarefa tarefa, Long cursor, int limite) {
+        ResultadoDeduplicacao resultado = tarefa.resultado;
+        if (resultado == null) {
+            Estado estado = tarefa.erro != null ? Estado.FALHOU : Estado.EM_ANDAMENTO;
+            return new SituacaoDeduplicacao(estado, tarefa.aplicar, tarefa.iniciadaEm, null, tarefa.erro, 0, List.of(), null);
+        }
+        // As propostas estão em ordem de manter: a página começa na primeira depois do cursor
+        List<PropostaMesclagem> propostas = resultado.propostas();
+        int inicio = cursor == null ? 0 : primeiraDepois(propostas, cursor);
+        int fim = Math.min(propostas.size(), inicio + limite);
+        Long proximoCursor = fim < propostas.size() ? propostas.get(fim - 1).manter() : null;
+        return new SituacaoDeduplicacao(Estado.CONCLUIDA, tarefa.aplicar, tarefa.iniciadaEm, resultado, null,
+                propostas.size(), propostas.subList(inicio, fim), proximoCursor);
+    }
+
+    private static int primeiraDepois(List<PropostaMesclagem> propostas, long cursor) {
+        int baixo = 0;
+        int alto = propostas.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (propostas.get(meio).manter() <= cursor) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        execucoes.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    // Execução completa na thread atual; iniciar a chama em segundo plano
+    public ResultadoDeduplicacao deduplicar(boolean aplicar) {
+        long inicio = System.nanoTime();
+        Execucao execucao = new Execucao();
+        for (Bloqueio bloqueio : Bloqueio.values()) {
+            leitura.executeWithoutResult(status -> {
+                try (Stream<CandidatoDuplicata> candidatos = ler(bloqueio)) {
+                    execucao.bloquear(bloqueio, candidatos);
+                }
+            });
+        }
+        execucao.aguardar();
+        if (execucao.truncado) {
+            log.warn("Deduplicação do tenant {} atingiu o limite de {} pares; o restante fica para a próxima execução",
+                    ContextoTenant.atual(), maximoPares);
+        }
+        List<PropostaMesclagem> propostas = proporMesclagens(execucao.pares);
+        int mesclados = aplicar ? aplicar(propostas) : 0;
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Deduplicação do tenant {}: {} linhas lidas, {} blocos, {} pares comparados, {} propostas, {} contatos mesclados em {} ms",
+                ContextoTenant.atual(), execucao.lidos, execucao.blocos, execucao.comparados.sum(), propostas.size(), mesclados, duracaoMs);
+        return new ResultadoDeduplicacao(execucao.lidos, execucao.blocos, execucao.comparados.sum(), execucao.truncado,
+                propostas, mesclados, duracaoMs);
+    }
+
+    private Stream<CandidatoDuplicata> ler(Bloqueio bloqueio) {
+        return switch (bloqueio) {
+            case TELEFONE -> repository.streamPorTelefone();
+            case EMAIL -> repository.streamPorEmail();
+            case NOME -> repository.streamPorNome();
+        };
+    }
+
+    // Estado de uma execução: a leitura (uma thread) monta os blocos, o pool pontua e acumula os pares
+    private final class Execucao {
+
+        final Semaphore emVoo = new Semaphore(registrosEmVoo);
+        // Cheia, os pares seguintes são descartados e a execução fica marcada como truncada
+        final BlockingQueue<Par> pares = new ArrayBlockingQueue<>(maximoPares);
+        final LongAdder comparados = new LongAdder();
+        final AtomicReference<RuntimeException> falha = new AtomicReference<>();
+        volatile boolean truncado;
+        long lidos;
+        long blocos;
+
+        void bloquear(Bloqueio bloqueio, Stream<CandidatoDuplicata> candidatos) {
+            List<CandidatoDuplicata> bloco = new ArrayList<>();
+            List<String> nomes = new ArrayList<>();
+            String chaveDoBloco = null;
+            for (CandidatoDuplicata candidato : (Iterable<CandidatoDuplicata>) candidatos::iterator) {
+                lidos++;
+                // O prefixo do nome precisa do nome dobrado já aqui; nas outras passadas ele só é calculado para os blocos
+                String nome = bloqueio == Bloqueio.NOME ? dobrar(candidato.nome()) : null;
+                String chave = switch (bloqueio) {
+                    case TELEFONE -> candidato.telefone();
+                    case EMAIL -> candidato.email();
+                    case NOME -> nome.substring(0, Math.min(nome.length(), prefixoNome));
+                };
+                if (!chave.equals(chaveDoBloco)) {
+                    submeter(bloco, nomes);
+                    bloco = new ArrayList<>();
+                    nomes = new ArrayList<>();
+                    chaveDoBloco = chave;
+                }
+                bloco.add(candidato);
+                nomes.add(nome);
+            }
+            submeter(bloco, nomes);
+        }
+
+        // A leitura para aqui quando já há registros-em-voo contatos esperando pontuação
+        private void submeter(List<CandidatoDuplicata> bloco, List<String> nomes) {
+            if (bloco.size() < 2) {
+                return;
+            }
+            blocos++;
+            int permissoes = Math.min(bloco.size(), registrosEmVoo);
+            emVoo.acquireUninterruptibly(permissoes);
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        if (nomes.get(i) == null) {
+                            nomes.set(i, dobrar(bloco.get(i).nome()));
+                        }
+                    }
+                    int alcance = bloco.size() > tamanhoMaximoBloco ? janela : bloco.size();
+                    new PontuacaoBloco(this, bloco, nomes, alcance, 0, bloco.size()).invoke();
+                } catch (RuntimeException e) {
+                    falha.compareAndSet(null, e);
+                } finally {
+                    emVoo.release(permissoes);
+                }
+            });
+        }
+
+        // Espera os blocos pendentes: todas as permissões voltam quando a última tarefa termina
+        void aguardar() {
+            emVoo.acquireUninterruptibly(registrosEmVoo);
+            emVoo.release(registrosEmVoo);
+            if (falha.get() != null) {
+                throw falha.get();
+            }
+        }
+    }
+
+    // Pontua os pares (i, j) com i na faixa [inicio, fim) e j até alcance posições depois; faixas grandes se dividem
+    private final class PontuacaoBloco extends RecursiveAction {
+
+        private final Execucao execucao;
+        private final List<CandidatoDuplicata> bloco;
+        private final List<String> nomes;
+        private final int alcance;
+        private final int inicio;
+        private final int fim;
+
+        PontuacaoBloco(Execucao execucao, List<CandidatoDuplicata> bloco, List<String> nomes, int alcance, int inicio, int fim) {
+            this.execucao = execucao;
+            this.bloco = bloco;
+            this.nomes = nomes;
+            this.alcance = alcance;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio > FAIXA_MINIMA) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new PontuacaoBloco(execucao, bloco, nomes, alcance, inicio, meio),
+                        new PontuacaoBloco(execucao, bloco, nomes, alcance, meio, fim));
+                return;
+            }
+            long comparados = 0;
+            for (int i = inicio; i < fim; i++) {
+                CandidatoDuplicata a = bloco.get(i);
+                int ate = Math.min(bloco.size(), i + 1 + alcance);
+                for (int j = i + 1; j < ate; j++) {
+                    CandidatoDuplicata b = bloco.get(j);
+                    comparados++;
+                    int pontuacao = pontuar(a, nomes.get(i), b, nomes.get(j), pontuacaoMinima);
+                    if (pontuacao >= pontuacaoMinima) {
+                        CandidatoDuplicata menor = a.id() < b.id() ? a : b;
+                        CandidatoDuplicata maior = menor == a ? b : a;
+                        if (!execucao.pares.offer(new Par(menor.id(), menor.versao(), maior.id(), maior.versao(), pontuacao))) {
+                            execucao.truncado = true;
+                        }
+                    }
+                }
+            }
+            execucao.comparados.add(comparados);
+        }
+    }
+
+    private static String dobrar(String nome) {
+        return String.join(" ", ChaveFonetica.palavras(nome));
+    }
+
+    // Telefone e email são comparados primeiro; se nem o nome igual alcança o mínimo, a distância do nome nem é calculada
+    private static int pontuar(CandidatoDuplicata a, String nomeA, CandidatoDuplicata b, String nomeB, int minimo) {
+        int pontuacao = semelhanca(a.telefone(), b.telefone());
+        if (a.email() != null && b.email() != null) {
+            pontuacao += semelhanca(a.email(), b.email());
+        }
+        if (pontuacao + PESO_IGUAL < minimo) {
+            return pontuacao;
+        }
+        int distancia = ChaveFonetica.distancia(nomeA, nomeB, 2);
+        return distancia <= 2 ? pontuacao + PESO_IGUAL - 10 * distancia : pontuacao;
+    }
+
+    private static int semelhanca(String a, String b) {
+        if (a.equals(b)) {
+            return PESO_IGUAL;
+        }
+        return umaEdicao(a, b) ? PESO_PARECIDO : 0;
+    }
+
+    // O mesmo que distancia(a, b, 1) <= 1 numa passada só, sem a matriz: roda em quase todo par comparado
+    private static boolean umaEdicao(String a, String b) {
+        int tamanhoA = a.length();
+        int tamanhoB = b.length();
+        if (Math.abs(tamanhoA - tamanhoB) > 1) {
+            return false;
+        }
+        int menor = Math.min(tamanhoA, tamanhoB);
+        int i = 0;
+        while (i < menor && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == menor) {
+            return true;
+        }
+        if (tamanhoA == tamanhoB) {
+            // Troca na posição i, ou inversão de i com i + 1
+            return a.regionMatches(i + 1, b, i + 1, tamanhoA - i - 1)
+                    || (i + 1 < tamanhoA && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, tamanhoA - i - 2));
+        }
+        // Inserção ou remoção na posição i
+        return tamanhoA > tamanhoB ? a.regionMatches(i + 1, b, i, tamanhoB - i) : b.regionMatches(i + 1, a, i, tamanhoA - i);
+    }
+
+    // Agrupa os pares (union-find): cada grupo conectado vira uma proposta, mantendo o menor id.
+    // Os mapas têm no máximo dois ids por par guardado
+    private static List<PropostaMesclagem> proporMesclagens(Iterable<Par> pares) {
+        Map<Long, Long> pai = new HashMap<>();
+        // Um contato alterado entre duas passadas aparece com versões diferentes: fica uma que nunca confere
+        Map<Long, Long> versoes = new HashMap<>();
+        for (Par par : pares) {
+            versoes.merge(par.menor(), par.versaoMenor(), (lida, outra) -> lida.equals(outra) ? lida : -1L);
+            versoes.merge(par.maior(), par.versaoMaior(), (lida, outra) -> lida.equals(outra) ? lida : -1L);
+            long raizMenor = raiz(pai, par.menor());
+            long raizMaior = raiz(pai, par.maior());
+            if (raizMenor != raizMaior) {
+                pai.put(Math.max(raizMenor, raizMaior), Math.min(raizMenor, raizMaior));
+            }
+        }
+        Map<Long, TreeSet<Long>> grupos = new HashMap<>();
+        for (Long id : pai.keySet()) {
+            grupos.computeIfAbsent(raiz(pai, id), r -> new TreeSet<>()).add(id);
+        }
+        Map<Long, Integer> pontuacoes = new HashMap<>();
+        for (Par par : pares) {
+            pontuacoes.merge(raiz(pai, par.menor()), par.pontuacao(), Math::min);
+        }
+        List<PropostaMesclagem> propostas = new ArrayList<>(grupos.size());
+        grupos.forEach((raiz, ids) -> {
+            Map<Long, Long> versoesDoGrupo = new HashMap<>();
+            ids.forEach(id -> versoesDoGrupo.put(id, versoes.get(id)));
+            Long manter = ids.pollFirst();
+            propostas.add(new PropostaMesclagem(manter, List.copyOf(ids), pontuacoes.get(raiz), versoesDoGrupo));
+        });
+        propostas.sort(Comparator.comparing(PropostaMesclagem::manter));
+        return propostas;
+    }
+
+    // A raiz de um grupo é sempre o seu menor id, porque a união pendura a raiz maior na menor
+    private static long raiz(Map<Long, Long> pai, long id) {
+        long raiz = id;
+        Long acima;
+        while ((acima = pai.get(raiz)) != null && acima != raiz) {
+            raiz = acima;
+        }
+        pai.put(id, raiz);
+        return raiz;
+    }
+
+    private int aplicar(List<PropostaMesclagem> propostas) {
+        int mesclados = 0;
+        for (PropostaMesclagem proposta : propostas) {
+            Contato mantido = transacao.execute(status -> mesclar(proposta));
+            if (mantido != null) {
+                proposta.remover().forEach(indice::remover);
+                indice.indexar(mantido);
+                mesclados += proposta.remover().size();
+            }
+        }
+        return mesclados;
+    }
+
+    // Proposta desatualizada (algum contato excluído ou alterado depois da leitura) fica de fora
+    private Contato mesclar(PropostaMesclagem proposta) {
+        Optional<Contato> manter = repository.findById(proposta.manter());
+        List<Contato> remover = repository.findAllById(proposta.remover());
+        if (manter.isEmpty() || remover.size() != proposta.remover().size() || !versaoLida(proposta, manter.get())
+                || !remover.stream().allMatch(contato -> versaoLida(proposta, contato))) {
+            return null;
+        }
+        // Altera uma cópia, não a instância lida, como em ContatoService.atualizar
+        Contato mantido = manter.get().copiar();
+        if (mantido.getEmail() == null) {
+            remover.stream().map(Contato::getEmail).filter(Objects::nonNull).findFirst().ifPresent(mantido::setEmail);
+        }
+        proposta.remover().forEach(repository::deleteById);
+        Contato salvo = repository.save(mantido);
+        // Um evento LOTE por grupo, entregue depois do commit: os inscritos recarregam a listagem
+        eventos.publishEvent(new Alteracao(Tipo.LOTE, salvo.getId(), null));
+        return salvo;
+    }
+
+    private static boolean versaoLida(PropostaMesclagem proposta, Contato contato) {
+        return Objects.equals(proposta.versoes().get(contato.getId()), contato.getVersao());
+    }
+}
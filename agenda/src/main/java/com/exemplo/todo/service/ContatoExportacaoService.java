@@ -0,0 +1,49 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.ContatoExportado;
+import com.exemplo.todo.repository.ContatoRepository;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Observed(name = "agenda.servico")
+public class ContatoExportacaoService {
+
+    static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ContatoRepository repository;
+
+    public ContatoExportacaoService(ContatoRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Escreve a agenda inteira no formato pedido. As linhas vêm de um cursor (projeção, sem
+     * entidades gerenciadas) e vão direto para a saída por um buffer fixo, então a memória usada
+     * não depende do tamanho da agenda. Retorna quantos contatos foram escritos.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(FormatoExportacao formato, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        formato.escreverCabecalho(escritor);
+        long escritos = 0;
+        try (Stream<ContatoExportado> contatos = repository.streamExportacao()) {
+            for (Iterator<ContatoExportado> it = contatos.iterator(); it.hasNext(); ) {
+                formato.escrever(escritor, it.next());
+                escritos++;
+            }
+        }
+        escritor.flush();
+        return escritos;
+    }
+}
@@ -0,0 +1,186 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.ChaveContato;
+import com.exemplo.todo.dto.ItemImportacao;
+import com.exemplo.todo.dto.ItemImportacao.Situacao;
+import com.exemplo.todo.dto.ResultadoImportacao;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Observed(name = "agenda.servico")
+public class ContatoImportacaoService {
+
+    static final int TAMANHO_LOTE = 1000;
+
+    private final ContatoRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transacao;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ContatoIndiceBusca indice;
+    private final ApplicationEventPublisher eventos;
+
+    public ContatoImportacaoService(ContatoRepository repository, EntityManager entityManager,
+                                    TransactionTemplate transacao, Validator validator,
+                                    ObjectMapper objectMapper, ContatoIndiceBusca indice,
+                                    ApplicationEventPublisher eventos) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transacao = transacao;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.indice = indice;
+        this.eventos = eventos;
+    }
+
+    private record Linha(int numero, Contato contato) {
+    }
+
+    private static final class Placar {
+        int inseridos;
+        int duplicados;
+        int invalidos;
+        final List<ItemImportacao> rejeitados = new ArrayList<>();
+
+        void rejeitar(int linha, Situacao situacao, String motivo) {
+            if (situacao == Situacao.DUPLICADO) {
+                duplicados++;
+            } else {
+                invalidos++;
+            }
+            rejeitados.add(new ItemImportacao(linha, situacao, motivo));
+        }
+    }
+
+    /**
+     * Importa contatos de um array JSON ou de NDJSON lendo a entrada em streaming.
+     * Cada lote é gravado na sua própria transação, então um erro de sintaxe no meio
+     * do arquivo interrompe a leitura mas mantém os lotes anteriores.
+     */
+    public ResultadoImportacao importar(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        Placar placar = new Placar();
+        int total = 0;
+        List<Linha> lote = new ArrayList<>(TAMANHO_LOTE);
+        try (MappingIterator<Contato> contatos = objectMapper.readerFor(Contato.class).readValues(entrada)) {
+            while (true) {
+                Contato contato;
+                try {
+                    if (!contatos.hasNextValue()) {
+                        break;
+                    }
+                    total++;
+                    contato = contatos.nextValue();
+                } catch (JsonParseException e) {
+                    placar.rejeitar(total, Situacao.INVALIDO, "JSON malformado; importação interrompida");
+                    break;
+                } catch (JsonMappingException e) {
+                    placar.rejeitar(total, Situacao.INVALIDO, e.getOriginalMessage());
+                    continue;
+                }
+                lote.add(new Linha(total, contato));
+                if (lote.size() == TAMANHO_LOTE) {
+                    gravarLote(lote, placar);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravarLote(lote, placar);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        return new ResultadoImportacao(total, placar.inseridos, placar.duplicados, placar.invalidos,
+                segundos > 0 ? total / segundos : total, placar.rejeitados);
+    }
+
+    private void gravarLote(List<Linha> lote, Placar placar) {
+        GravacaoLote gravacao;
+        try {
+            gravacao = transacao.execute(status -> gravar(lote));
+        } catch (DataIntegrityViolationException e) {
+            if (!ContatoService.ehChaveDuplicada(e)) {
+                throw e;
+            }
+            // Uma importação concorrente gravou a mesma chave entre a checagem e o insert; na segunda
+            // tentativa a checagem já enxerga essas linhas e as relata como duplicadas
+            gravacao = transacao.execute(status -> gravar(lote));
+        }
+        gravacao.rejeitados().forEach(item -> placar.rejeitar(item.linha(), item.situacao(), item.motivo()));
+        List<Contato> novos = gravacao.salvos();
+        placar.inseridos += novos.size();
+        novos.forEach(indice::indexar);
+        if (!novos.isEmpty()) {
+            // Um evento por lote: inscritos recarregam em vez de receber milhares de CRIADO
+            eventos.publishEvent(new FeedAlteracoes.Alteracao(FeedAlteracoes.Tipo.LOTE, null, null));
+        }
+    }
+
+    // Rejeições só vão para o placar depois do commit, para não contar duas vezes se o lote for repetido
+    private record GravacaoLote(List<Contato> salvos, List<ItemImportacao> rejeitados) {
+    }
+
+    private GravacaoLote gravar(List<Linha> lote) {
+        List<ItemImportacao> rejeitados = new ArrayList<>();
+        List<Linha> validas = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            Set<ConstraintViolation<Contato>> violacoes = validator.validate(linha.contato());
+            if (violacoes.isEmpty()) {
+                validas.add(linha);
+            } else {
+                rejeitados.add(new ItemImportacao(linha.numero(), Situacao.INVALIDO, violacoes.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            }
+        }
+        if (validas.isEmpty()) {
+            return new GravacaoLote(List.of(), rejeitados);
+        }
+
+        Set<String> telefones = validas.stream()
+                .map(l -> Contato.normalizarTelefone(l.contato().getTelefone()))
+                .collect(Collectors.toSet());
+        Set<ChaveContato> existentes = new HashSet<>(repository.findChavesByTelefoneNormalizadoIn(telefones));
+        List<Contato> inserir = new ArrayList<>(validas.size());
+        for (Linha linha : validas) {
+            Contato contato = linha.contato();
+            ChaveContato chave = new ChaveContato(Contato.normalizarNome(contato.getNome()),
+                    Contato.normalizarTelefone(contato.getTelefone()));
+            // existentes também recebe as chaves do próprio lote, pegando repetições dentro do arquivo
+            if (!existentes.add(chave)) {
+                rejeitados.add(new ItemImportacao(linha.numero(), Situacao.DUPLICADO, "Contato com este nome e telefone já existe."));
+                continue;
+            }
+            // Sem id nem versão o save trata o contato como novo (persist em vez de merge)
+            contato.setId(null);
+            contato.setVersao(null);
+            inserir.add(contato);
+        }
+        List<Contato> salvos = repository.saveAll(inserir);
+        // Pelo repositório, para que a violação da chave única chegue traduzida (DataIntegrityViolationException)
+        repository.flush();
+        entityManager.clear();
+        return new GravacaoLote(salvos, rejeitados);
+    }
+}
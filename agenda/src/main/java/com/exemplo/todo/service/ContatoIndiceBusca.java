@@ -0,0 +1,406 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Contato;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas em memória para nome, email e telefone dos contatos.
+ * Responde buscas por substring e prefixo sem varrer a tabela: os candidatos vêm da
+ * interseção das listas de cada trigrama do termo e só depois são conferidos.
+ * Cada tenant tem sua própria partição, então uma busca só percorre os contatos do tenant atual.
+ * Para a busca aproximada por nome, guarda também as palavras dobradas de cada nome e, por chave
+ * fonética de palavra, os contatos que a têm (ver ChaveFonetica).
+ */
+@Component
+public class ContatoIndiceBusca {
+
+    public enum Campo {
+        NOME(3), EMAIL(2), TELEFONE(1);
+
+        private final int peso;
+
+        Campo(int peso) {
+            this.peso = peso;
+        }
+    }
+
+    public record Resultado(Long id, int pontuacao) {
+    }
+
+    static final int TAMANHO_GRAMA = 3;
+
+    private static final Comparator<Resultado> POR_RELEVANCIA = Comparator
+            .comparingInt(Resultado::pontuacao).reversed()
+            .thenComparing(Resultado::id);
+
+    private static final class Particao {
+        // id -> valores normalizados, na ordem de Campo.values()
+        final Map<Long, String[]> documentos = new HashMap<>();
+        final Map<Campo, NavigableMap<String, Set<Long>>> gramas = new EnumMap<>(Campo.class);
+        // id -> palavras dobradas do nome; chave fonética -> contatos com alguma palavra que a tem
+        final Map<Long, String[]> palavras = new HashMap<>();
+        final Map<String, Set<Long>> foneticas = new HashMap<>();
+
+        Particao() {
+            for (Campo campo : Campo.values()) {
+                gramas.put(campo, new TreeMap<>());
+            }
+        }
+    }
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<String, Particao> particoes = new HashMap<>();
+    private volatile boolean pronto;
+
+    // Indica se a carga inicial terminou; antes disso as buscas devem ir ao banco
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public void marcarPronto() {
+        pronto = true;
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return particoes.values().stream().mapToInt(particao -> particao.documentos.size()).sum();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Indexa (ou reindexa) um contato já salvo, na partição do seu tenant (ou do atual, se ainda não tiver)
+    public void indexar(Contato contato) {
+        String tenant = contato.getTenant() != null ? contato.getTenant() : ContextoTenant.atual();
+        String[] valores = new String[Campo.values().length];
+        for (Campo campo : Campo.values()) {
+            valores[campo.ordinal()] = normalizar(campo, valor(contato, campo));
+        }
+        String[] palavras = ChaveFonetica.palavras(contato.getNome());
+        // Internadas: milhares de nomes repetem as mesmas palavras, o índice guarda uma cópia de cada
+        for (int i = 0; i < palavras.length; i++) {
+            palavras[i] = palavras[i].intern();
+        }
+        trava.writeLock().lock();
+        try {
+            Particao particao = particoes.computeIfAbsent(tenant, t -> new Particao());
+            String[] anteriores = particao.documentos.put(contato.getId(), valores);
+            String[] palavrasAnteriores = particao.palavras.put(contato.getId(), palavras);
+            if (anteriores != null) {
+                desindexar(particao, contato.getId(), anteriores, palavrasAnteriores);
+            }
+            for (Campo campo : Campo.values()) {
+                NavigableMap<String, Set<Long>> indice = particao.gramas.get(campo);
+                for (String grama : gramasDoValor(valores[campo.ordinal()])) {
+                    indice.computeIfAbsent(grama, g -> new HashSet<>()).add(contato.getId());
+                }
+            }
+            for (String palavra : palavras) {
+                particao.foneticas.computeIfAbsent(ChaveFonetica.chave(palavra), c -> new HashSet<>()).add(contato.getId());
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Remove do tenant atual
+    public void remover(Long id) {
+        trava.writeLock().lock();
+        try {
+            Particao particao = particoes.get(ContextoTenant.atual());
+            String[] anteriores = particao == null ? null : particao.documentos.remove(id);
+            if (anteriores != null) {
+                desindexar(particao, id, anteriores, particao.palavras.remove(id));
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca o termo como substring do campo informado (ou de todos, se campo for nulo), no tenant atual.
+     * Valor igual ao termo pontua mais que prefixo, que pontua mais que substring;
+     * entre campos, nome pesa mais que email, que pesa mais que telefone.
+     */
+    public List<Resultado> buscar(String termo, Campo campo, int limite) {
+        if (termo == null || termo.isBlank() || limite <= 0) {
+            return List.of();
+        }
+        Map<Long, Integer> pontuacoes = new HashMap<>();
+        trava.readLock().lock();
+        try {
+            Particao particao = particoes.get(ContextoTenant.atual());
+            if (particao == null) {
+                return List.of();
+            }
+            for (Campo alvo : campo == null ? Campo.values() : new Campo[]{campo}) {
+                String normalizado = normalizar(alvo, termo);
+                if (normalizado.isEmpty()) {
+                    continue;
+                }
+                for (Long id : candidatos(particao, alvo, normalizado)) {
+                    int pontuacao = pontuar(particao.documentos.get(id)[alvo.ordinal()], normalizado, alvo);
+                    if (pontuacao > 0) {
+                        pontuacoes.merge(id, pontuacao, Math::max);
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        List<Resultado> resultados = new ArrayList<>(pontuacoes.size());
+        pontuacoes.forEach((id, pontuacao) -> resultados.add(new Resultado(id, pontuacao)));
+        resultados.sort(POR_RELEVANCIA);
+        return resultados.size() > limite ? resultados.subList(0, limite) : resultados;
+    }
+
+    /**
+     * Busca aproximada por nome no tenant atual: ignora acentos e tolera erros de digitação.
+     * Os candidatos vêm das listas das chaves fonéticas das palavras do termo, primeiro os que têm
+     * todas as chaves; se não chegarem ao limite, completa com os que têm todas menos uma (a palavra
+     * digitada errado mudou a chave) ou, para termo de uma palavra só, com os das chaves vizinhas.
+     * Um candidato entra quando cada palavra do termo fica dentro da tolerância de alguma palavra
+     * do nome; menos erros e menos palavras sobrando no nome pontuam mais.
+     */
+    public List<Resultado> buscarAproximado(String termo, int limite) {
+        String[] palavrasTermo = ChaveFonetica.palavras(termo);
+        if (palavrasTermo.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        Aproximacao aproximacao = new Aproximacao(palavrasTermo, limite);
+        trava.readLock().lock();
+        try {
+            Particao particao = particoes.get(ContextoTenant.atual());
+            if (particao == null) {
+                return List.of();
+            }
+            List<Set<Long>> listas = new ArrayList<>(palavrasTermo.length);
+            List<String> chaves = new ArrayList<>(palavrasTermo.length);
+            for (String palavra : palavrasTermo) {
+                String chave = ChaveFonetica.chave(palavra);
+                chaves.add(chave);
+                listas.add(particao.foneticas.getOrDefault(chave, Set.of()));
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+            // Todas as chaves: percorre a menor lista conferindo nas demais
+            for (Long id : listas.get(0)) {
+                if (contidoEmTodas(listas, id, -1)) {
+                    aproximacao.avaliar(id, particao.palavras.get(id));
+                }
+            }
+            if (aproximacao.encontrados < limite) {
+                if (listas.size() > 1) {
+                    // Falta exatamente a chave da lista k: percorre a menor das outras
+                    for (int k = 0; k < listas.size(); k++) {
+                        Set<Long> faltante = listas.get(k);
+                        for (Long id : listas.get(k == 0 ? 1 : 0)) {
+                            if (!faltante.contains(id) && contidoEmTodas(listas, id, k)) {
+                                aproximacao.avaliar(id, particao.palavras.get(id));
+                            }
+                        }
+                    }
+                } else {
+                    Set<Long> vistos = new HashSet<>();
+                    for (Map.Entry<String, Set<Long>> vizinha : particao.foneticas.entrySet()) {
+                        if (!vizinha.getKey().equals(chaves.get(0))
+                                && ChaveFonetica.distancia(vizinha.getKey(), chaves.get(0), 1) <= 1) {
+                            for (Long id : vizinha.getValue()) {
+                                // O nome pode ter outra palavra com a chave exata (já avaliado) ou com outra vizinha
+                                if (!listas.get(0).contains(id) && vistos.add(id)) {
+                                    aproximacao.avaliar(id, particao.palavras.get(id));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        return aproximacao.resultados();
+    }
+
+    private static boolean contidoEmTodas(List<Set<Long>> listas, Long id, int exceto) {
+        for (int i = 0; i < listas.size(); i++) {
+            if (i != exceto && !listas.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estado de uma busca aproximada. Nomes comuns repetem as mesmas palavras em milhares de contatos,
+     * então a distância de cada palavra do termo a cada palavra de nome é calculada uma vez só;
+     * dos aprovados, só os limite melhores ficam guardados (heap com o pior no topo).
+     */
+    private static final class Aproximacao {
+
+        private final String[] palavras;
+        private final int[] tolerancias;
+        private final List<Map<String, Integer>> distancias;
+        private final PriorityQueue<Resultado> melhores;
+        private final int limite;
+        int encontrados;
+
+        Aproximacao(String[] palavras, int limite) {
+            this.palavras = palavras;
+            this.tolerancias = new int[palavras.length];
+            this.distancias = new ArrayList<>(palavras.length);
+            for (int i = 0; i < palavras.length; i++) {
+                tolerancias[i] = ChaveFonetica.tolerancia(palavras[i]);
+                distancias.add(new HashMap<>());
+            }
+            this.melhores = new PriorityQueue<>(Math.min(limite, 1024), POR_RELEVANCIA.reversed());
+            this.limite = limite;
+        }
+
+        void avaliar(Long id, String[] palavrasNome) {
+            int erros = 0;
+            for (int i = 0; i < palavras.length; i++) {
+                int melhor = tolerancias[i] + 1;
+                for (int j = 0; j < palavrasNome.length && melhor > 0; j++) {
+                    melhor = Math.min(melhor, distancia(i, palavrasNome[j]));
+                }
+                if (melhor > tolerancias[i]) {
+                    return;
+                }
+                erros += melhor;
+            }
+            encontrados++;
+            int pontuacao = 100 * palavras.length - 40 * erros - Math.max(0, palavrasNome.length - palavras.length);
+            if (melhores.size() < limite) {
+                melhores.add(new Resultado(id, pontuacao));
+            } else {
+                Resultado pior = melhores.peek();
+                if (pontuacao > pior.pontuacao() || (pontuacao == pior.pontuacao() && id < pior.id())) {
+                    melhores.poll();
+                    melhores.add(new Resultado(id, pontuacao));
+                }
+            }
+        }
+
+        private int distancia(int indicePalavra, String palavraNome) {
+            Map<String, Integer> calculadas = distancias.get(indicePalavra);
+            Integer distancia = calculadas.get(palavraNome);
+            if (distancia == null) {
+                distancia = ChaveFonetica.distancia(palavras[indicePalavra], palavraNome, tolerancias[indicePalavra]);
+                calculadas.put(palavraNome, distancia);
+            }
+            return distancia;
+        }
+
+        List<Resultado> resultados() {
+            List<Resultado> resultados = new ArrayList<>(melhores);
+            resultados.sort(POR_RELEVANCIA);
+            return resultados;
+        }
+    }
+
+    private static Set<Long> candidatos(Particao particao, Campo campo, String termo) {
+        NavigableMap<String, Set<Long>> indice = particao.gramas.get(campo);
+        if (termo.length() < TAMANHO_GRAMA) {
+            // Termo curto: une as listas de todos os gramas que começam com ele
+            Set<Long> uniao = new HashSet<>();
+            for (Set<Long> ids : indice.subMap(termo, true, termo + Character.MAX_VALUE, false).values()) {
+                uniao.addAll(ids);
+            }
+            return uniao;
+        }
+        // Interseção começando pela menor lista
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String grama : gramasDoValor(termo)) {
+            if (grama.length() < TAMANHO_GRAMA) {
+                continue;
+            }
+            Set<Long> ids = indice.get(grama);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<Long> intersecao = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !intersecao.isEmpty(); i++) {
+            intersecao.retainAll(listas.get(i));
+        }
+        return intersecao;
+    }
+
+    private static void desindexar(Particao particao, Long id, String[] valores, String[] palavras) {
+        for (Campo campo : Campo.values()) {
+            NavigableMap<String, Set<Long>> indice = particao.gramas.get(campo);
+            for (String grama : gramasDoValor(valores[campo.ordinal()])) {
+                Set<Long> ids = indice.get(grama);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    indice.remove(grama);
+                }
+            }
+        }
+        for (String palavra : palavras) {
+            String chave = ChaveFonetica.chave(palavra);
+            Set<Long> ids = particao.foneticas.get(chave);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                particao.foneticas.remove(chave);
+            }
+        }
+    }
+
+    private static int pontuar(String valor, String termo, Campo campo) {
+        int base;
+        if (valor.equals(termo)) {
+            base = 100;
+        } else if (valor.startsWith(termo)) {
+            base = 50;
+        } else if (valor.contains(termo)) {
+            base = 10;
+        } else {
+            return 0;
+        }
+        return base * campo.peso;
+    }
+
+    // Gramas iniciados em cada posição; perto do fim ficam mais curtos para que termos de 1-2 letras sejam achados
+    static Set<String> gramasDoValor(String valor) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i < valor.length(); i++) {
+            resultado.add(valor.substring(i, Math.min(valor.length(), i + TAMANHO_GRAMA)));
+        }
+        return resultado;
+    }
+
+    static String normalizar(Campo campo, String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (campo == Campo.TELEFONE) {
+            return valor.replaceAll("\\D", "");
+        }
+        return valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String valor(Contato contato, Campo campo) {
+        return switch (campo) {
+            case NOME -> contato.getNome();
+            case EMAIL -> contato.getEmail();
+            case TELEFONE -> contato.getTelefone();
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoIndiceBusca.Campo;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Contatos para a variante reativa da API. As leituras vão ao banco por R2DBC, com o tenant
+ * filtrado explicitamente no SQL, como parâmetro (o @TenantId só vale para o Hibernate). A listagem é lida em
+ * lotes por cursor, pedidos conforme a demanda de quem consome: um cliente lento não acumula a
+ * tabela em memória nem segura conexão entre um lote e outro. As escritas passam pelo
+ * ContatoService (validação, chave de duplicata, versão, cache, índice e feed são os mesmos), num
+ * scheduler que aceita bloqueio, para não parar o event loop.
+ */
+@Service
+@ConditionalOnProperty(name = "agenda.reativo.habilitado", havingValue = "true")
+public class ContatoReativoService {
+
+    private static final String COLUNAS = "id, nome, telefone, email, versao";
+    // Coluna da busca no banco por campo (sem campo, nome); nunca vem da requisição
+    private static final Map<Campo, String> COLUNAS_BUSCA = new EnumMap<>(Map.of(
+            Campo.NOME, "nome", Campo.EMAIL, "email", Campo.TELEFONE, "telefone"));
+    // Nome de esquema configurado em agenda.tenants.esquemas
+    private static final Pattern ESQUEMA = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final DatabaseClient banco;
+    private final ContatoService service;
+    private final ContatoIndiceBusca indice;
+    private final int tamanhoLote;
+    // Tenants com esquema próprio (ver MultiTenantConfig): a tabela é qualificada pelo esquema
+    private final Map<String, String> esquemas;
+
+    public ContatoReativoService(DatabaseClient banco, ContatoService service, ContatoIndiceBusca indice,
+                                 @Value("${agenda.reativo.tamanho-lote:500}") int tamanhoLote, Environment ambiente) {
+        this.banco = banco;
+        this.service = service;
+        this.indice = indice;
+        this.tamanhoLote = tamanhoLote;
+        this.esquemas = Binder.get(ambiente)
+                .bind("agenda.tenants.esquemas", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        esquemas.forEach((tenant, esquema) -> {
+            if (!ESQUEMA.matcher(esquema).matches()) {
+                throw new IllegalArgumentException("Esquema inválido para o tenant " + tenant + ": " + esquema);
+            }
+        });
+    }
+
+    // Contatos do tenant em ordem de id a partir do cursor (exclusivo), no máximo "limite"
+    public Flux<Contato> listar(String tenant, Long cursor, long limite) {
+        int lote = (int) Math.max(1, Math.min(limite, tamanhoLote));
+        String sql = "select " + COLUNAS + doTenant(tenant) + " and id > :cursor order by id limit :limite";
+        return emLotes(cursor == null ? 0L : cursor, lote, (depoisDe, tamanho) -> banco.sql(sql)
+                .bind("tenant", tenant)
+                .bind("cursor", depoisDe)
+                .bind("limite", tamanho)
+                .map(ContatoReativoService::mapear)
+                .all())
+                .take(limite);
+    }
+
+    /**
+     * Encadeia consultas por cursor: o próximo lote começa depois do último id do anterior e a
+     * sequência termina no primeiro lote incompleto. O expand só busca um lote adiante do que
+     * já foi consumido, então a memória por assinante fica em torno de dois lotes.
+     */
+    static Flux<Contato> emLotes(long cursor, int tamanhoLote, BiFunction<Long, Integer, Flux<Contato>> lote) {
+        return lote.apply(cursor, tamanhoLote).collectList()
+                .expand(anterior -> anterior.size() < tamanhoLote
+                        ? Mono.empty()
+                        : lote.apply(anterior.get(anterior.size() - 1).getId(), tamanhoLote).collectList())
+                .concatMapIterable(contatos -> contatos, 1);
+    }
+
+    public Mono<Contato> buscarPorId(String tenant, Long id) {
+        return banco.sql("select " + COLUNAS + doTenant(tenant) + " and id = :id")
+                .bind("tenant", tenant)
+                .bind("id", id)
+                .map(ContatoReativoService::mapear)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contato não encontrado.")));
+    }
+
+    // Mesma busca do ContatoService: ids e relevância vêm do índice em memória, os contatos do banco
+    public Flux<Contato> buscar(String tenant, String termo, Campo campo, int limite) {
+        int limiteEfetivo = Math.max(1, Math.min(limite, ContatoService.TAMANHO_MAXIMO_PAGINA));
+        if (!indice.isPronto()) {
+            return buscarNoBanco(tenant, termo, campo, limiteEfetivo);
+        }
+        return carregarResultados(tenant, ContextoTenant.executarComo(tenant, () -> indice.buscar(termo, campo, limiteEfetivo)));
+    }
+
+    // Mesma busca aproximada do ContatoService; enquanto o índice carrega, substring no nome
+    public Flux<Contato> buscarAproximado(String tenant, String termo, int limite) {
+        int limiteEfetivo = Math.max(1, Math.min(limite, ContatoService.TAMANHO_MAXIMO_PAGINA));
+        if (!indice.isPronto()) {
+            return buscarNoBanco(tenant, termo, Campo.NOME, limiteEfetivo);
+        }
+        return carregarResultados(tenant, ContextoTenant.executarComo(tenant, () -> indice.buscarAproximado(termo, limiteEfetivo)));
+    }
+
+    private Flux<Contato> carregarResultados(String tenant, List<ContatoIndiceBusca.Resultado> resultados) {
+        List<Long> ids = resultados.stream().map(ContatoIndiceBusca.Resultado::id).toList();
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return banco.sql("select " + COLUNAS + doTenant(tenant) + " and id in (:ids)")
+                .bind("tenant", tenant)
+                .bind("ids", ids)
+                .map(ContatoReativoService::mapear)
+                .all()
+                .collectMap(Contato::getId)
+                // Devolve na ordem de relevância do índice
+                .flatMapIterable(porId -> ids.stream().map(porId::get).filter(Objects::nonNull).toList());
+    }
+
+    // Enquanto o índice carrega na subida, como no ContatoService: substring sem diferença de caixa
+    private Flux<Contato> buscarNoBanco(String tenant, String termo, Campo campo, int limite) {
+        String coluna = COLUNAS_BUSCA.get(campo != null ? campo : Campo.NOME);
+        return banco.sql("select " + COLUNAS + doTenant(tenant) + " and lower(" + coluna + ") like :padrao order by id limit :limite")
+                .bind("tenant", tenant)
+                .bind("padrao", "%" + termo.toLowerCase(Locale.ROOT) + "%")
+                .bind("limite", limite)
+                .map(ContatoReativoService::mapear)
+                .all();
+    }
+
+    public Mono<Contato> criar(String tenant, Contato contato) {
+        return bloqueante(tenant, () -> service.criar(contato));
+    }
+
+    public Mono<Contato> atualizar(String tenant, Long id, Contato contato, Long versaoEsperada) {
+        return bloqueante(tenant, () -> service.atualizar(id, contato, versaoEsperada));
+    }
+
+    public Mono<Void> excluir(String tenant, Long id) {
+        return bloqueante(tenant, () -> {
+            service.excluir(id);
+            return null;
+        }).then();
+    }
+
+    private static <T> Mono<T> bloqueante(String tenant, Supplier<T> tarefa) {
+        return Mono.fromSupplier(() -> ContextoTenant.executarComo(tenant, tarefa))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // " from contato where tenant = :tenant", com a tabela no esquema do tenant quando ele tem um
+    // (nome de tabela não pode ser parâmetro; o esquema vem da configuração, validado na subida)
+    private String doTenant(String tenant) {
+        if (!ContextoTenant.valido(tenant)) {
+            throw new IllegalArgumentException("Tenant inválido: " + tenant);
+        }
+        String esquema = esquemas.get(tenant);
+        return " from " + (esquema != null ? esquema + ".contato" : "contato") + " where tenant = :tenant";
+    }
+
+    private static Contato mapear(Readable linha) {
+        return new Contato(linha.get("id", Long.class), linha.get("nome", String.class),
+                linha.get("telefone", String.class), linha.get("email", String.class), linha.get("versao", Long.class));
+    }
+}
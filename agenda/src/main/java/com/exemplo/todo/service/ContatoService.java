@@ -1,55 +1,259 @@
 package com.exemplo.todo.service;
 
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.dto.PaginaContatos;
+import com.exemplo.todo.dto.ResumoVersoes;
 import com.exemplo.todo.entity.Contato;
 import com.exemplo.todo.repository.ContatoRepository;
+import com.exemplo.todo.service.ContatoIndiceBusca.Campo;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import com.exemplo.todo.service.FeedAlteracoes.Tipo;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import jakarta.validation.Valid;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "agenda.servico")
 public class ContatoService {
 
+    static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
     private final ContatoRepository repository;
+    private final EntityManager entityManager;
+    private final ContatoIndiceBusca indice;
+    private final ApplicationEventPublisher eventos;
+    private final ChamadasCoalescidas coalescidas;
+    private final TransactionTemplate leitura;
+    private final TenantsConhecidos tenants;
 
-    public ContatoService(ContatoRepository repository) {
+    public ContatoService(ContatoRepository repository, EntityManager entityManager, ContatoIndiceBusca indice,
+                          ApplicationEventPublisher eventos, ChamadasCoalescidas coalescidas,
+                          PlatformTransactionManager transactionManager, TenantsConhecidos tenants) {
         this.repository = repository;
+        this.entityManager = entityManager;
+        this.indice = indice;
+        this.eventos = eventos;
+        this.coalescidas = coalescidas;
+        // A transação só é aberta por quem executa a consulta coalescida; quem espera não segura conexão
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.tenants = tenants;
+    }
+
+    // Carrega o índice de busca na subida, uma transação (e sessão) por tenant; até terminar, as buscas vão ao banco
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice() {
+        for (String tenant : tenants.todos()) {
+            ContextoTenant.executarComo(tenant, () -> leitura.executeWithoutResult(status -> percorrerTodos(indice::indexar)));
+        }
+        indice.marcarPronto();
     }
 
-    // Criar um novo contato, verificando duplicatas
+    // Criar um novo contato; a duplicata é detectada pela chave única (nome e telefone normalizados) no próprio insert
     public Contato criar(@Valid Contato contato) {
-        if (repository.existsByNomeAndTelefone(contato.getNome(), contato.getTelefone())) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Contato com este nome e telefone já existe.");
+        Contato salvo;
+        try {
+            salvo = repository.saveAndFlush(contato);
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirViolacao(e);
         }
-        return repository.save(contato);
+        indice.indexar(salvo);
+        publicar(Tipo.CRIADO, salvo);
+        return salvo;
     }
 
-    // Listar todos os contatos
+    // Listar todos os contatos; chamadas simultâneas compartilham a mesma consulta
     public List<Contato> listarTodos() {
-        return repository.findAll();
+        return coalescidas.executar("listarTodos", List.of(), () -> leitura.execute(status -> repository.findAll()),
+                ContatoService::copias);
+    }
+
+    // Buscar um contato por ID (normalmente servido pelo cache, sem transação nem conexão)
+    public Contato buscarPorId(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contato não encontrado."));
+    }
+
+    // Versão da listagem do tenant para o ETag (uma linha lida pela chave)
+    @Transactional(readOnly = true)
+    public ResumoVersoes resumirVersoes() {
+        return repository.resumirVersoes();
+    }
+
+    // Listar uma página de contatos a partir do cursor (último id recebido); páginas iguais pedidas ao mesmo tempo são coalescidas
+    public PaginaContatos listarPagina(Long cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        return coalescidas.executar("listarPagina", Arrays.asList(cursor, limite),
+                () -> leitura.execute(status -> consultarPagina(cursor, limite)));
+    }
+
+    private PaginaContatos consultarPagina(Long cursor, int limite) {
+        // Busca um registro a mais só para saber se existe próxima página
+        List<ContatoResumo> contatos = repository.listarResumos(cursor == null ? 0L : cursor, Limit.of(limite + 1));
+        if (contatos.size() <= limite) {
+            return new PaginaContatos(contatos, null);
+        }
+        List<ContatoResumo> pagina = contatos.subList(0, limite);
+        return new PaginaContatos(pagina, pagina.get(limite - 1).id());
+    }
+
+    // Percorrer todos os contatos sem acumulá-los em memória (cada linha é desanexada após o uso)
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Consumer<Contato> consumidor) {
+        try (Stream<Contato> contatos = repository.streamTodos()) {
+            contatos.forEach(contato -> {
+                consumidor.accept(contato);
+                entityManager.detach(contato);
+            });
+        }
     }
 
     // Listar contatos por nome ou email (novo requisito)
     public List<Contato> buscarPorNomeOuEmail(String nome, String email) {
+        return coalescidas.executar("buscarPorNomeOuEmail", Arrays.asList(nome, email),
+                () -> leitura.execute(status -> consultarPorNomeOuEmail(nome, email)), ContatoService::copias);
+    }
+
+    private List<Contato> consultarPorNomeOuEmail(String nome, String email) {
         if (nome != null && !nome.isEmpty()) {
+            if (indice.isPronto()) {
+                return carregarResultados(indice.buscar(nome, Campo.NOME, Integer.MAX_VALUE));
+            }
             return repository.findByNomeContainingIgnoreCase(nome);
         } else if (email != null && !email.isEmpty()) {
+            if (indice.isPronto()) {
+                return carregarResultados(indice.buscar(email, Campo.EMAIL, Integer.MAX_VALUE));
+            }
             return repository.findByEmailContainingIgnoreCase(email);
         }
-        return listarTodos();
+        return repository.findAll();
+    }
+
+    // Busca por substring/prefixo em nome, email e telefone (ou só no campo informado), ordenada por relevância
+    public List<Contato> buscar(String termo, Campo campo, int limite) {
+        int limiteEfetivo = Math.max(1, Math.min(limite, TAMANHO_MAXIMO_PAGINA));
+        return coalescidas.executar("buscar", Arrays.asList(termo, campo, limiteEfetivo),
+                () -> leitura.execute(status -> consultarTermo(termo, campo, limiteEfetivo)), ContatoService::copias);
+    }
+
+    private List<Contato> consultarTermo(String termo, Campo campo, int limiteEfetivo) {
+        if (!indice.isPronto()) {
+            List<Contato> contatos = campo == Campo.EMAIL
+                    ? repository.findByEmailContainingIgnoreCase(termo)
+                    : repository.findByNomeContainingIgnoreCase(termo);
+            return contatos.size() > limiteEfetivo ? contatos.subList(0, limiteEfetivo) : contatos;
+        }
+        return carregarResultados(indice.buscar(termo, campo, limiteEfetivo));
     }
 
-    // Atualizar um contato existente
+    // Busca por nome sem diferença de acentos e tolerante a erros de digitação, ordenada por proximidade
+    public List<Contato> buscarAproximado(String termo, int limite) {
+        int limiteEfetivo = Math.max(1, Math.min(limite, TAMANHO_MAXIMO_PAGINA));
+        return coalescidas.executar("buscarAproximado", Arrays.asList(termo, limiteEfetivo),
+                () -> leitura.execute(status -> consultarAproximado(termo, limiteEfetivo)), ContatoService::copias);
+    }
+
+    private List<Contato> consultarAproximado(String termo, int limiteEfetivo) {
+        if (!indice.isPronto()) {
+            // As chaves fonéticas só existem no índice; enquanto ele carrega, vale a substring exata
+            List<Contato> contatos = repository.findByNomeContainingIgnoreCase(termo);
+            return contatos.size() > limiteEfetivo ? contatos.subList(0, limiteEfetivo) : contatos;
+        }
+        return carregarResultados(indice.buscarAproximado(termo, limiteEfetivo));
+    }
+
+    // Cada chamada coalescida recebe as suas instâncias: Contato é mutável
+    private static List<Contato> copias(List<Contato> contatos) {
+        return contatos.stream().map(Contato::copiar).toList();
+    }
+
+    // Busca os contatos dos resultados em uma única consulta, mantendo a ordem de relevância
+    private List<Contato> carregarResultados(List<ContatoIndiceBusca.Resultado> resultados) {
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = resultados.stream().map(ContatoIndiceBusca.Resultado::id).toList();
+        Map<Long, Contato> porId = new HashMap<>(ids.size());
+        // Em blocos para não montar um IN gigante quando o termo é muito curto
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_MAXIMO_PAGINA) {
+            List<Long> bloco = ids.subList(inicio, Math.min(ids.size(), inicio + TAMANHO_MAXIMO_PAGINA));
+            repository.findAllById(bloco).forEach(contato -> porId.put(contato.getId(), contato));
+        }
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    // Atualizar um contato existente; a versão do corpo, se informada, precisa ser a atual
     public Contato atualizar(Long id, @Valid Contato contatoAtualizado) {
-        return repository.findById(id).map(contato -> {
-            contato.setNome(contatoAtualizado.getNome());
-            contato.setTelefone(contatoAtualizado.getTelefone());
-            contato.setEmail(contatoAtualizado.getEmail());
-            return repository.save(contato);
-        }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contato não encontrado."));
+        return atualizar(id, contatoAtualizado, contatoAtualizado.getVersao());
+    }
+
+    // Atualizar exigindo a versão esperada (If-Match); nula dispensa a checagem
+    public Contato atualizar(Long id, @Valid Contato contatoAtualizado, Long versaoEsperada) {
+        Contato atual = buscarPorId(id);
+        if (versaoEsperada != null && !versaoEsperada.equals(atual.getVersao())) {
+            throw conflitoDeVersao();
+        }
+        // Grava uma instância nova com o id e a versão atuais e os dados do corpo
+        Contato contato = new Contato(atual.getId(), contatoAtualizado.getNome(), contatoAtualizado.getTelefone(),
+                contatoAtualizado.getEmail(), atual.getVersao());
+        Contato salvo;
+        try {
+            salvo = repository.save(contato);
+        } catch (OptimisticLockingFailureException e) {
+            // Outra gravação passou entre a leitura e o UPDATE
+            throw conflitoDeVersao();
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirViolacao(e);
+        }
+        indice.indexar(salvo);
+        publicar(Tipo.ATUALIZADO, salvo);
+        return salvo;
+    }
+
+    // Violação da chave (nome, telefone) vira 409; qualquer outra violação segue adiante
+    static RuntimeException traduzirViolacao(DataIntegrityViolationException e) {
+        if (ehChaveDuplicada(e)) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Contato com este nome e telefone já existe.");
+        }
+        return e;
+    }
+
+    static boolean ehChaveDuplicada(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null
+                    && violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(Contato.CHAVE_NOME_TELEFONE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseStatusException conflitoDeVersao() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Contato alterado por outra requisição; recarregue e tente de novo.");
     }
 
     // Excluir um contato por ID
@@ -58,5 +262,14 @@ public class ContatoService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contato não encontrado.");
         }
         repository.deleteById(id);
+        indice.remover(id);
+        eventos.publishEvent(new Alteracao(Tipo.EXCLUIDO, id, null));
+    }
+
+    // O feed recebe uma cópia: a entidade salva volta ao chamador, que ainda pode alterá-la
+    private void publicar(Tipo tipo, Contato contato) {
+        Contato copia = new Contato(contato.getId(), contato.getNome(), contato.getTelefone(), contato.getEmail(),
+                contato.getVersao());
+        eventos.publishEvent(new Alteracao(tipo, copia.getId(), copia));
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.ContatoExportado;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Formatos de GET /contatos/export; as linhas terminam em CRLF, como pedem a RFC 4180 (CSV) e a RFC 2426 (vCard 3.0)
+public enum FormatoExportacao {
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        void escreverCabecalho(Writer saida) throws IOException {
+            saida.write("id,nome,telefone,email\r\n");
+        }
+
+        @Override
+        void escrever(Writer saida, ContatoExportado contato) throws IOException {
+            saida.write(String.valueOf(contato.id()));
+            saida.write(',');
+            campoCsv(saida, contato.nome());
+            saida.write(',');
+            campoCsv(saida, contato.telefone());
+            saida.write(',');
+            campoCsv(saida, contato.email());
+            saida.write("\r\n");
+        }
+    },
+
+    VCARD(new MediaType("text", "vcard", StandardCharsets.UTF_8), "vcf") {
+        @Override
+        void escreverCabecalho(Writer saida) {
+        }
+
+        @Override
+        void escrever(Writer saida, ContatoExportado contato) throws IOException {
+            saida.write("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+            linhaVcard(saida, "UID:contato-", String.valueOf(contato.id()));
+            linhaVcard(saida, "FN:", contato.nome());
+            // Sem separar sobrenome: o nome inteiro vai no campo "nome próprio" de N
+            linhaVcard(saida, "N:;", contato.nome(), ";;;");
+            linhaVcard(saida, "TEL;TYPE=CELL:", contato.telefone());
+            if (contato.email() != null) {
+                linhaVcard(saida, "EMAIL;TYPE=INTERNET:", contato.email());
+            }
+            saida.write("END:VCARD\r\n");
+        }
+    };
+
+    // Linhas de vCard com mais de 75 octetos são dobradas (CRLF + espaço)
+    private static final int LIMITE_LINHA_VCARD = 75;
+
+    private final MediaType tipo;
+    private final String extensao;
+
+    FormatoExportacao(MediaType tipo, String extensao) {
+        this.tipo = tipo;
+        this.extensao = extensao;
+    }
+
+    public MediaType tipo() {
+        return tipo;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+
+    abstract void escreverCabecalho(Writer saida) throws IOException;
+
+    abstract void escrever(Writer saida, ContatoExportado contato) throws IOException;
+
+    // Entre aspas só quando precisa (vírgula, aspas ou quebra de linha); aspas internas são duplicadas
+    private static void campoCsv(Writer saida, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean citar = false;
+        for (int i = 0; i < valor.length() && !citar; i++) {
+            char c = valor.charAt(i);
+            citar = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!citar) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        saida.write(valor.replace("\"", "\"\""));
+        saida.write('"');
+    }
+
+    private static void linhaVcard(Writer saida, String propriedade, String valor) throws IOException {
+        linhaVcard(saida, propriedade, valor, "");
+    }
+
+    // Escapa \ , ; e quebras de linha do valor e dobra a linha contando octetos UTF-8
+    private static void linhaVcard(Writer saida, String propriedade, String valor, String sufixo) throws IOException {
+        String linha = propriedade + escaparVcard(valor) + sufixo;
+        int octetos = 0;
+        for (int i = 0; i < linha.length() && octetos <= LIMITE_LINHA_VCARD; i++) {
+            octetos += octetosUtf8(linha.charAt(i));
+        }
+        if (octetos <= LIMITE_LINHA_VCARD) {
+            // Caso comum: cabe numa linha e vai numa única escrita
+            saida.write(linha);
+            saida.write("\r\n");
+            return;
+        }
+        int inicio = 0;
+        octetos = 0;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            // Um par substituto (4 octetos) não é separado
+            int tamanho = Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : octetosUtf8(c);
+            if (octetos + tamanho > LIMITE_LINHA_VCARD) {
+                saida.write(linha, inicio, i - inicio);
+                saida.write("\r\n ");
+                inicio = i;
+                octetos = 1;
+            }
+            octetos += tamanho;
+        }
+        saida.write(linha, inicio, linha.length() - inicio);
+        saida.write("\r\n");
+    }
+
+    private static int octetosUtf8(char c) {
+        return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+    }
+
+    private static String escaparVcard(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        StringBuilder escapado = null;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            String troca = switch (c) {
+                case '\\' -> "\\\\";
+                case ',' -> "\\,";
+                case ';' -> "\\;";
+                case '\n' -> "\\n";
+                case '\r' -> "";
+                default -> null;
+            };
+            if (troca != null && escapado == null) {
+                escapado = new StringBuilder(valor.length() + 8).append(valor, 0, i);
+            }
+            if (escapado != null) {
+                if (troca != null) {
+                    escapado.append(troca);
+                } else {
+                    escapado.append(c);
+                }
+            }
+        }
+        return escapado == null ? valor : escapado.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Preenche as chaves normalizadas dos contatos gravados antes delas existirem. Roda na subida,
+ * linha a linha, para que um par que já colide com outro contato (duplicata antiga) fique sem
+ * chave em vez de derrubar a migração inteira; nas subidas seguintes só restam essas duplicatas.
+ * As consultas são filtradas por tenant, então a migração passa por um tenant de cada vez.
+ */
+@Component
+public class MigracaoChavesContato {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoChavesContato.class);
+    static final int TAMANHO_BLOCO = 500;
+
+    private final ContatoRepository repository;
+    private final TenantsConhecidos tenants;
+
+    public MigracaoChavesContato(ContatoRepository repository, TenantsConhecidos tenants) {
+        this.repository = repository;
+        this.tenants = tenants;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencherChaves() {
+        for (String tenant : tenants.todos()) {
+            ContextoTenant.executarComo(tenant, this::preencherChavesDoTenant);
+        }
+    }
+
+    private void preencherChavesDoTenant() {
+        long cursor = 0L;
+        int preenchidos = 0;
+        int duplicados = 0;
+        List<Contato> bloco;
+        do {
+            bloco = repository.findSemChaves(cursor, Limit.of(TAMANHO_BLOCO));
+            for (Contato contato : bloco) {
+                cursor = contato.getId();
+                try {
+                    repository.preencherChaves(contato.getId(), Contato.normalizarNome(contato.getNome()),
+                            Contato.normalizarTelefone(contato.getTelefone()), Contato.normalizarEmail(contato.getEmail()));
+                    preenchidos++;
+                } catch (DataIntegrityViolationException e) {
+                    duplicados++;
+                }
+            }
+        } while (bloco.size() == TAMANHO_BLOCO);
+        if (preenchidos > 0 || duplicados > 0) {
+            log.info("Chaves normalizadas preenchidas em {} contatos do tenant {}; {} ficaram sem chave por duplicarem outro contato",
+                    preenchidos, ContextoTenant.atual(), duplicados);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.repository.ContatoRepository;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tenants que as tarefas de subida percorrem: os que têm contatos no esquema padrão mais os de
+ * agenda.tenants.esquemas. Estes guardam as linhas no esquema próprio e não aparecem na consulta
+ * de tenants, que roda no esquema padrão.
+ */
+@Component
+public class TenantsConhecidos {
+
+    private final ContatoRepository repository;
+    private final Set<String> tenantsComEsquema;
+
+    public TenantsConhecidos(ContatoRepository repository, Environment ambiente) {
+        this.repository = repository;
+        this.tenantsComEsquema = Set.copyOf(Binder.get(ambiente)
+                .bind("agenda.tenants.esquemas", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .keySet());
+    }
+
+    public Set<String> todos() {
+        Set<String> tenants = new TreeSet<>(repository.listarTenants());
+        tenants.addAll(tenantsComEsquema);
+        return tenants;
+    }
+}
@@ -0,0 +1,76 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.VersaoListagem;
+import com.exemplo.todo.repository.VersaoListagemRepository;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Contador de alterações dos contatos de cada tenant (tabela versao_listagem), que é o ETag das
+ * listagens: o GET lê uma linha pela chave em vez de agregar a tabela inteira. Toda gravação
+ * publica uma Alteracao (a mesma do feed); o contador sobe uma vez por transação, depois do
+ * commit, numa transação própria. Entre o commit e o incremento um GET pode levar os dados novos
+ * com o ETag anterior, o que só custa baixar a página de novo na próxima vez.
+ */
+@Component
+public class VersoesListagem {
+
+    private final VersaoListagemRepository repository;
+    private final TransactionTemplate transacao;
+
+    public VersoesListagem(VersaoListagemRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // Depois do commit a transação de quem gravou ainda está associada à thread
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener
+    public void aoAlterar(Alteracao alteracao) {
+        String tenant = ContextoTenant.atual();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar(tenant);
+            return;
+        }
+        // Um lote publica uma Alteracao por registro; basta um incremento por transação
+        if (TransactionSynchronizationManager.getSynchronizations().stream().noneMatch(Incremento.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new Incremento(tenant));
+        }
+    }
+
+    private final class Incremento implements TransactionSynchronization {
+
+        private final String tenant;
+
+        Incremento(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void afterCommit() {
+            incrementar(tenant);
+        }
+    }
+
+    void incrementar(String tenant) {
+        try {
+            transacao.executeWithoutResult(status -> {
+                if (repository.incrementar(tenant) == 0) {
+                    repository.saveAndFlush(new VersaoListagem(tenant, 1));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outro commit criou a linha do tenant ao mesmo tempo
+            transacao.executeWithoutResult(status -> repository.incrementar(tenant));
+        }
+    }
+
+}
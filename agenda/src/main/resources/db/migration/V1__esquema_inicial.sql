@@ -0,0 +1,24 @@
+-- Esquema equivalente ao gerado pelo Hibernate a partir da entidade Contato (MySQL).
+-- Bancos criados antes pelo ddl-auto recebem esta versão como linha de base (baseline-on-migrate)
+create table contato (
+    id bigint not null,
+    nome varchar(255) not null,
+    telefone varchar(255) not null,
+    email varchar(255),
+    versao bigint not null,
+    nome_normalizado varchar(255),
+    telefone_normalizado varchar(255),
+    email_normalizado varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table contato_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into contato_seq values (1);
+
+create index idx_contato_telefone_normalizado on contato (telefone_normalizado);
+
+alter table contato
+    add constraint uk_contato_nome_telefone unique (nome_normalizado, telefone_normalizado);
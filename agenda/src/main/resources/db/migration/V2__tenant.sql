@@ -0,0 +1,9 @@
+-- Multi-tenant por coluna: contatos existentes ficam no tenant padrão. Chave única e índices passam
+-- a começar pelo tenant, já que toda consulta filtra por ele. Um único ALTER reconstrói a tabela uma vez
+alter table contato
+    add column tenant varchar(64) not null default 'padrao',
+    drop index uk_contato_nome_telefone,
+    add constraint uk_contato_nome_telefone unique (tenant, nome_normalizado, telefone_normalizado),
+    drop index idx_contato_telefone_normalizado,
+    add index idx_contato_tenant_telefone (tenant, telefone_normalizado),
+    add index idx_contato_tenant_id (tenant, id);
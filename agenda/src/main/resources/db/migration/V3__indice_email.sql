@@ -0,0 +1,2 @@
+-- Deduplicação de contatos: a passada por email percorre o tenant em ordem de email normalizado
+create index idx_contato_tenant_email on contato (tenant, email_normalizado);
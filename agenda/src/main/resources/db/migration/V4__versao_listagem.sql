@@ -0,0 +1,6 @@
+-- Contador de alterações por tenant, o ETag das listagens (antes um agregado sobre a tabela contato)
+create table versao_listagem (
+    tenant varchar(255) not null,
+    versao bigint not null,
+    primary key (tenant)
+);
@@ -0,0 +1,111 @@
+package com.exemplo.todo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChamadasCoalescidasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChamadasCoalescidas coalescidas = new ChamadasCoalescidas(registry);
+
+    @Test
+    @DisplayName("Deve executar uma única vez chamadas idênticas simultâneas e compartilhar o resultado")
+    void deveCompartilharChamadaEmAndamento() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        CompletableFuture<List<String>> primeira = CompletableFuture.supplyAsync(() ->
+                coalescidas.executar("listar", List.of(1), () -> {
+                    execucoes.incrementAndGet();
+                    aguardar(liberar);
+                    return List.of("Bruce Wayne");
+                }));
+        // Espera a primeira chamada estar em andamento antes de disparar a segunda
+        while (execucoes.get() == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<List<String>> segunda = CompletableFuture.supplyAsync(() ->
+                coalescidas.executar("listar", List.of(1), () -> {
+                    execucoes.incrementAndGet();
+                    return List.of("Clark Kent");
+                }));
+        while (registry.counter("agenda.coalescencia", "operacao", "listar", "resultado", "compartilhada").count() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        liberar.countDown();
+
+        // Assert
+        assertSame(primeira.get(5, TimeUnit.SECONDS), segunda.get(5, TimeUnit.SECONDS));
+        assertEquals(1, execucoes.get());
+        // Terminada a chamada, a próxima vai ao banco de novo
+        assertEquals(List.of("Clark Kent"), coalescidas.executar("listar", List.of(1), () -> List.of("Clark Kent")));
+    }
+
+    @Test
+    @DisplayName("Deve entregar a cada chamada coalescida a sua própria cópia do resultado")
+    void deveCopiarResultadoPorChamada() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        CompletableFuture<List<StringBuilder>> primeira = CompletableFuture.supplyAsync(() ->
+                coalescidas.executar("listar", List.of(2), () -> {
+                    execucoes.incrementAndGet();
+                    aguardar(liberar);
+                    return List.of(new StringBuilder("Bruce Wayne"));
+                }, ChamadasCoalescidasTest::copiar));
+        while (execucoes.get() == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<List<StringBuilder>> segunda = CompletableFuture.supplyAsync(() ->
+                coalescidas.executar("listar", List.of(2), () -> List.of(new StringBuilder("Clark Kent")),
+                        ChamadasCoalescidasTest::copiar));
+        while (registry.counter("agenda.coalescencia", "operacao", "listar", "resultado", "compartilhada").count() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act: quem executou altera o que recebeu
+        liberar.countDown();
+        primeira.get(5, TimeUnit.SECONDS).get(0).append(" (alterado)");
+
+        // Assert: a alteração não aparece para quem esperou
+        assertEquals(1, execucoes.get());
+        assertEquals("Bruce Wayne", segunda.get(5, TimeUnit.SECONDS).get(0).toString());
+    }
+
+    @Test
+    @DisplayName("Deve repassar a exceção da chamada sem guardar o erro para as próximas")
+    void deveRepassarExcecao() {
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                coalescidas.executar("buscar", List.of("x"), () -> {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+                }));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("ok", coalescidas.executar("buscar", List.of("x"), () -> "ok"));
+    }
+
+    private static List<StringBuilder> copiar(List<StringBuilder> lista) {
+        return lista.stream().map(StringBuilder::new).toList();
+    }
+
+    private static void aguardar(CountDownLatch trava) {
+        try {
+            trava.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.exemplo.todo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChaveFoneticaTest {
+
+    @Test
+    @DisplayName("Deve dobrar o nome em palavras sem acentos e sem partículas")
+    void deveDobrarPalavras() {
+        assertArrayEquals(new String[]{"joao", "avila", "conceisao"}, ChaveFonetica.palavras("  JOÃO d'Ávila  da Conceição "));
+    }
+
+    @Test
+    @DisplayName("Deve dar a mesma chave a grafias com o mesmo som")
+    void deveAgruparGrafiasComOMesmoSom() {
+        String[][] pares = {{"luiz", "luis"}, {"thiago", "tiago"}, {"rafael", "raphael"}, {"sousa", "souza"},
+                {"gisele", "jisele"}, {"katia", "catia"}, {"helena", "elena"}, {"nascimento", "nacimento"}, {"rafael", "rafeal"}};
+        for (String[] par : pares) {
+            assertEquals(ChaveFonetica.chave(par[0]), ChaveFonetica.chave(par[1]), par[0] + " / " + par[1]);
+        }
+        assertNotEquals(ChaveFonetica.chave("silva"), ChaveFonetica.chave("souza"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar o ç como s, também quando vem decomposto")
+    void deveTratarCedilhaComoS() {
+        String goncalves = ChaveFonetica.chave(ChaveFonetica.palavras("Gonçalves")[0]);
+
+        assertEquals(ChaveFonetica.chave("gonsalves"), goncalves);
+        assertEquals(goncalves, ChaveFonetica.chave(ChaveFonetica.palavras("Gonc\u0327alves")[0]));
+        assertEquals(ChaveFonetica.chave("asusena"), ChaveFonetica.chave(ChaveFonetica.palavras("Açucena")[0]));
+    }
+
+    @Test
+    @DisplayName("Deve medir a distância de edição até o limite")
+    void deveMedirDistanciaLimitada() {
+        assertEquals(0, ChaveFonetica.distancia("silva", "silva", 2));
+        assertEquals(1, ChaveFonetica.distancia("silva", "sliva", 2));
+        assertEquals(1, ChaveFonetica.distancia("silva", "silba", 2));
+        assertEquals(2, ChaveFonetica.distancia("silva", "silvana", 2));
+        // Passou do limite: devolve limite + 1
+        assertEquals(2, ChaveFonetica.distancia("silva", "souza", 1));
+        assertEquals(2, ChaveFonetica.distancia("ana", "anabela", 1));
+    }
+}
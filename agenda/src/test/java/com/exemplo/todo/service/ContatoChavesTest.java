@@ -0,0 +1,29 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.entity.Contato;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContatoChavesTest {
+
+    @Test
+    @DisplayName("Deve reduzir formatos diferentes do mesmo telefone à mesma chave E.164")
+    void deveNormalizarTelefone() {
+        assertEquals("+5511999990000", Contato.normalizarTelefone("(11) 9999-0000"));
+        assertEquals("+5511999990000", Contato.normalizarTelefone("11999990000"));
+        assertEquals("+5511999990000", Contato.normalizarTelefone("+55 11 99999-0000"));
+        // Fixo não ganha o nono dígito; número sem DDD fica só com os dígitos
+        assertEquals("+551133334444", Contato.normalizarTelefone("(11) 3333-4444"));
+        assertEquals("999990101", Contato.normalizarTelefone("99999-0101"));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar caixa e espaços em nome e email")
+    void deveNormalizarNomeEEmail() {
+        assertEquals("bruce wayne", Contato.normalizarNome("  Bruce   WAYNE "));
+        assertEquals("bruce@wayne.com", Contato.normalizarEmail(" Bruce@Wayne.COM"));
+        assertNull(Contato.normalizarEmail(" "));
+    }
+}
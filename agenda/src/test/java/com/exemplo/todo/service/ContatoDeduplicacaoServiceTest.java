@@ -0,0 +1,206 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.CandidatoDuplicata;
+import com.exemplo.todo.dto.PropostaMesclagem;
+import com.exemplo.todo.dto.ResultadoDeduplicacao;
+import com.exemplo.todo.dto.SituacaoDeduplicacao;
+import com.exemplo.todo.dto.SituacaoDeduplicacao.Estado;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContatoDeduplicacaoServiceTest {
+
+    @Mock
+    private ContatoRepository repository;
+
+    @Mock
+    private ContatoIndiceBusca indice;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContatoDeduplicacaoService service;
+
+    // Telefone e email como ficam depois de normalizados
+    private final List<CandidatoDuplicata> candidatos = List.of(
+            new CandidatoDuplicata(1L, "Bruce Wayne", "+5511999990101", "bruce@wayne.com", 0L),
+            // Mesmo telefone, nome com um erro
+            new CandidatoDuplicata(2L, "Bruce Waine", "+5511999990101", null, 0L),
+            // Mesmo email e mesmo nome (sem diferença de caixa), outro telefone
+            new CandidatoDuplicata(3L, "bruce wayne", "+5511888880000", "bruce@wayne.com", 0L),
+            new CandidatoDuplicata(4L, "Clark Kent", "+5511777770000", null, 0L),
+            // Mesmo telefone do Clark, nome com um erro: mesma pessoa
+            new CandidatoDuplicata(5L, "Clark Kemt", "+5511777770000", "clark@dailyplanet.com", 0L),
+            // Mesmo telefone do Clark, outro nome: telefone compartilhado não basta
+            new CandidatoDuplicata(6L, "Lois Lane", "+5511777770000", "lois@dailyplanet.com", 0L));
+
+    @BeforeEach
+    void setUp() {
+        service = new ContatoDeduplicacaoService(repository, indice, eventos, transactionManager, 70, 5, 500, 50, 100, 1000, 2);
+        // Cada passada recebe as linhas na ordem da sua chave, como o banco entregaria
+        when(repository.streamPorTelefone()).thenAnswer(i -> ordenados(CandidatoDuplicata::telefone));
+        when(repository.streamPorEmail()).thenAnswer(i -> candidatos.stream().filter(c -> c.email() != null)
+                .sorted(Comparator.comparing(CandidatoDuplicata::email).thenComparing(CandidatoDuplicata::id)));
+        when(repository.streamPorNome()).thenAnswer(i -> ordenados(c -> Contato.normalizarNome(c.nome())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve propor mesclagens agrupando os pares dos blocos de telefone, email e nome")
+    void deveProporMesclagens() {
+        // Act
+        ResultadoDeduplicacao resultado = service.deduplicar(false);
+
+        // Assert: 1-2 pelo telefone e 1-3 pelo email caem no mesmo grupo
+        assertEquals(List.of(new PropostaMesclagem(1L, List.of(2L, 3L), 70, Map.of(1L, 0L, 2L, 0L, 3L, 0L)),
+                        new PropostaMesclagem(4L, List.of(5L), 70, Map.of(4L, 0L, 5L, 0L))),
+                resultado.propostas());
+        assertEquals(16, resultado.lidos());
+        assertEquals(0, resultado.mesclados());
+        assertFalse(resultado.truncado());
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar as mesclagens mantendo o contato mais antigo")
+    void deveAplicarMesclagens() {
+        // Arrange
+        Contato clark = new Contato(4L, "Clark Kent", "(11) 77777-0000", null, 0L);
+        when(repository.findById(1L)).thenReturn(Optional.of(new Contato(1L, "Bruce Wayne", "11999990101", "bruce@wayne.com", 0L)));
+        when(repository.findAllById(List.of(2L, 3L))).thenReturn(List.of(new Contato(2L, "Bruce Waine", "11999990101", null, 0L),
+                new Contato(3L, "bruce wayne", "11888880000", "bruce@wayne.com", 0L)));
+        when(repository.findById(4L)).thenReturn(Optional.of(clark));
+        when(repository.findAllById(List.of(5L))).thenReturn(List.of(new Contato(5L, "Clark Kemt", "11777770000", "clark@dailyplanet.com", 0L)));
+        when(repository.save(any(Contato.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        ResultadoDeduplicacao resultado = service.deduplicar(true);
+
+        // Assert
+        assertEquals(3, resultado.mesclados());
+        verify(repository).deleteById(2L);
+        verify(repository).deleteById(3L);
+        verify(repository).deleteById(5L);
+        verify(repository, never()).deleteById(6L);
+        // O mantido herda o email que não tinha, gravado numa cópia: a instância lida não muda
+        verify(repository).save(argThat(c -> c.getId() == 4L && "clark@dailyplanet.com".equals(c.getEmail())));
+        assertNull(clark.getEmail());
+        verify(indice).remover(5L);
+        verify(indice).indexar(argThat(c -> c.getId() == 4L));
+        // Um evento por grupo mesclado
+        verify(eventos).publishEvent(new FeedAlteracoes.Alteracao(FeedAlteracoes.Tipo.LOTE, 1L, null));
+        verify(eventos).publishEvent(new FeedAlteracoes.Alteracao(FeedAlteracoes.Tipo.LOTE, 4L, null));
+    }
+
+    @Test
+    @DisplayName("Deve pular o grupo com algum contato alterado depois da leitura")
+    void devePularGrupoAlterado() {
+        // Arrange: o contato 3 ganhou uma versão nova depois das passadas
+        when(repository.findById(1L)).thenReturn(Optional.of(new Contato(1L, "Bruce Wayne", "11999990101", "bruce@wayne.com", 0L)));
+        when(repository.findAllById(List.of(2L, 3L))).thenReturn(List.of(new Contato(2L, "Bruce Waine", "11999990101", null, 0L),
+                new Contato(3L, "Bruce Wayne Jr", "11888880000", "bruce@wayne.com", 1L)));
+        when(repository.findById(4L)).thenReturn(Optional.of(new Contato(4L, "Clark Kent", "(11) 77777-0000", null, 0L)));
+        when(repository.findAllById(List.of(5L))).thenReturn(List.of(new Contato(5L, "Clark Kemt", "11777770000", "clark@dailyplanet.com", 0L)));
+        when(repository.save(any(Contato.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        ResultadoDeduplicacao resultado = service.deduplicar(true);
+
+        // Assert
+        assertEquals(1, resultado.mesclados());
+        verify(repository, never()).deleteById(2L);
+        verify(repository, never()).deleteById(3L);
+        verify(repository).deleteById(5L);
+        verify(eventos, times(1)).publishEvent(any(FeedAlteracoes.Alteracao.class));
+    }
+
+    @Test
+    @DisplayName("Deve parar de guardar pares no limite e marcar o resultado como truncado")
+    void deveTruncarNoLimiteDePares() {
+        // Arrange
+        service.encerrar();
+        service = new ContatoDeduplicacaoService(repository, indice, eventos, transactionManager, 70, 5, 500, 50, 100, 1, 2);
+
+        // Act
+        ResultadoDeduplicacao resultado = service.deduplicar(false);
+
+        // Assert: só o primeiro par guardado (os blocos são pontuados em paralelo) vira proposta
+        assertTrue(resultado.truncado());
+        assertEquals(1, resultado.propostas().size());
+        assertEquals(1, resultado.propostas().get(0).remover().size());
+    }
+
+    @Test
+    @DisplayName("Deve rodar em segundo plano, recusar outra execução e paginar as propostas")
+    void deveRodarEmSegundoPlano() throws InterruptedException {
+        // Arrange: a primeira passada espera a liberação
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.streamPorTelefone()).thenAnswer(i -> {
+            liberar.await();
+            return ordenados(CandidatoDuplicata::telefone);
+        });
+
+        // Act
+        SituacaoDeduplicacao iniciada = service.iniciar(false);
+        ResponseStatusException outra = assertThrows(ResponseStatusException.class, () -> service.iniciar(false));
+        liberar.countDown();
+        SituacaoDeduplicacao primeira = aguardarConclusao(1);
+        SituacaoDeduplicacao segunda = service.situacao(primeira.proximoCursor(), 1);
+
+        // Assert
+        assertEquals(Estado.EM_ANDAMENTO, iniciada.estado());
+        assertEquals(409, outra.getStatusCode().value());
+        assertEquals(2, primeira.totalPropostas());
+        assertEquals(1L, primeira.propostas().get(0).manter());
+        assertEquals(1L, primeira.proximoCursor());
+        assertEquals(4L, segunda.propostas().get(0).manter());
+        assertNull(segunda.proximoCursor());
+        // Concluída, outra execução já pode começar
+        service.iniciar(false);
+        assertEquals(Estado.CONCLUIDA, aguardarConclusao(10).estado());
+    }
+
+    private SituacaoDeduplicacao aguardarConclusao(int tamanho) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 500; tentativa++) {
+            SituacaoDeduplicacao situacao = service.situacao(null, tamanho);
+            if (situacao.estado() != Estado.EM_ANDAMENTO) {
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Deduplicação não terminou");
+    }
+
+    private Stream<CandidatoDuplicata> ordenados(Function<CandidatoDuplicata, String> chave) {
+        return candidatos.stream().sorted(Comparator.comparing(chave).thenComparing(CandidatoDuplicata::id));
+    }
+}
@@ -0,0 +1,104 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.controller.CodificacaoResposta;
+import com.exemplo.todo.dto.ContatoExportado;
+import com.exemplo.todo.repository.ContatoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContatoExportacaoServiceTest {
+
+    @Mock
+    private ContatoRepository repository;
+
+    private ContatoExportacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContatoExportacaoService(repository);
+    }
+
+    @Test
+    @DisplayName("Deve exportar CSV citando só os campos que precisam")
+    void deveExportarCsv() throws Exception {
+        // Cenário
+        when(repository.streamExportacao()).thenReturn(Stream.of(
+                new ContatoExportado(1L, "Ana", "+5511987654321", null),
+                new ContatoExportado(2L, "Silva, \"Zé\"", "+5511912345678", "ze@exemplo.com")));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Ação
+        long escritos = service.exportar(FormatoExportacao.CSV, saida);
+
+        // Verificação
+        assertEquals(2, escritos);
+        assertEquals("""
+                id,nome,telefone,email\r
+                1,Ana,+5511987654321,\r
+                2,"Silva, ""Zé\"\"",+5511912345678,ze@exemplo.com\r
+                """, saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve exportar vCard escapando valores e dobrando linhas longas")
+    void deveExportarVcard() throws Exception {
+        // Cenário: nome com caracteres especiais e longo o bastante para passar de 75 octetos
+        String nome = "João; da Silva, " + "Ã".repeat(40);
+        when(repository.streamExportacao()).thenReturn(Stream.of(new ContatoExportado(7L, nome, "+5511987654321", "j@exemplo.com")));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Ação
+        service.exportar(FormatoExportacao.VCARD, saida);
+
+        // Verificação
+        String vcard = saida.toString(StandardCharsets.UTF_8);
+        assertTrue(vcard.startsWith("BEGIN:VCARD\r\nVERSION:3.0\r\nUID:contato-7\r\nFN:João\\; da Silva\\, "));
+        assertTrue(vcard.contains("TEL;TYPE=CELL:+5511987654321\r\nEMAIL;TYPE=INTERNET:j@exemplo.com\r\nEND:VCARD\r\n"));
+        for (String linha : vcard.split("\r\n")) {
+            assertTrue(linha.getBytes(StandardCharsets.UTF_8).length <= 75, linha);
+        }
+        // Desdobrando (CRLF + espaço) o valor volta inteiro
+        assertTrue(vcard.replace("\r\n ", "").contains("FN:João\\; da Silva\\, " + "Ã".repeat(40) + "\r\n"));
+    }
+
+    @Test
+    @DisplayName("Deve negociar a codificação pelo Accept-Encoding e gerar gzip válido")
+    void deveNegociarECompactar() throws Exception {
+        // Verificação da negociação
+        assertEquals(CodificacaoResposta.GZIP, CodificacaoResposta.negociar("deflate, gzip;q=1.0"));
+        assertEquals(CodificacaoResposta.DEFLATE, CodificacaoResposta.negociar("gzip;q=0, deflate"));
+        assertEquals(CodificacaoResposta.GZIP, CodificacaoResposta.negociar("*"));
+        assertEquals(CodificacaoResposta.IDENTIDADE, CodificacaoResposta.negociar("br, identity"));
+        assertEquals(CodificacaoResposta.IDENTIDADE, CodificacaoResposta.negociar(null));
+
+        // Cenário
+        when(repository.streamExportacao()).thenReturn(Stream.of(new ContatoExportado(1L, "Ana", "+5511987654321", null)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Ação
+        try (OutputStream corpo = CodificacaoResposta.GZIP.envolver(saida, Deflater.BEST_SPEED)) {
+            service.exportar(FormatoExportacao.CSV, corpo);
+        }
+
+        // Verificação
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            assertEquals("id,nome,telefone,email\r\n1,Ana,+5511987654321,\r\n", new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
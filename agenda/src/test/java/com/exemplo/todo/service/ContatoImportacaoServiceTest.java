@@ -0,0 +1,99 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.ChaveContato;
+import com.exemplo.todo.dto.ItemImportacao;
+import com.exemplo.todo.dto.ResultadoImportacao;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContatoImportacaoServiceTest {
+
+    @Mock
+    private ContatoRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ContatoIndiceBusca indice;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    private ContatoImportacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContatoImportacaoService(repository, entityManager, new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), indice, eventos);
+    }
+
+    @Test
+    @DisplayName("Deve inserir válidos e relatar duplicados e inválidos por linha")
+    void deveImportarERelatarPorLinha() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"nome":"Bruce Wayne","telefone":"99999-0101"}
+                {"nome":"Clark Kent","telefone":"(11) 8888-0202"}
+                {"nome":"","telefone":"77777-0303"}
+                {"nome":"clark  kent","telefone":"+55 11 98888-0202"}
+                """;
+        // Chaves normalizadas, como gravadas no banco
+        when(repository.findChavesByTelefoneNormalizadoIn(anyCollection()))
+                .thenReturn(List.of(new ChaveContato("bruce wayne", "999990101")));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ResultadoImportacao resultado = service.importar(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(4, resultado.total());
+        assertEquals(1, resultado.inseridos());
+        assertEquals(2, resultado.duplicados());
+        assertEquals(1, resultado.invalidos());
+        assertEquals(List.of(1, 3, 4), resultado.rejeitados().stream().map(ItemImportacao::linha).sorted().toList());
+        verify(repository).saveAll(argThat(contatos -> ((List<Contato>) contatos).size() == 1));
+        verify(indice).indexar(any(Contato.class));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar array JSON e interromper em JSON malformado mantendo o que já foi lido")
+    void deveInterromperEmJsonMalformado() throws Exception {
+        // Arrange
+        String json = "[{\"nome\":\"Bruce Wayne\",\"telefone\":\"99999-0101\"}, {\"nome\": ]";
+        when(repository.findChavesByTelefoneNormalizadoIn(anyCollection())).thenReturn(List.of());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ResultadoImportacao resultado = service.importar(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(1, resultado.inseridos());
+        assertEquals(1, resultado.invalidos());
+        assertEquals(ItemImportacao.Situacao.INVALIDO, resultado.rejeitados().get(0).situacao());
+    }
+}
@@ -0,0 +1,130 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.service.ContatoIndiceBusca.Campo;
+import com.exemplo.todo.service.ContatoIndiceBusca.Resultado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContatoIndiceBuscaTest {
+
+    private ContatoIndiceBusca indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new ContatoIndiceBusca();
+        indice.indexar(new Contato(1L, "Bruce Wayne", "(11) 99999-0101", "bruce@wayneenterprises.com"));
+        indice.indexar(new Contato(2L, "Clark Kent", "88888-0202", "clark@dailyplanet.com"));
+        indice.indexar(new Contato(3L, "Wayne", "77777-0303", null));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar contatos por substring ignorando maiúsculas")
+    void deveEncontrarPorSubstring() {
+        List<Resultado> resultados = indice.buscar("WAYN", Campo.NOME, 10);
+
+        assertEquals(List.of(3L, 1L), resultados.stream().map(Resultado::id).toList());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar termos curtos no fim do valor")
+    void deveEncontrarTermoCurtoNoFim() {
+        List<Resultado> resultados = indice.buscar("nt", Campo.NOME, 10);
+
+        assertEquals(List.of(2L), resultados.stream().map(Resultado::id).toList());
+    }
+
+    @Test
+    @DisplayName("Deve buscar telefone apenas pelos dígitos")
+    void deveBuscarTelefonePorDigitos() {
+        List<Resultado> resultados = indice.buscar("1199999", null, 10);
+
+        assertEquals(List.of(1L), resultados.stream().map(Resultado::id).toList());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de resultados")
+    void deveRespeitarLimite() {
+        assertEquals(1, indice.buscar("a", null, 1).size());
+    }
+
+    @Test
+    @DisplayName("Deve refletir atualização e remoção de contatos")
+    void deveRefletirAtualizacaoERemocao() {
+        indice.indexar(new Contato(2L, "Superman", "88888-0202", "clark@dailyplanet.com"));
+        indice.remover(3L);
+
+        assertTrue(indice.buscar("kent", Campo.NOME, 10).isEmpty());
+        assertEquals(List.of(2L), indice.buscar("super", Campo.NOME, 10).stream().map(Resultado::id).toList());
+        assertEquals(List.of(1L), indice.buscar("wayne", Campo.NOME, 10).stream().map(Resultado::id).toList());
+        assertEquals(2, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar por nome aproximado ignorando acentos e erros de digitação")
+    void deveEncontrarPorNomeAproximado() {
+        // Arrange
+        indice.indexar(new Contato(4L, "João da Silva", "11", null));
+        indice.indexar(new Contato(5L, "Joana Souza", "22", null));
+        indice.indexar(new Contato(6L, "João Pedro Silva", "33", null));
+
+        // Act & Assert: sem acento, com partícula omitida e com erros que mudam ou não a chave fonética
+        assertEquals(List.of(4L, 6L), ids(indice.buscarAproximado("joao silva", 10)));
+        assertEquals(List.of(4L, 6L), ids(indice.buscarAproximado("Jaoo Sliva", 10)));
+        assertEquals(List.of(4L, 6L), ids(indice.buscarAproximado("joao silba", 10)));
+        assertEquals(List.of(5L), ids(indice.buscarAproximado("Sousa", 10)));
+        assertEquals(List.of(3L, 1L), ids(indice.buscarAproximado("Wayme", 10)));
+        assertTrue(indice.buscarAproximado("pedro souza", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve refletir atualização e remoção na busca aproximada")
+    void deveRefletirAtualizacaoNaBuscaAproximada() {
+        indice.indexar(new Contato(2L, "Clárk Kênt", "88888-0202", null));
+
+        assertEquals(List.of(2L), ids(indice.buscarAproximado("clark kent", 10)));
+
+        indice.remover(2L);
+
+        assertTrue(indice.buscarAproximado("clark kent", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar nome com ç digitado com s, com c ou com a cedilha")
+    void deveEncontrarNomeComCedilha() {
+        indice.indexar(new Contato(7L, "Maria Gonçalves", "44", null));
+
+        assertEquals(List.of(7L), ids(indice.buscarAproximado("gonsalves", 10)));
+        assertEquals(List.of(7L), ids(indice.buscarAproximado("goncalves", 10)));
+        assertEquals(List.of(7L), ids(indice.buscarAproximado("maria gonçalves", 10)));
+    }
+
+    @Test
+    @DisplayName("Não deve encontrar nem remover contatos de outro tenant")
+    void deveIsolarBuscaPorTenant() {
+        // Arrange: o contato 10 é do tenant acme
+        ContextoTenant.executarComo("acme",
+                () -> indice.indexar(new Contato(10L, "Diana Prince", "55555-1010", "diana@themyscira.org")));
+
+        // Act: outro tenant busca e tenta remover
+        List<Resultado> porSubstring = ContextoTenant.executarComo("globex", () -> indice.buscar("diana", null, 10));
+        List<Resultado> aproximada = ContextoTenant.executarComo("globex", () -> indice.buscarAproximado("diana prince", 10));
+        ContextoTenant.executarComo("globex", () -> indice.remover(10L));
+
+        // Assert
+        assertTrue(porSubstring.isEmpty());
+        assertTrue(aproximada.isEmpty());
+        assertTrue(indice.buscar("diana", null, 10).isEmpty(), "O tenant padrão também não deveria ver o contato");
+        assertEquals(List.of(10L), ContextoTenant.executarComo("acme", () -> ids(indice.buscar("diana", null, 10))));
+    }
+
+    private static List<Long> ids(List<Resultado> resultados) {
+        return resultados.stream().map(Resultado::id).toList();
+    }
+}
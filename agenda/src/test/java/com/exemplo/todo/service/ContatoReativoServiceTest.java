@@ -0,0 +1,53 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.entity.Contato;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContatoReativoServiceTest {
+
+    // Cursores pedidos ao "banco" de 10 contatos (ids 1 a 10)
+    private final List<Long> consultas = new ArrayList<>();
+
+    private final BiFunction<Long, Integer, Flux<Contato>> banco = (cursor, tamanho) -> {
+        consultas.add(cursor);
+        return Flux.fromStream(LongStream.rangeClosed(cursor + 1, Math.min(10, cursor + tamanho))
+                .mapToObj(id -> new Contato(id, "Contato " + id, "1199999000" + id, null, 0L)));
+    };
+
+    @Test
+    @DisplayName("Deve encadear os lotes pelo último id e parar no primeiro lote incompleto")
+    void deveEncadearLotesPorCursor() {
+        // Act & Assert
+        StepVerifier.create(ContatoReativoService.emLotes(0L, 4, banco).map(Contato::getId))
+                .expectNext(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L)
+                .verifyComplete();
+        assertEquals(List.of(0L, 4L, 8L), consultas);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o próximo lote só quando o assinante pede mais (backpressure)")
+    void deveRespeitarDemanda() {
+        // Act & Assert
+        StepVerifier.create(ContatoReativoService.emLotes(0L, 2, banco), 0)
+                .thenRequest(1)
+                .expectNextCount(1)
+                // No máximo um lote adiante do que foi consumido
+                .then(() -> assertTrue(consultas.size() <= 2, "Lotes consultados: " + consultas))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .then(() -> assertTrue(consultas.size() <= 3, "Lotes consultados: " + consultas))
+                .thenCancel()
+                .verify();
+        assertTrue(consultas.size() < 5, "Deveria parar de consultar após o cancelamento: " + consultas);
+    }
+}
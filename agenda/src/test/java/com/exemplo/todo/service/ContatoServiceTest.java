@@ -1,6 +1,8 @@
 //Biel atualizações
 package com.exemplo.todo.service;
 
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.dto.PaginaContatos;
 import com.exemplo.todo.entity.Contato;
 import com.exemplo.todo.repository.ContatoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,10 +11,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +39,18 @@ class ContatoServiceTest {
     @Mock
     private ContatoRepository repository;
 
+    @Mock
+    private ContatoIndiceBusca indice;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ChamadasCoalescidas coalescidas = new ChamadasCoalescidas(new SimpleMeterRegistry());
+
     @InjectMocks
     private ContatoService service;
 
@@ -44,8 +68,7 @@ class ContatoServiceTest {
     @DisplayName("Deve criar um novo contato com sucesso")
     void deveCriarContatoComSucesso() {
         // Arrange
-        when(repository.existsByNomeAndTelefone(contato.getNome(), contato.getTelefone())).thenReturn(false);
-        when(repository.save(contato)).thenReturn(contato);
+        when(repository.saveAndFlush(contato)).thenReturn(contato);
 
         // Act
         Contato contatoSalvo = service.criar(contato);
@@ -53,14 +76,17 @@ class ContatoServiceTest {
         // Assert
         assertNotNull(contatoSalvo);
         assertEquals("Bruce Wayne", contatoSalvo.getNome());
-        verify(repository).save(contato);
+        verify(repository).saveAndFlush(contato);
+        verify(eventos).publishEvent(new FeedAlteracoes.Alteracao(FeedAlteracoes.Tipo.CRIADO, 1L, contato));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar criar um contato duplicado")
     void deveLancarExcecaoAoCriarContatoDuplicado() {
         // Arrange
-        when(repository.existsByNomeAndTelefone(contato.getNome(), contato.getTelefone())).thenReturn(true);
+        // O insert viola a chave única (nome, telefone) normalizada
+        when(repository.saveAndFlush(contato)).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("Duplicate entry", new SQLException(), "contato.UK_CONTATO_NOME_TELEFONE")));
 
         // Act & Assert
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
@@ -69,7 +95,8 @@ class ContatoServiceTest {
 
         assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
         assertEquals("Contato com este nome e telefone já existe.", exception.getReason());
-        verify(repository, never()).save(any(Contato.class));
+        verify(indice, never()).indexar(any(Contato.class));
+        verify(eventos, never()).publishEvent(any());
     }
 
     // --- Testes para o método listarTodos() ---
@@ -107,6 +134,41 @@ class ContatoServiceTest {
         assertTrue(resultado.isEmpty());
     }
 
+    // --- Testes para o método listarPagina() ---
+
+    @Test
+    @DisplayName("Deve retornar o cursor da próxima página quando houver mais contatos")
+    void deveRetornarCursorDaProximaPagina() {
+        // Arrange
+        ContatoResumo primeiro = new ContatoResumo(1L, "Bruce Wayne", "99999-0101", "bruce@wayne.com", 0L);
+        ContatoResumo segundo = new ContatoResumo(2L, "Clark Kent", "88888-0202", "clark@dailyplanet.com", 0L);
+        ContatoResumo terceiro = new ContatoResumo(3L, "Diana Prince", "77777-0303", "diana@themyscira.com", 0L);
+        when(repository.listarResumos(0L, Limit.of(3)))
+                .thenReturn(new ArrayList<>(List.of(primeiro, segundo, terceiro)));
+
+        // Act
+        PaginaContatos pagina = service.listarPagina(null, 2);
+
+        // Assert
+        assertEquals(2, pagina.contatos().size());
+        assertEquals(2L, pagina.proximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve retornar cursor nulo na última página")
+    void deveRetornarCursorNuloNaUltimaPagina() {
+        // Arrange
+        when(repository.listarResumos(1L, Limit.of(3)))
+                .thenReturn(List.of(new ContatoResumo(2L, "Clark Kent", "88888-0202", "clark@dailyplanet.com", 0L)));
+
+        // Act
+        PaginaContatos pagina = service.listarPagina(1L, 2);
+
+        // Assert
+        assertEquals(1, pagina.contatos().size());
+        assertNull(pagina.proximoCursor());
+    }
+
     // --- Testes para o método buscarPorNomeOuEmail() ---
 
     @Test
@@ -137,6 +199,24 @@ class ContatoServiceTest {
         assertEquals("bruce@wayneenterprises.com", resultado.get(0).getEmail());
     }
 
+    @Test
+    @DisplayName("Deve buscar contatos pelo índice quando ele estiver carregado")
+    void deveBuscarContatosPeloIndice() {
+        // Arrange
+        Contato clark = new Contato(2L, "Clark Kent", "88888-0202", "clark@dailyplanet.com");
+        when(indice.isPronto()).thenReturn(true);
+        when(indice.buscar("e", ContatoIndiceBusca.Campo.NOME, Integer.MAX_VALUE)).thenReturn(List.of(
+                new ContatoIndiceBusca.Resultado(2L, 30), new ContatoIndiceBusca.Resultado(1L, 30)));
+        when(repository.findAllById(List.of(2L, 1L))).thenReturn(List.of(contato, clark));
+
+        // Act
+        List<Contato> resultado = service.buscarPorNomeOuEmail("e", null);
+
+        // Assert
+        assertEquals(List.of(clark, contato), resultado);
+        verify(repository, never()).findByNomeContainingIgnoreCase(anyString());
+    }
+
     // --- Testes para o método atualizar() ---
 
     @Test
@@ -154,7 +234,44 @@ class ContatoServiceTest {
         assertNotNull(resultado);
         assertEquals("Batman", resultado.getNome());
         assertEquals("11111-1111", resultado.getTelefone());
-        verify(repository).save(contato);
+        // Grava uma cópia com os novos dados; o objeto carregado (possivelmente do cache) não é alterado
+        verify(repository).save(contatoAtualizado);
+        assertEquals("Bruce Wayne", contato.getNome());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando a versão esperada não é a atual")
+    void deveRecusarAtualizacaoComVersaoDesatualizada() {
+        // Arrange
+        contato.setVersao(3L);
+        Contato contatoAtualizado = new Contato(1L, "Batman", "11111-1111", null);
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+
+        // Act
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> service.atualizar(1L, contatoAtualizado, 2L));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, erro.getStatusCode());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve responder conflito quando outra gravação vence a corrida até o UPDATE")
+    void deveResponderConflitoQuandoOutraGravacaoVence() {
+        // Arrange
+        contato.setVersao(3L);
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.save(any(Contato.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Contato.class, 1L));
+
+        // Act
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> service.atualizar(1L, new Contato(1L, "Batman", "11111-1111", null), 3L));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, erro.getStatusCode());
+        verify(indice, never()).indexar(any());
     }
 
     @Test
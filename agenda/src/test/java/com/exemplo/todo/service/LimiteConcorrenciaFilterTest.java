@@ -0,0 +1,56 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.LimiteConcorrenciaFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcorrenciaFilterTest {
+
+    @Test
+    @DisplayName("Deve responder 503 quando o limite de requisições simultâneas estiver esgotado")
+    void deveRejeitarQuandoLimiteEsgotado() throws Exception {
+        // Arrange
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(1, Duration.ofMillis(10));
+        MockHttpServletResponse respostaInterna = new MockHttpServletResponse();
+        AtomicInteger status = new AtomicInteger();
+        // A primeira requisição ocupa a única vaga enquanto a segunda chega
+        FilterChain ocupada = (req, res) -> {
+            MockHttpServletResponse resposta = new MockHttpServletResponse();
+            filtro.doFilter(new MockHttpServletRequest("GET", "/contatos"), resposta, new MockFilterChain());
+            status.set(resposta.getStatus());
+        };
+
+        // Act
+        filtro.doFilter(new MockHttpServletRequest("GET", "/contatos"), respostaInterna, ocupada);
+
+        // Assert
+        assertEquals(503, status.get());
+        assertEquals(200, respostaInterna.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga ao final de cada requisição")
+    void deveLiberarVagaAoFinal() throws Exception {
+        // Arrange
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(1, Duration.ZERO);
+
+        // Act
+        MockHttpServletResponse primeira = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/contatos"), primeira, new MockFilterChain());
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/contatos"), segunda, new MockFilterChain());
+
+        // Assert
+        assertEquals(200, primeira.getStatus());
+        assertEquals(200, segunda.getStatus());
+    }
+}
@@ -0,0 +1,93 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.LimiteTaxaFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteTaxaFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Uma requisição por minuto com rajada de 2: a terceira seguida é barrada
+    private final LimiteTaxaFilter filtro = new LimiteTaxaFilter(1.0 / 60, 2, new String[]{"/contatos", "/contatos/busca"}, "", registry);
+
+    @Test
+    @DisplayName("Deve responder 429 com Retry-After quando o cliente esgota a rajada")
+    void deveRejeitarAcimaDaRajada() throws Exception {
+        // Act
+        MockHttpServletResponse primeira = requisitar("10.0.0.1", "/contatos");
+        MockHttpServletResponse segunda = requisitar("10.0.0.1", "/contatos");
+        MockHttpServletResponse terceira = requisitar("10.0.0.1", "/contatos");
+
+        // Assert
+        assertEquals(200, primeira.getStatus());
+        assertEquals(200, segunda.getStatus());
+        assertEquals(429, terceira.getStatus());
+        assertEquals("60", terceira.getHeader("Retry-After"));
+        assertEquals(1, registry.counter("agenda.limite.taxa", "resultado", "rejeitada").count());
+    }
+
+    @Test
+    @DisplayName("Deve manter um balde por cliente e ignorar caminhos fora do limite")
+    void deveSepararClientesECaminhos() throws Exception {
+        // Arrange
+        requisitar("10.0.0.1", "/contatos");
+        requisitar("10.0.0.1", "/contatos");
+
+        // Act & Assert
+        assertEquals(200, requisitar("10.0.0.2", "/contatos").getStatus());
+        assertEquals(200, requisitar("10.0.0.1", "/contatos/1").getStatus());
+        assertEquals(429, requisitar("10.0.0.1", "/contatos").getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve contar no mesmo balde o caminho escrito com escape ou com ;parametros")
+    void deveNormalizarCaminho() throws Exception {
+        // Arrange
+        requisitar("10.0.0.1", "/contatos");
+        requisitar("10.0.0.1", "/contatos");
+        requisitar("10.0.0.2", "/contatos/busca");
+        requisitar("10.0.0.2", "/contatos/busca");
+
+        // Act & Assert
+        assertEquals(429, requisitar("10.0.0.1", "/contato%73").getStatus());
+        assertEquals(429, requisitar("10.0.0.1", "/contatos;x").getStatus());
+        assertEquals(429, requisitar("10.0.0.1", "/contatos;jsessionid=1").getStatus());
+        assertEquals(429, requisitar("10.0.0.2", "/contatos/busca;a").getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve identificar o cliente pelo cabeçalho configurado, com o endereço remoto como reserva")
+    void deveUsarCabecalhoDoCliente() throws Exception {
+        // Arrange: dois clientes atrás do mesmo endereço
+        LimiteTaxaFilter porCabecalho = new LimiteTaxaFilter(1.0 / 60, 1, new String[]{"/contatos"}, "X-Cliente", registry);
+
+        // Act & Assert
+        assertEquals(200, requisitar(porCabecalho, "10.0.0.1", "a", "/contatos").getStatus());
+        assertEquals(200, requisitar(porCabecalho, "10.0.0.1", "b", "/contatos").getStatus());
+        assertEquals(429, requisitar(porCabecalho, "10.0.0.1", "a", "/contatos").getStatus());
+        assertEquals(200, requisitar(porCabecalho, "10.0.0.1", null, "/contatos").getStatus());
+        assertEquals(429, requisitar(porCabecalho, "10.0.0.1", null, "/contatos").getStatus());
+    }
+
+    private MockHttpServletResponse requisitar(String cliente, String caminho) throws Exception {
+        return requisitar(filtro, cliente, null, caminho);
+    }
+
+    private static MockHttpServletResponse requisitar(LimiteTaxaFilter filtro, String cliente, String cabecalho, String caminho)
+            throws Exception {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", caminho);
+        requisicao.setRemoteAddr(cliente);
+        if (cabecalho != null) {
+            requisicao.addHeader("X-Cliente", cabecalho);
+        }
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        filtro.doFilter(requisicao, resposta, new MockFilterChain());
+        return resposta;
+    }
+}
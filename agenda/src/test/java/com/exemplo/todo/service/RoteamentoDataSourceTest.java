@@ -0,0 +1,85 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.RoteamentoDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoteamentoDataSourceTest {
+
+    @Mock
+    private DataSource primario;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection conexaoPrimario;
+
+    @Mock
+    private Connection conexaoReplica;
+
+    private RoteamentoDataSource roteamento;
+
+    @BeforeEach
+    void setUp() {
+        roteamento = new RoteamentoDataSource(primario, List.of(replica), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RoteamentoDataSource.fixarNoPrimario(false);
+    }
+
+    @Test
+    @DisplayName("Deve mandar leituras à réplica e escritas ou clientes fixados ao primário")
+    void deveRotearPorTipoDeTransacao() throws SQLException {
+        // Arrange
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+
+        // Act & Assert
+        assertSame(conexaoPrimario, roteamento.getConnection(), "Fora de transação readOnly usa o primário");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(conexaoReplica, roteamento.getConnection(), "Transação readOnly usa a réplica");
+
+        RoteamentoDataSource.fixarNoPrimario(true);
+        assertSame(conexaoPrimario, roteamento.getConnection(), "Cliente que acabou de escrever lê do primário");
+    }
+
+    @Test
+    @DisplayName("Deve cair no primário e tirar a réplica do rodízio quando ela falha")
+    void deveCairNoPrimarioQuandoReplicaFalha() throws SQLException {
+        // Arrange
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection primeira = roteamento.getConnection();
+        Connection segunda = roteamento.getConnection();
+
+        // Assert
+        assertSame(conexaoPrimario, primeira);
+        assertSame(conexaoPrimario, segunda);
+        // Durante a espera a réplica nem é tentada de novo
+        verify(replica, times(1)).getConnection();
+    }
+}
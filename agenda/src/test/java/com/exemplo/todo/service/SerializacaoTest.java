@@ -0,0 +1,37 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.SerializacaoConfig;
+import com.exemplo.todo.dto.ContatoResumo;
+import com.exemplo.todo.dto.PaginaContatos;
+import com.exemplo.todo.entity.Contato;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializacaoTest {
+
+    private final ObjectMapper reflexao = new ObjectMapper();
+    private final ObjectMapper manual = new ObjectMapper().registerModule(SerializacaoConfig.modulo());
+
+    @Test
+    @DisplayName("Deve gerar o mesmo JSON que a serialização por reflexão")
+    void deveGerarOMesmoJsonQueAReflexao() throws Exception {
+        // Arrange: nulos, acentos e caracteres que precisam de escape
+        Contato contato = new Contato(7L, "José \"Zé\" da Silva", "(11) 99999-0000", "ze@exemplo.com", 3L);
+        contato.setTenant("acme");
+        contato.setNomeNormalizado("jose \"ze\" da silva");
+        List<Object> valores = List.of(contato, new Contato(null, "Sem email", "11", null),
+                new PaginaContatos(List.of(new ContatoResumo(1L, "Ana\nMaria", "123", null, 0L),
+                        new ContatoResumo(2L, "Bruno ☕", "456", "b@exemplo.com", 2L)), 2L));
+
+        // Act & Assert
+        for (Object valor : valores) {
+            assertEquals(reflexao.writeValueAsString(valor), manual.writeValueAsString(valor));
+        }
+        assertFalse(manual.writeValueAsString(contato).contains("acme"));
+    }
+}
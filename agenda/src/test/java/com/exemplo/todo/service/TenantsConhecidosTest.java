@@ -0,0 +1,103 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Contato;
+import com.exemplo.todo.repository.ContatoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Multi-tenant com esquema próprio: as linhas do tenant "grande" ficam no esquema agenda_grande,
+// então a consulta de tenants (no esquema padrão) só devolve "padrao"
+@ExtendWith(MockitoExtension.class)
+class TenantsConhecidosTest {
+
+    @Mock
+    private ContatoRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TenantsConhecidos tenants;
+
+    // Contatos de cada tenant, como a sessão apontada para o esquema do tenant os leria
+    private final Map<String, List<Contato>> porTenant = Map.of(
+            ContextoTenant.PADRAO, List.of(new Contato(1L, "Bruce Wayne", "11999990101", null)),
+            "grande", List.of(new Contato(2L, "Diana Prince", "11888880202", null)));
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment ambiente = new MockEnvironment().withProperty("agenda.tenants.esquemas.grande", "agenda_grande");
+        tenants = new TenantsConhecidos(repository, ambiente);
+        when(repository.listarTenants()).thenReturn(List.of(ContextoTenant.PADRAO));
+    }
+
+    @Test
+    @DisplayName("Deve somar os tenants de esquema próprio aos encontrados no esquema padrão")
+    void deveSomarTenantsComEsquema() {
+        assertEquals(Set.of(ContextoTenant.PADRAO, "grande"), tenants.todos());
+    }
+
+    @Test
+    @DisplayName("Deve carregar no índice de busca os contatos dos tenants de esquema próprio")
+    void deveIndexarTenantComEsquema() {
+        // Arrange
+        ContatoIndiceBusca indice = new ContatoIndiceBusca();
+        ContatoService service = new ContatoService(repository, entityManager, indice, eventos,
+                new ChamadasCoalescidas(new SimpleMeterRegistry()), transactionManager, tenants);
+        when(repository.streamTodos()).thenAnswer(i -> porTenant.get(ContextoTenant.atual()).stream());
+
+        // Act
+        service.carregarIndice();
+
+        // Assert
+        assertTrue(indice.isPronto());
+        assertEquals(List.of(2L), ContextoTenant.executarComo("grande",
+                () -> indice.buscar("diana", null, 10).stream().map(ContatoIndiceBusca.Resultado::id).toList()));
+        assertEquals(List.of(1L), ContextoTenant.executarComo(ContextoTenant.PADRAO,
+                () -> indice.buscar("bruce", null, 10).stream().map(ContatoIndiceBusca.Resultado::id).toList()));
+    }
+
+    @Test
+    @DisplayName("Deve preencher as chaves normalizadas também nos tenants de esquema próprio")
+    void devePreencherChavesDoTenantComEsquema() {
+        // Arrange
+        List<String> percorridos = new ArrayList<>();
+        when(repository.findSemChaves(anyLong(), any(Limit.class))).thenAnswer(i -> {
+            percorridos.add(ContextoTenant.atual());
+            return porTenant.get(ContextoTenant.atual());
+        });
+
+        // Act
+        new MigracaoChavesContato(repository, tenants).preencherChaves();
+
+        // Assert
+        assertEquals(List.of("grande", ContextoTenant.PADRAO), percorridos);
+        verify(repository).preencherChaves(2L, "diana prince", "+5511888880202", null);
+    }
+}
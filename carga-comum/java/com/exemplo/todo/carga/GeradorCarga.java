@@ -0,0 +1,166 @@
+package com.exemplo.todo.carga;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições partem numa taxa fixa (carga.rps), não importa
+ * quanto o servidor demore, e a latência é medida desde o instante em que cada uma deveria ter
+ * partido. Assim uma pausa do servidor aparece nos percentis, em vez de só diminuir o número de
+ * amostras como num laço fechado de clientes. Requisições que estouram o timeout, voltam com
+ * status >= 400 ou não partem porque já há carga.max-em-voo no ar contam como erro.
+ */
+public final class GeradorCarga {
+
+    // Uma operação do mix; o peso é relativo à soma dos pesos. O timeout é posto pelo gerador
+    public record Operacao(String nome, int peso, Function<SplittableRandom, HttpRequest.Builder> requisicao) {
+    }
+
+    // Latências em milissegundos
+    public record Estatisticas(long requisicoes, long erros, double p50, double p95, double p99, double max) {
+    }
+
+    // Vazão em respostas bem-sucedidas por segundo dentro da janela medida
+    public record Resultado(String cenario, int rps, long duracaoSegundos, double vazao,
+                            Estatisticas total, Map<String, Estatisticas> porOperacao) {
+    }
+
+    private final HttpClient http;
+    private final int rps;
+    private final Duration aquecimento;
+    private final Duration duracao;
+    private final Duration timeout;
+    private final int maxEmVoo;
+
+    public GeradorCarga(HttpClient http, int rps, Duration aquecimento, Duration duracao, Duration timeout, int maxEmVoo) {
+        this.http = http;
+        this.rps = rps;
+        this.aquecimento = aquecimento;
+        this.duracao = duracao;
+        this.timeout = timeout;
+        this.maxEmVoo = maxEmVoo;
+    }
+
+    // Configuração pelas propriedades de sistema (-Dcarga.rps=... no mvn verify); a taxa padrão é a do
+    // cenário, a mesma em que a linha de base dele foi medida
+    public static GeradorCarga configurado(HttpClient http, int rpsPadrao) {
+        return new GeradorCarga(http,
+                Integer.getInteger("carga.rps", rpsPadrao),
+                DurationStyle.detectAndParse(System.getProperty("carga.aquecimento", "30s")),
+                DurationStyle.detectAndParse(System.getProperty("carga.duracao", "30s")),
+                DurationStyle.detectAndParse(System.getProperty("carga.timeout", "5s")),
+                Integer.getInteger("carga.max-em-voo", 1000));
+    }
+
+    public Resultado executar(String cenario, List<Operacao> mix) throws InterruptedException {
+        int[] acumulados = new int[mix.size()];
+        int soma = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            soma += mix.get(i).peso();
+            acumulados[i] = soma;
+        }
+        Amostras[] amostras = new Amostras[mix.size()];
+        Arrays.setAll(amostras, i -> new Amostras());
+
+        Semaphore emVoo = new Semaphore(maxEmVoo);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long periodo = 1_000_000_000L / rps;
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimento.toNanos();
+        long fim = inicioMedicao + duracao.toNanos();
+
+        for (long previsto = inicio; previsto < fim; previsto += periodo) {
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            int sorteada = Arrays.binarySearch(acumulados, aleatorio.nextInt(soma) + 1);
+            int indice = sorteada >= 0 ? sorteada : -sorteada - 1;
+            Amostras destino = previsto >= inicioMedicao ? amostras[indice] : null;
+            if (!emVoo.tryAcquire()) {
+                if (destino != null) {
+                    destino.registrar(System.nanoTime() - previsto, false);
+                }
+                continue;
+            }
+            long partida = previsto;
+            HttpRequest requisicao = mix.get(indice).requisicao().apply(aleatorio).timeout(timeout).build();
+            http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        long latencia = System.nanoTime() - partida;
+                        emVoo.release();
+                        if (destino != null) {
+                            destino.registrar(latencia, erro == null && resposta.statusCode() < 400);
+                        }
+                    });
+        }
+        // Espera as respostas que ainda estão no ar (cada uma termina no máximo no timeout)
+        if (!emVoo.tryAcquire(maxEmVoo, timeout.toSeconds() + 10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Requisições sem resposta ao fim da carga");
+        }
+
+        Map<String, Estatisticas> porOperacao = new LinkedHashMap<>();
+        Amostras total = new Amostras();
+        for (int i = 0; i < mix.size(); i++) {
+            porOperacao.put(mix.get(i).nome(), amostras[i].estatisticas());
+            total.juntar(amostras[i]);
+        }
+        Estatisticas geral = total.estatisticas();
+        double vazao = (geral.requisicoes() - geral.erros()) / (duracao.toNanos() / 1e9);
+        return new Resultado(cenario, rps, duracao.toSeconds(), vazao, geral, porOperacao);
+    }
+
+    // Latências de uma operação; as respostas chegam pelas threads do HttpClient
+    private static final class Amostras {
+
+        private long[] latencias = new long[1024];
+        private int n;
+        private long erros;
+
+        synchronized void registrar(long latencia, boolean sucesso) {
+            if (n == latencias.length) {
+                latencias = Arrays.copyOf(latencias, n * 2);
+            }
+            latencias[n++] = latencia;
+            if (!sucesso) {
+                erros++;
+            }
+        }
+
+        synchronized void juntar(Amostras outras) {
+            synchronized (outras) {
+                for (int i = 0; i < outras.n; i++) {
+                    registrar(outras.latencias[i], true);
+                }
+                erros += outras.erros;
+            }
+        }
+
+        synchronized Estatisticas estatisticas() {
+            long[] ordenadas = Arrays.copyOf(latencias, n);
+            Arrays.sort(ordenadas);
+            return new Estatisticas(n, erros, percentil(ordenadas, 0.50), percentil(ordenadas, 0.95),
+                    percentil(ordenadas, 0.99), n == 0 ? 0 : ordenadas[n - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+        }
+    }
+}
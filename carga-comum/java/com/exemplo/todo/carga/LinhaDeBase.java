@@ -0,0 +1,115 @@
+package com.exemplo.todo.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Portão de SLO dos testes de carga. Cada cenário tem em src/carga/resources/linha-de-base.properties
+ * a taxa em que foi medido, o p99 e a vazão; o cenário falha quando o p99 sobe mais que
+ * carga.tolerancia-p99 (padrão 0.5, o p99 de uma execução de 30 s varia bastante de uma para outra),
+ * quando a vazão cai mais que carga.tolerancia-vazao (padrão 0.1: com a taxa fixa, ela só cai quando o
+ * servidor deixa de dar conta) ou quando a taxa de erros passa de carga.erros-maximo (padrão 0.01).
+ * Os números dependem da máquina: depois de uma mudança esperada, ou numa máquina nova, regrave com
+ * -Dcarga.gravar-linha-de-base=true e versione o arquivo.
+ */
+final class LinhaDeBase {
+
+    private static final String CABECALHO = """
+            # Linha de base dos testes de carga (mvn -Pcarga verify), por cenário: rps em que foi medida,
+            # p99 em ms e vazão em respostas bem-sucedidas por segundo. Regravada com -Dcarga.gravar-linha-de-base=true
+            """;
+
+    private LinhaDeBase() {
+    }
+
+    // Grava o relatório do cenário e devolve as violações de SLO (vazia quando passou)
+    static List<String> verificar(GeradorCarga.Resultado resultado) throws IOException {
+        relatar(resultado);
+        Path arquivo = Path.of(System.getProperty("carga.linha-de-base", "src/carga/resources/linha-de-base.properties"));
+        Properties base = new Properties();
+        if (Files.exists(arquivo)) {
+            try (Reader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                base.load(leitor);
+            }
+        }
+        if (Boolean.getBoolean("carga.gravar-linha-de-base")) {
+            gravar(arquivo, base, resultado);
+            return List.of();
+        }
+
+        String cenario = resultado.cenario();
+        GeradorCarga.Estatisticas total = resultado.total();
+        List<String> violacoes = new ArrayList<>();
+        double errosMaximo = Double.parseDouble(System.getProperty("carga.erros-maximo", "0.01"));
+        if (total.requisicoes() == 0 || total.erros() > errosMaximo * total.requisicoes()) {
+            violacoes.add("%s: %d erros em %d requisições".formatted(cenario, total.erros(), total.requisicoes()));
+        }
+        String rps = base.getProperty(cenario + ".rps");
+        if (rps == null) {
+            System.out.printf("[carga] %s sem linha de base em %s; só a taxa de erros foi verificada%n", cenario, arquivo);
+            return violacoes;
+        }
+        // p99 e vazão só são comparáveis na mesma carga oferecida
+        if (Integer.parseInt(rps) != resultado.rps()) {
+            violacoes.add("%s: linha de base medida a %s rps, execução a %d rps (use -Dcarga.rps=%s ou regrave)"
+                    .formatted(cenario, rps, resultado.rps(), rps));
+            return violacoes;
+        }
+        double toleranciaP99 = Double.parseDouble(System.getProperty("carga.tolerancia-p99", "0.5"));
+        double toleranciaVazao = Double.parseDouble(System.getProperty("carga.tolerancia-vazao", "0.1"));
+        double p99Base = Double.parseDouble(base.getProperty(cenario + ".p99-ms"));
+        double vazaoBase = Double.parseDouble(base.getProperty(cenario + ".vazao"));
+        if (total.p99() > p99Base * (1 + toleranciaP99)) {
+            violacoes.add("%s: p99 %.2f ms acima da linha de base %.2f ms (+%.0f%%)"
+                    .formatted(cenario, total.p99(), p99Base, toleranciaP99 * 100));
+        }
+        if (resultado.vazao() < vazaoBase * (1 - toleranciaVazao)) {
+            violacoes.add("%s: vazão %.1f req/s abaixo da linha de base %.1f req/s (-%.0f%%)"
+                    .formatted(cenario, resultado.vazao(), vazaoBase, toleranciaVazao * 100));
+        }
+        return violacoes;
+    }
+
+    // Resumo no console e JSON completo (com os percentis por operação) em target/carga
+    private static void relatar(GeradorCarga.Resultado resultado) throws IOException {
+        GeradorCarga.Estatisticas total = resultado.total();
+        System.out.printf("[carga] %s: rps=%d requisicoes=%d erros=%d vazao=%.1f req/s p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                resultado.cenario(), resultado.rps(), total.requisicoes(), total.erros(), resultado.vazao(),
+                total.p50(), total.p95(), total.p99(), total.max());
+        resultado.porOperacao().forEach((operacao, estatisticas) ->
+                System.out.printf("[carga]   %-12s requisicoes=%d erros=%d p50=%.2f ms p99=%.2f ms%n", operacao,
+                        estatisticas.requisicoes(), estatisticas.erros(), estatisticas.p50(), estatisticas.p99()));
+        Path relatorios = Path.of(System.getProperty("carga.relatorios", "target/carga"));
+        Files.createDirectories(relatorios);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(relatorios.resolve(resultado.cenario() + ".json").toFile(), resultado);
+    }
+
+    // Escrito à mão para manter as chaves ordenadas e sem a data que o Properties.store põe
+    private static void gravar(Path arquivo, Properties base, GeradorCarga.Resultado resultado) throws IOException {
+        String cenario = resultado.cenario();
+        base.setProperty(cenario + ".rps", String.valueOf(resultado.rps()));
+        base.setProperty(cenario + ".p99-ms", String.format(Locale.ROOT, "%.2f", resultado.total().p99()));
+        base.setProperty(cenario + ".vazao", String.format(Locale.ROOT, "%.1f", resultado.vazao()));
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        try (Writer escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escritor.write(CABECALHO);
+            for (String chave : new TreeSet<>(base.stringPropertyNames())) {
+                escritor.write(chave + "=" + base.getProperty(chave) + "\n");
+            }
+        }
+        System.out.printf("[carga] linha de base de %s gravada em %s%n", cenario, arquivo);
+    }
+}
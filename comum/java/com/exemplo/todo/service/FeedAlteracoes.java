@@ -0,0 +1,260 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import jakarta.annotation.PreDestroy;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed em memória das alterações (contatos na agenda, tasks no todo-list), publicado depois do
+ * commit de cada transação. Os últimos eventos ficam em um buffer circular de tamanho fixo; um
+ * cliente que reconecta informa o último offset recebido (Last-Event-ID) e recebe só o que perdeu.
+ * Se o offset já saiu do buffer, recebe um evento "resync" e deve recarregar a listagem.
+ * Cada tenant tem o seu buffer e a sua sequência de offsets: um inscrito só recebe os eventos
+ * do seu tenant, não vê pelos offsets a atividade dos outros e não perde eventos porque outro
+ * tenant gravou muito.
+ * Cada inscrito tem a sua fila, de no máximo pendentesPorInscrito eventos, esvaziada por uma
+ * tarefa só dele: o commit só enfileira, e um cliente que parou de ler segura apenas a sua
+ * própria thread de envio. Se a fila enche, o inscrito recebe "resync" e a conexão é encerrada;
+ * ao reconectar, recebe o que perdeu ou recarrega a listagem.
+ * Código comum aos dois projetos (comum/java); cada um cria o bean com as suas propriedades.
+ */
+public class FeedAlteracoes {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedAlteracoes.class);
+
+    public enum Tipo {
+        CRIADO, ATUALIZADO, EXCLUIDO, LOTE
+    }
+
+    // Publicada pelos serviços; dados deve ser um retrato imutável (ou cópia) da entidade
+    public record Alteracao(Tipo tipo, Long id, Object dados) {
+    }
+
+    // O tenant não vai no JSON: o inscrito já sabe qual é o seu
+    public record Evento(long offset, Tipo tipo, Long id, Object dados, Instant instante, @JsonIgnore String tenant) {
+    }
+
+    // Últimos eventos e próximo offset de um tenant; o buffer cresce até a capacidade conforme o uso
+    private static final class Canal {
+        private final ArrayDeque<Evento> eventos = new ArrayDeque<>();
+        private long proximoOffset = 1;
+    }
+
+    private final int capacidade;
+    private final int pendentesPorInscrito;
+    private final long timeoutMillis;
+    private final List<Inscricao> inscritos = new CopyOnWriteArrayList<>();
+    // No máximo uma tarefa por inscrito com eventos a enviar; as threads ociosas saem depois de um minuto
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ExecutorService envio = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "feed-alteracoes-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Protegido pela trava do feed (this)
+    private final Map<String, Canal> canais = new HashMap<>();
+
+    public FeedAlteracoes(int capacidade, int pendentesPorInscrito, Duration timeout) {
+        this.capacidade = capacidade;
+        this.pendentesPorInscrito = pendentesPorInscrito;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    // Roda na thread de quem gravou, logo depois do commit: o tenant atual é o dono da alteração.
+    // Só enfileira, nunca espera um envio
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterar(Alteracao alteracao) {
+        synchronized (this) {
+            Canal canal = canais.computeIfAbsent(ContextoTenant.atual(), tenant -> new Canal());
+            Evento evento = new Evento(canal.proximoOffset++, alteracao.tipo(), alteracao.id(), alteracao.dados(),
+                    Instant.now(), ContextoTenant.atual());
+            if (canal.eventos.size() == capacidade) {
+                canal.eventos.removeFirst();
+            }
+            canal.eventos.addLast(evento);
+            // Enfileirado ainda com a trava: a fila de cada inscrito segue a ordem dos offsets
+            for (Inscricao inscricao : inscritos) {
+                if (inscricao.tenant.equals(evento.tenant())) {
+                    inscricao.oferecer(List.of(evento));
+                }
+            }
+        }
+    }
+
+    // Eventos do tenant com offset maior que o informado, ou null se parte deles já saiu do buffer
+    public synchronized List<Evento> eventosDesde(String tenant, long offset) {
+        return eventosDesde(tenant, offset, proximoOffset(tenant));
+    }
+
+    // Só os offsets menores que "ate"
+    private synchronized List<Evento> eventosDesde(String tenant, long offset, long ate) {
+        Canal canal = canais.get(tenant);
+        long maisAntigo = canal == null ? 1 : canal.proximoOffset - canal.eventos.size();
+        // Offset no futuro acontece quando o servidor reiniciou e o buffer recomeçou
+        if (offset + 1 < maisAntigo || offset >= ate) {
+            return null;
+        }
+        List<Evento> eventos = new ArrayList<>((int) (ate - offset - 1));
+        if (canal != null) {
+            for (Evento evento : canal.eventos) {
+                if (evento.offset() > offset && evento.offset() < ate) {
+                    eventos.add(evento);
+                }
+            }
+        }
+        return eventos;
+    }
+
+    private long proximoOffset(String tenant) {
+        Canal canal = canais.get(tenant);
+        return canal == null ? 1 : canal.proximoOffset;
+    }
+
+    // Inscreve no feed do tenant atual
+    public SseEmitter inscrever(Long desde) {
+        return inscrever(desde, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter inscrever(Long desde, SseEmitter emissor) {
+        Inscricao inscricao = new Inscricao(ContextoTenant.atual(), emissor);
+        emissor.onCompletion(() -> inscritos.remove(inscricao));
+        emissor.onTimeout(emissor::complete);
+        emissor.onError(erro -> inscritos.remove(inscricao));
+        // Reenvio e inscrição com a trava do feed, para não perder nem duplicar: os perdidos entram na
+        // fila do inscrito antes de qualquer evento novo, e os novos só chegam a ele depois da inscrição
+        synchronized (this) {
+            if (desde != null) {
+                List<Evento> perdidos = eventosDesde(inscricao.tenant, desde, proximoOffset(inscricao.tenant));
+                if (perdidos == null) {
+                    inscricao.pedirResync();
+                } else {
+                    inscricao.oferecer(perdidos);
+                }
+            }
+            inscritos.add(inscricao);
+        }
+        return emissor;
+    }
+
+    /**
+     * Um inscrito e a sua fila de envio. Quem enfileira nunca espera: se nenhuma tarefa está
+     * enviando para este inscrito, agenda uma, que envia até a fila esvaziar.
+     */
+    private final class Inscricao {
+
+        private final String tenant;
+        private final SseEmitter emissor;
+        // Protegidos pela trava da inscrição (this)
+        private final ArrayDeque<Evento> pendentes = new ArrayDeque<>();
+        private boolean resync;
+        private boolean atrasado;
+        private boolean enviando;
+
+        Inscricao(String tenant, SseEmitter emissor) {
+            this.tenant = tenant;
+            this.emissor = emissor;
+        }
+
+        synchronized void oferecer(List<Evento> eventos) {
+            if (atrasado) {
+                return;
+            }
+            if (pendentes.size() + eventos.size() > pendentesPorInscrito) {
+                // Parou de ler (ou lê devagar demais): descarta a fila e encerra depois do "resync"
+                atrasado = true;
+                pendentes.clear();
+            } else {
+                pendentes.addAll(eventos);
+            }
+            agendar();
+        }
+
+        synchronized void pedirResync() {
+            resync = true;
+            agendar();
+        }
+
+        private void agendar() {
+            if (enviando) {
+                return;
+            }
+            enviando = true;
+            try {
+                envio.execute(this::esvaziar);
+            } catch (RejectedExecutionException e) {
+                // Feed encerrado
+                enviando = false;
+            }
+        }
+
+        private void esvaziar() {
+            while (true) {
+                Evento evento;
+                boolean enviarResync;
+                boolean encerrar;
+                synchronized (this) {
+                    encerrar = atrasado;
+                    enviarResync = resync;
+                    resync = false;
+                    evento = encerrar || enviarResync ? null : pendentes.pollFirst();
+                    if (!encerrar && !enviarResync && evento == null) {
+                        enviando = false;
+                        return;
+                    }
+                }
+                if (encerrar) {
+                    // enviando fica true: nada mais é agendado para este inscrito
+                    log.debug("Inscrito do feed do tenant {} ficou para trás; pedindo resync e encerrando", tenant);
+                    inscritos.remove(this);
+                    if (enviar(SseEmitter.event().name("resync").data("Fila de envio cheia; reconecte e recarregue a listagem."))) {
+                        emissor.complete();
+                    }
+                    return;
+                }
+                boolean enviado = enviarResync
+                        ? enviar(SseEmitter.event().name("resync").data("Offset fora do buffer; recarregue a listagem."))
+                        : enviar(SseEmitter.event().id(String.valueOf(evento.offset())).name(evento.tipo().name()).data(evento));
+                if (!enviado) {
+                    return;
+                }
+            }
+        }
+
+        private boolean enviar(SseEmitter.SseEventBuilder evento) {
+            try {
+                emissor.send(evento);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Inscrito do feed desconectado: {}", e.getMessage());
+                inscritos.remove(this);
+                emissor.completeWithError(e);
+                return false;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdownNow();
+        inscritos.forEach(inscricao -> inscricao.emissor.complete());
+    }
+}
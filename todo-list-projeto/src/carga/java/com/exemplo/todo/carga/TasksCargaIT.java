@@ -0,0 +1,119 @@
+package com.exemplo.todo.carga;
+
+import com.exemplo.todo.TodoListApplication;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga mista em /tasks (páginas, filtro por situação e prefixo, leitura por id, criação e
+ * conclusão) contra a aplicação inteira, com servidor web, num H2 em memória próprio. Outro banco
+ * com -Dcarga.banco.url=jdbc:... [-Dcarga.banco.usuario -Dcarga.banco.senha].
+ *
+ * <pre>
+ * mvn -Pcarga verify [-Dcarga.rps=20 -Dcarga.duracao=30s -Dcarga.aquecimento=30s -Dcarga.registros=10000]
+ * </pre>
+ */
+class TasksCargaIT {
+
+    private static final String[] VERBOS = {"Revisar", "Comprar", "Ligar", "Estudar", "Pagar", "Enviar",
+            "Agendar", "Organizar", "Responder", "Planejar"};
+
+    private static ConfigurableApplicationContext contexto;
+    private static HttpClient http;
+    private static String base;
+    private static long[] ids;
+
+    @BeforeAll
+    static void iniciar() {
+        contexto = new SpringApplicationBuilder(TodoListApplication.class).run(argumentos());
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        // O Tomcat não tem h2c ligado: HTTP/1.1 evita a tentativa de upgrade em cada conexão nova
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        semear(Integer.getInteger("carga.registros", 10_000));
+    }
+
+    @AfterAll
+    static void encerrar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    // Passados como argumentos para terem precedência sobre o application.properties
+    private static String[] argumentos() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.h2.console.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        String url = System.getProperty("carga.banco.url");
+        argumentos.add("--spring.datasource.url=" + (url != null ? url : "jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1"));
+        if (url != null) {
+            argumentos.add("--spring.datasource.username=" + System.getProperty("carga.banco.usuario", "sa"));
+            argumentos.add("--spring.datasource.password=" + System.getProperty("carga.banco.senha", ""));
+        }
+        return argumentos.toArray(String[]::new);
+    }
+
+    // Direto pelo repositório: criar dez mil tasks uma a uma pelo POST só atrasaria a subida
+    private static void semear(int registros) {
+        List<Task> tasks = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            Task task = new Task();
+            task.setTitulo(VERBOS[i % VERBOS.length] + " item " + i);
+            task.setConcluida(i % 3 == 0);
+            tasks.add(task);
+        }
+        ids = contexto.getBean(TaskRepository.class).saveAll(tasks).stream().mapToLong(Task::getId).toArray();
+        assertTrue(ids.length > 0, "Nenhuma task semeada");
+    }
+
+    @Test
+    @DisplayName("Carga mista em /tasks deve ficar dentro da linha de base de p99 e vazão")
+    void cargaMista() throws Exception {
+        AtomicInteger novas = new AtomicInteger();
+        List<GeradorCarga.Operacao> mix = List.of(
+                new GeradorCarga.Operacao("pagina", 35, aleatorio -> get("/tasks?tamanho=50&cursor=" + sortear(aleatorio))),
+                new GeradorCarga.Operacao("filtro", 15, aleatorio -> get("/tasks?concluida=false&tamanho=20&prefixo="
+                        + URLEncoder.encode(VERBOS[aleatorio.nextInt(VERBOS.length)], StandardCharsets.UTF_8))),
+                new GeradorCarga.Operacao("porId", 25, aleatorio -> get("/tasks/" + sortear(aleatorio))),
+                new GeradorCarga.Operacao("criar", 15, aleatorio -> HttpRequest.newBuilder(URI.create(base
+                        + "/tasks?titulo=Nova%20task%20" + novas.incrementAndGet()))
+                        .POST(HttpRequest.BodyPublishers.noBody())),
+                new GeradorCarga.Operacao("concluir", 10, aleatorio -> HttpRequest.newBuilder(URI.create(base
+                        + "/tasks/" + sortear(aleatorio) + "/concluir"))
+                        .PUT(HttpRequest.BodyPublishers.noBody())));
+
+        GeradorCarga.Resultado resultado = GeradorCarga.configurado(http, 20).executar("tasks", mix);
+
+        List<String> violacoes = LinhaDeBase.verificar(resultado);
+        assertTrue(violacoes.isEmpty(), String.join("\n", violacoes));
+    }
+
+    private static long sortear(SplittableRandom aleatorio) {
+        return ids[aleatorio.nextInt(ids.length)];
+    }
+
+    private static HttpRequest.Builder get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho));
+    }
+}
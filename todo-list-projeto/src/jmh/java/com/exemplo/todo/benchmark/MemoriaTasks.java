@@ -0,0 +1,97 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import com.exemplo.todo.repository.TaskRepositoryCompacto;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap ocupado por N tasks em cada forma de guardá-las: armazenamento compacto, H2 em memória
+ * via JPA e uma lista de objetos Task (o que um cache ingênuo guardaria). Rodar um modo por JVM:
+ *
+ * <pre>
+ * java -Xmx2g -cp ... com.exemplo.todo.benchmark.MemoriaTasks compacto 1000000
+ * </pre>
+ */
+public final class MemoriaTasks {
+
+    private MemoriaTasks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String modo = args.length > 0 ? args[0] : "compacto";
+        int quantidade = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        ConfigurableApplicationContext contexto = modo.equals("jpa") ? ContextoBenchmark.iniciar("memoria") : null;
+        long antes = heapUsado();
+        long inicio = System.nanoTime();
+        Object retido = switch (modo) {
+            case "compacto" -> preencherCompacto(quantidade);
+            case "jpa" -> preencherJpa(contexto.getBean(TaskRepository.class), quantidade);
+            case "objetos" -> preencherObjetos(quantidade);
+            default -> throw new IllegalArgumentException("Modo desconhecido: " + modo);
+        };
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long depois = heapUsado();
+        System.out.printf("modo=%s tasks=%d heap=%.1f MB bytes/task=%.1f carga=%.1f s%n",
+                modo, quantidade, (depois - antes) / 1048576.0, (depois - antes) / (double) quantidade, segundos);
+        // Mantém o que foi medido vivo até a segunda medição
+        Reference.reachabilityFence(retido);
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    private static Object preencherCompacto(int quantidade) throws Exception {
+        Path pasta = Files.createTempDirectory("tasks-compacto");
+        TaskRepositoryCompacto repository = new TaskRepositoryCompacto(pasta.resolve("tasks.log"), false);
+        for (int i = 0; i < quantidade; i++) {
+            repository.save(tarefa(i));
+        }
+        System.out.printf("colunas=%.1f MB%n", repository.bytesOcupados() / 1048576.0);
+        return repository;
+    }
+
+    private static Object preencherJpa(TaskRepository repository, int quantidade) {
+        List<Task> bloco = new ArrayList<>(10_000);
+        for (int i = 0; i < quantidade; i++) {
+            bloco.add(tarefa(i));
+            if (bloco.size() == 10_000) {
+                repository.saveAll(bloco);
+                bloco.clear();
+            }
+        }
+        repository.saveAll(bloco);
+        return repository;
+    }
+
+    private static Object preencherObjetos(int quantidade) {
+        List<Task> tasks = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Task task = tarefa(i);
+            task.setId((long) i + 1);
+            task.setVersao(0L);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static Task tarefa(int i) {
+        return new Task(null, "Revisar relatório " + i, i % 3 == 0);
+    }
+
+    private static long heapUsado() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,64 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.config.SerializacaoConfig;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reflexão (BeanSerializer) contra os serializadores de SerializacaoConfig. Alocação por operação
+// com -Djmh.args="-prof gc" (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Como o ObjectMapper da aplicação, que recebe o módulo pelo bean
+    private final ObjectMapper objectMapperManual = new ObjectMapper().registerModule(SerializacaoConfig.modulo());
+    private List<Task> tasks;
+    private List<TaskResumo> resumos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        tasks = new ArrayList<>(tamanho);
+        resumos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            tasks.add(new Task((long) i, "Task " + i, i % 3 == 0, (long) i % 5));
+            resumos.add(new TaskResumo((long) i, "Task " + i, i % 3 == 0));
+        }
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), tasks);
+    }
+
+    @Benchmark
+    public void serializarListaManual() throws IOException {
+        objectMapperManual.writeValue(OutputStream.nullOutputStream(), tasks);
+    }
+
+    // O corpo de GET /tasks
+    @Benchmark
+    public void serializarResumos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), resumos);
+    }
+
+    @Benchmark
+    public void serializarResumosManual() throws IOException {
+        objectMapperManual.writeValue(OutputStream.nullOutputStream(), resumos);
+    }
+}
@@ -0,0 +1,52 @@
+package com.exemplo.todo.benchmark;
+
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import com.exemplo.todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tamanho;
+
+    private ConfigurableApplicationContext contexto;
+    private TaskService service;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("tasks" + tamanho);
+        service = contexto.getBean(TaskService.class);
+        TaskRepository repository = contexto.getBean(TaskRepository.class);
+        List<Task> lote = new ArrayList<>(1000);
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(new Task(null, "Task " + i, i % 3 == 0));
+            if (lote.size() == 1000) {
+                repository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        repository.saveAll(lote);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Task> listarTodas() {
+        return service.listarTodas();
+    }
+}
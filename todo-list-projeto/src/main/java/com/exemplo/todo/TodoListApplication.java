@@ -2,8 +2,13 @@ package com.exemplo.todo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+// Tarefas periódicas: arquivamento das tasks concluídas (ArquivamentoTasks)
+@EnableScheduling
 public class TodoListApplication {
     public static void main(String[] args) {
         SpringApplication.run(TodoListApplication.class, args);
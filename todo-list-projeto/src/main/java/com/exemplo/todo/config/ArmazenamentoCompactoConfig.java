@@ -0,0 +1,45 @@
+package com.exemplo.todo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Com o armazenamento compacto não há banco nem DataSource. O gerenciador de transações abaixo
+ * só mantém a semântica de @Transactional para o resto da aplicação (sincronizações e eventos
+ * AFTER_COMMIT do feed); cada operação do TaskRepositoryCompacto já é atômica sob a sua trava,
+ * mas um rollback não desfaz o que foi gravado antes dele.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "todo.armazenamento", havingValue = "compacto")
+public class ArmazenamentoCompactoConfig {
+
+    @Bean
+    PlatformTransactionManager transactionManager() {
+        return new TransacoesEmMemoria();
+    }
+
+    static final class TransacoesEmMemoria extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transacao, TransactionDefinition definicao) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
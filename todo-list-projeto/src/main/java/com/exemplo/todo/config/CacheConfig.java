@@ -0,0 +1,57 @@
+package com.exemplo.todo.config;
+
+import com.exemplo.todo.entity.Task;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache "tasks" (Caffeine, configurado em spring.cache.*) que guarda cópias: o que entra é
+ * copiado e cada leitura recebe a sua própria instância. Task é uma entidade mutável; uma
+ * instância compartilhada alterada por uma requisição apareceria nas outras, mesmo que a
+ * gravação depois falhasse.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties propriedades) {
+        CaffeineCacheManager gerenciador = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String nome, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new CacheDeCopias(nome, cache, isAllowNullValues());
+            }
+        };
+        gerenciador.setCacheSpecification(propriedades.getCaffeine().getSpec());
+        gerenciador.setCacheNames(propriedades.getCacheNames());
+        return gerenciador;
+    }
+
+    // Continua sendo um CaffeineCache, então as métricas cache.* seguem registradas
+    static final class CacheDeCopias extends CaffeineCache {
+
+        CacheDeCopias(String nome, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean permitirNulos) {
+            super(nome, cache, permitirNulos);
+        }
+
+        @Override
+        protected Object toStoreValue(Object valor) {
+            return super.toStoreValue(copiar(valor));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object valor) {
+            return copiar(super.fromStoreValue(valor));
+        }
+
+        private static Object copiar(Object valor) {
+            return valor instanceof Task task ? task.copiar() : valor;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.exemplo.todo.config;
+
+import com.exemplo.todo.service.FeedAlteracoes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// FeedAlteracoes é comum aos dois projetos (comum/java); as propriedades são as deste
+@Configuration(proxyBeanMethods = false)
+public class FeedConfig {
+
+    @Bean
+    FeedAlteracoes feedAlteracoes(@Value("${todo.feed.capacidade:10000}") int capacidade,
+                                  @Value("${todo.feed.pendentes-por-inscrito:1000}") int pendentesPorInscrito,
+                                  @Value("${todo.feed.timeout:30m}") Duration timeout) {
+        return new FeedAlteracoes(capacidade, pendentesPorInscrito, timeout);
+    }
+}
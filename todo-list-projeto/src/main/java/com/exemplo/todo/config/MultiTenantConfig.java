@@ -0,0 +1,159 @@
+package com.exemplo.todo.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Multi-tenant por coluna: as entidades com @TenantId recebem o tenant atual no insert e todas
+ * as consultas JPQL/Criteria ganham "tenant = ?" automaticamente. Tenants listados em
+ * todo.tenants.esquemas (tenant=esquema) ficam, além disso, num esquema próprio: a conexão
+ * da sessão é apontada para ele, então as tabelas e índices desse tenant só têm as suas linhas.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MultiTenantConfig {
+
+    // Sem DataSource no armazenamento compacto; lá o Hibernate nem sobe e este customizador não é usado
+    @Bean
+    HibernatePropertiesCustomizer multiTenant(ObjectProvider<DataSource> dataSource, Environment ambiente) {
+        Map<String, String> esquemas = Binder.get(ambiente)
+                .bind("todo.tenants.esquemas", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        return propriedades -> {
+            propriedades.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new ResolvedorTenant());
+            if (!esquemas.isEmpty()) {
+                propriedades.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, new ConexoesPorTenant(dataSource.getObject(), esquemas));
+            }
+        };
+    }
+
+    // Corpos em streaming e @Async rodam no executor da aplicação, que não herda o tenant da requisição
+    @Bean
+    TaskDecorator propagarTenant() {
+        return tarefa -> {
+            String tenant = ContextoTenant.atual();
+            return () -> ContextoTenant.executarComo(tenant, tarefa);
+        };
+    }
+
+    static final class ResolvedorTenant implements CurrentTenantIdentifierResolver<String> {
+
+        @Override
+        public String resolveCurrentTenantIdentifier() {
+            return ContextoTenant.atual();
+        }
+
+        // A sessão do OpenEntityManagerInView é aberta depois do TenantFilter e não muda de tenant
+        @Override
+        public boolean validateExistingCurrentSessions() {
+            return false;
+        }
+    }
+
+    /**
+     * Conexões do mesmo pool, com o esquema trocado para os tenants que têm esquema próprio e
+     * devolvido ao padrão antes de a conexão voltar ao pool (o Hikari só restaura o esquema
+     * quando ele está configurado no pool). Com réplicas ligadas, a troca de esquema abre a
+     * conexão física antes de a transação se marcar readOnly, então tenants com esquema
+     * próprio leem do primário.
+     */
+    static final class ConexoesPorTenant implements MultiTenantConnectionProvider<String> {
+
+        // No MySQL o "esquema" é o catálogo (USE esquema); nos outros bancos, o schema
+        private record Modo(boolean usaSchema, String padrao) {
+        }
+
+        private final DataSource dataSource;
+        private final Map<String, String> esquemas;
+        // Descoberto na primeira conexão; perguntar a cada uma obrigaria o LazyConnectionDataSourceProxy
+        // a abrir a conexão física de todos os tenants antes do readOnly da transação
+        private volatile Modo modo;
+
+        ConexoesPorTenant(DataSource dataSource, Map<String, String> esquemas) {
+            this.dataSource = dataSource;
+            this.esquemas = Map.copyOf(esquemas);
+        }
+
+        @Override
+        public Connection getAnyConnection() throws SQLException {
+            return dataSource.getConnection();
+        }
+
+        @Override
+        public void releaseAnyConnection(Connection conexao) throws SQLException {
+            conexao.close();
+        }
+
+        @Override
+        public Connection getConnection(String tenant) throws SQLException {
+            Connection conexao = dataSource.getConnection();
+            String esquema = esquemas.get(tenant);
+            if (esquema != null) {
+                try {
+                    apontar(conexao, esquema);
+                } catch (SQLException e) {
+                    conexao.close();
+                    throw e;
+                }
+            }
+            return conexao;
+        }
+
+        @Override
+        public void releaseConnection(String tenant, Connection conexao) throws SQLException {
+            try {
+                if (esquemas.containsKey(tenant)) {
+                    apontar(conexao, modo().padrao());
+                }
+            } finally {
+                conexao.close();
+            }
+        }
+
+        private void apontar(Connection conexao, String esquema) throws SQLException {
+            if (modo().usaSchema()) {
+                conexao.setSchema(esquema);
+            } else {
+                conexao.setCatalog(esquema);
+            }
+        }
+
+        private Modo modo() throws SQLException {
+            if (modo == null) {
+                try (Connection conexao = dataSource.getConnection()) {
+                    boolean usaSchema = conexao.getMetaData().supportsSchemasInDataManipulation();
+                    modo = new Modo(usaSchema, usaSchema ? conexao.getSchema() : conexao.getCatalog());
+                }
+            }
+            return modo;
+        }
+
+        @Override
+        public boolean supportsAggressiveRelease() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnwrappableAs(Class<?> tipo) {
+            return tipo.isInstance(this);
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> tipo) {
+            return tipo.cast(this);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.exemplo.todo.config;
+
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Serializadores escritos à mão para Task e TaskResumo, os tipos das respostas de listagem. O
+ * BeanSerializer do Jackson percorre as propriedades por reflexão (getter, checagem de nulo e
+ * inclusão a cada campo); aqui os nomes já vêm codificados em UTF-8 (SerializedString) e os
+ * valores vão direto para o gerador, que escreve no buffer da resposta. O JSON é o mesmo que o
+ * da reflexão: mesmos campos, mesma ordem, nulos incluídos.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SerializacaoConfig {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITULO = new SerializedString("titulo");
+    private static final SerializableString CONCLUIDA = new SerializedString("concluida");
+    private static final SerializableString VERSAO = new SerializedString("versao");
+
+    // O Boot registra todo bean Module no ObjectMapper da aplicação
+    @Bean
+    Module serializacaoTasks() {
+        return modulo();
+    }
+
+    // Também usado direto por quem monta o próprio ObjectMapper (benchmarks, testes)
+    public static SimpleModule modulo() {
+        return new SimpleModule("serializacao-tasks")
+                .addSerializer(Task.class, new TaskSerializer())
+                .addSerializer(TaskResumo.class, new TaskResumoSerializer());
+    }
+
+    static final class TaskSerializer extends StdSerializer<Task> {
+
+        TaskSerializer() {
+            super(Task.class);
+        }
+
+        // O tenant fica de fora, como o @JsonIgnore da entidade
+        @Override
+        public void serialize(Task task, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(task);
+            numero(gerador, ID, task.getId());
+            texto(gerador, TITULO, task.getTitulo());
+            gerador.writeFieldName(CONCLUIDA);
+            gerador.writeBoolean(task.isConcluida());
+            numero(gerador, VERSAO, task.getVersao());
+            gerador.writeEndObject();
+        }
+    }
+
+    static final class TaskResumoSerializer extends StdSerializer<TaskResumo> {
+
+        TaskResumoSerializer() {
+            super(TaskResumo.class);
+        }
+
+        @Override
+        public void serialize(TaskResumo task, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeStartObject(task);
+            numero(gerador, ID, task.id());
+            texto(gerador, TITULO, task.titulo());
+            gerador.writeFieldName(CONCLUIDA);
+            gerador.writeBoolean(task.concluida());
+            gerador.writeEndObject();
+        }
+    }
+
+    private static void numero(JsonGenerator gerador, SerializableString nome, Long valor) throws IOException {
+        gerador.writeFieldName(nome);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor.longValue());
+        }
+    }
+
+    private static void texto(JsonGenerator gerador, SerializableString nome, String valor) throws IOException {
+        gerador.writeFieldName(nome);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(valor);
+        }
+    }
+}
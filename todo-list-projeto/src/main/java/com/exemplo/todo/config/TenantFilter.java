@@ -0,0 +1,47 @@
+package com.exemplo.todo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolve o tenant da requisição pelo cabeçalho X-Tenant (sem ele, o tenant padrão). O valor
+ * é confiado a quem está na frente da aplicação (gateway ou proxy autenticado), que deve
+ * sobrescrever o cabeçalho vindo do cliente. Roda antes dos outros filtros e do
+ * OpenEntityManagerInView, que abre a sessão do Hibernate já com o tenant certo.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Tenant";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(CABECALHO);
+        if (tenant == null || tenant.isEmpty()) {
+            tenant = ContextoTenant.PADRAO;
+        } else if (!ContextoTenant.valido(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "X-Tenant inválido.");
+            return;
+        }
+        // Respostas de tenants diferentes na mesma URL não podem ser trocadas por um cache no caminho
+        response.addHeader(HttpHeaders.VARY, CABECALHO);
+        String anterior = ContextoTenant.trocar(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoTenant.restaurar(anterior);
+        }
+    }
+}
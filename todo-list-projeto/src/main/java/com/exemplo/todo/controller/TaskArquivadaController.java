@@ -0,0 +1,40 @@
+package com.exemplo.todo.controller;
+
+import com.exemplo.todo.dto.PaginaTasksArquivadas;
+import com.exemplo.todo.entity.TaskArquivada;
+import com.exemplo.todo.service.TaskArquivadaService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Caminho de leitura separado para as tasks arquivadas; a listagem de /tasks só enxerga a tabela quente
+@RestController
+@RequestMapping("/tasks/arquivadas")
+@ConditionalOnProperty(name = "todo.armazenamento", havingValue = "jpa", matchIfMissing = true)
+public class TaskArquivadaController {
+
+    private final TaskArquivadaService service;
+
+    public TaskArquivadaController(TaskArquivadaService service) {
+        this.service = service;
+    }
+
+    // A próxima página vem no cabeçalho X-Proximo-Cursor, como em GET /tasks
+    @GetMapping
+    public ResponseEntity<List<TaskArquivada>> listar(@RequestParam(required = false) Long cursor,
+                                                      @RequestParam(defaultValue = "${todo.tasks.pagina.tamanho-padrao:100}") int tamanho) {
+        PaginaTasksArquivadas pagina = service.listar(cursor, tamanho);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.proximoCursor() != null) {
+            resposta.header("X-Proximo-Cursor", String.valueOf(pagina.proximoCursor()));
+        }
+        return resposta.body(pagina.tasks());
+    }
+
+    @GetMapping("/{id}")
+    public TaskArquivada buscarPorId(@PathVariable Long id) {
+        return service.buscarPorId(id);
+    }
+}
@@ -1,37 +1,160 @@
 package com.exemplo.todo.controller;
 
+import com.exemplo.todo.dto.EscritaAceita;
+import com.exemplo.todo.dto.PaginaTasks;
+import com.exemplo.todo.dto.ResultadoLote;
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.SituacaoEscrita;
+import com.exemplo.todo.dto.TaskResumo;
 import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.service.FeedAlteracoes;
+import com.exemplo.todo.service.FilaEscrita;
 import com.exemplo.todo.service.TaskService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/tasks")
 public class TaskController {
 
     private final TaskService service;
+    private final FeedAlteracoes feed;
+    // Nula quando o modo write-behind (todo.escrita-assincrona.habilitado) está desligado
+    private final FilaEscrita fila;
 
-    public TaskController(TaskService service) {
+    public TaskController(TaskService service, FeedAlteracoes feed, ObjectProvider<FilaEscrita> fila) {
         this.service = service;
+        this.feed = feed;
+        this.fila = fila.getIfAvailable();
     }
 
+    // Com a fila de escrita ligada responde 202 com um id provisório em vez da task gravada
     @PostMapping
-    public Task criar(@RequestParam String titulo) {
-        return service.criarTask(titulo);
+    public ResponseEntity<?> criar(@RequestParam String titulo) {
+        if (fila == null) {
+            return ResponseEntity.ok(service.criarTask(titulo));
+        }
+        return aceitar(fila.criar(titulo));
+    }
+
+    @GetMapping("/escritas/{idProvisorio}")
+    public SituacaoEscrita situacaoEscrita(@PathVariable long idProvisorio) {
+        SituacaoEscrita situacao = fila == null ? null : fila.situacao(idProvisorio);
+        if (situacao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Escrita não encontrada");
+        }
+        return situacao;
+    }
+
+    // Fila cheia mesmo depois da espera máxima: 503 para o cliente tentar de novo
+    private static ResponseEntity<?> aceitar(EscritaAceita aceita) {
+        if (aceita == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/tasks/escritas/" + aceita.idProvisorio()))
+                .body(aceita);
     }
 
+    // Filtros opcionais por situação e prefixo do título; a próxima página vem no cabeçalho X-Proximo-Cursor.
+    // O ETag é o contador de alterações do tenant; se o cliente já tem a versão atual, responde 304 sem buscar a página
     @GetMapping
-    public List<Task> listar() {
-        return service.listarTodas();
+    public ResponseEntity<List<TaskResumo>> listar(@RequestParam(required = false) Boolean concluida,
+                                                   @RequestParam(required = false) String prefixo,
+                                                   @RequestParam(required = false) Long cursor,
+                                                   @RequestParam(defaultValue = "${todo.tasks.pagina.tamanho-padrao:100}") int tamanho,
+                                                   @RequestParam(defaultValue = "asc") String ordem,
+                                                   WebRequest requisicao) {
+        boolean decrescente = switch (ordem.toLowerCase(Locale.ROOT)) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ordem deve ser asc ou desc.");
+        };
+        // Calculado antes da página: uma gravação no meio só faz o próximo GET baixar de novo
+        ResumoVersoes resumo = service.resumirVersoes();
+        if (requisicao.checkNotModified(resumo.etag())) {
+            return null;
+        }
+        PaginaTasks pagina = service.listarResumos(concluida, prefixo, cursor, tamanho, decrescente);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().eTag(resumo.etag());
+        if (pagina.proximoCursor() != null) {
+            resposta.header("X-Proximo-Cursor", String.valueOf(pagina.proximoCursor()));
+        }
+        return resposta.body(pagina.tasks());
     }
 
+    // Feed de alterações (SSE); Last-Event-ID ou ?desde= retomam a partir do último offset recebido
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento,
+                              @RequestParam(required = false) Long desde) {
+        return feed.inscrever(ultimoEvento != null ? ultimoEvento : desde);
+    }
+
+    // O Spring responde 304 sozinho quando If-None-Match bate com o ETag (a versão da task)
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> buscarPorId(@PathVariable Long id) {
+        Task task = service.buscarPorId(id);
+        return ResponseEntity.ok().eTag(String.valueOf(task.getVersao())).body(task);
+    }
+
+    // Com If-Match (ETag do GET), só conclui se ninguém alterou a task desde a leitura (senão 409);
+    // a checagem de versão precisa da resposta na hora, então If-Match sempre usa o caminho síncrono
     @PutMapping("/{id}/concluir")
-    public Task concluir(@PathVariable Long id) {
-        return service.marcarComoConcluida(id);
+    public ResponseEntity<?> concluir(@PathVariable Long id,
+                                      @RequestHeader(value = "If-Match", required = false) String seCorresponder) {
+        if (fila != null && seCorresponder == null) {
+            return aceitar(fila.concluir(id));
+        }
+        Task task = service.marcarComoConcluida(id, seCorresponder != null ? versaoDoEtag(seCorresponder) : null);
+        return ResponseEntity.ok().eTag(String.valueOf(task.getVersao())).body(task);
     }
 
     @DeleteMapping("/{id}")
     public void excluir(@PathVariable Long id) {
         service.excluirTask(id);
     }
+
+    @PostMapping("/lote/concluir")
+    public ResultadoLote concluirEmLote(@RequestBody List<Long> ids) {
+        return new ResultadoLote(service.concluirEmLote(ids));
+    }
+
+    @PostMapping("/lote/excluir")
+    public ResultadoLote excluirEmLote(@RequestBody List<Long> ids) {
+        return new ResultadoLote(service.excluirEmLote(ids));
+    }
+
+    @PutMapping("/pendentes/concluir")
+    public ResultadoLote concluirPendentes() {
+        return new ResultadoLote(service.concluirPendentes());
+    }
+
+    @DeleteMapping("/concluidas")
+    public ResultadoLote excluirConcluidas() {
+        return new ResultadoLote(service.excluirConcluidas());
+    }
+
+    // "3" -> 3; "*" aceita qualquer versão. If-Match usa comparação forte, então ETag fraco (W/) é recusado
+    static Long versaoDoEtag(String etag) {
+        String valor = etag.trim();
+        if (valor.equals("*")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(valor.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match inválido.");
+        }
+    }
 }
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Resposta 202 do modo write-behind; a situação fica em GET /tasks/escritas/{idProvisorio}
+public record EscritaAceita(long idProvisorio) {
+}
@@ -0,0 +1,7 @@
+package com.exemplo.todo.dto;
+
+import java.util.List;
+
+// Página de resumos de tasks; proximoCursor é nulo quando não há mais páginas
+public record PaginaTasks(List<TaskResumo> tasks, Long proximoCursor) {
+}
@@ -0,0 +1,9 @@
+package com.exemplo.todo.dto;
+
+import com.exemplo.todo.entity.TaskArquivada;
+
+import java.util.List;
+
+// Página de tasks arquivadas; proximoCursor é nulo quando não há mais páginas
+public record PaginaTasksArquivadas(List<TaskArquivada> tasks, Long proximoCursor) {
+}
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Quantidade de tasks afetadas por uma operação em lote
+public record ResultadoLote(int afetadas) {
+}
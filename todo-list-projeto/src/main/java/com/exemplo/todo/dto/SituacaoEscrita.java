@@ -0,0 +1,9 @@
+package com.exemplo.todo.dto;
+
+// taskId é preenchido quando a escrita foi gravada
+public record SituacaoEscrita(long idProvisorio, Situacao situacao, Long taskId) {
+
+    public enum Situacao {
+        PENDENTE, GRAVADA, FALHOU
+    }
+}
@@ -0,0 +1,5 @@
+package com.exemplo.todo.dto;
+
+// Projeção somente leitura de Task usada na listagem (não passa pelo contexto de persistência)
+public record TaskResumo(Long id, String titulo, boolean concluida) {
+}
@@ -0,0 +1,22 @@
+package com.exemplo.todo.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Até qual operação do journal da fila de escrita já foi aplicada; gravada na mesma transação do lote
+@Entity
+@Table(name = "fila_escrita_posicao")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosicaoFila {
+
+    @Id
+    private String fila;
+
+    private long sequencia;
+}
@@ -1,9 +1,24 @@
 package com.exemplo.todo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
 
 @Entity
+// Todas as consultas filtram por tenant, então todo índice começa por ele
+@Table(indexes = {
+        // Visão "tarefas em aberto": filtro por concluida já ordenado por id
+        @Index(name = "idx_task_tenant_concluida_id", columnList = "tenant, concluida, id"),
+        @Index(name = "idx_task_tenant_titulo", columnList = "tenant, titulo"),
+        // Listagem sem filtro percorre o tenant em ordem de id
+        @Index(name = "idx_task_tenant_id", columnList = "tenant, id"),
+        // Arquivamento: as concluídas mais antigas do tenant (pendentes têm concluida_em nulo)
+        @Index(name = "idx_task_tenant_concluida_em", columnList = "tenant, concluida_em")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +31,33 @@ public class Task {
     private String titulo;
 
     private boolean concluida = false;
+
+    // Controle de concorrência otimista: gravações com versão desatualizada são recusadas (409)
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Quando foi concluída; o arquivamento move as concluídas há mais de todo.arquivamento.idade
+    @JsonIgnore
+    private Instant concluidaEm;
+
+    // Dono da task: preenchido no insert e filtrado em toda consulta pelo Hibernate (ContextoTenant)
+    @TenantId
+    @JsonIgnore
+    @ColumnDefault("'padrao'")
+    @Column(nullable = false, length = 64)
+    private String tenant;
+
+    public Task(Long id, String titulo, boolean concluida) {
+        this(id, titulo, concluida, null);
+    }
+
+    public Task(Long id, String titulo, boolean concluida, Long versao) {
+        this(id, titulo, concluida, versao, null, null);
+    }
+
+    // Cópia com todos os campos, fora do contexto de persistência (o cache guarda e entrega cópias)
+    public Task copiar() {
+        return new Task(id, titulo, concluida, versao, concluidaEm, tenant);
+    }
 }
@@ -0,0 +1,42 @@
+package com.exemplo.todo.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+// Task concluída movida da tabela task pelo arquivamento (ArquivamentoTasks); só leitura depois disso
+@Entity
+@Table(name = "task_arquivada", indexes = @Index(name = "idx_task_arquivada_tenant_id", columnList = "tenant, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskArquivada {
+
+    // O mesmo id que a task tinha na tabela task
+    @Id
+    private Long id;
+
+    private String titulo;
+
+    @Column(nullable = false)
+    private Long versao;
+
+    private Instant concluidaEm;
+
+    @Column(nullable = false)
+    private Instant arquivadaEm;
+
+    @TenantId
+    @JsonIgnore
+    @ColumnDefault("'padrao'")
+    @Column(nullable = false, length = 64)
+    private String tenant;
+
+    public static TaskArquivada de(Task task, Instant arquivadaEm) {
+        return new TaskArquivada(task.getId(), task.getTitulo(), task.getVersao(), task.getConcluidaEm(), arquivadaEm, null);
+    }
+}
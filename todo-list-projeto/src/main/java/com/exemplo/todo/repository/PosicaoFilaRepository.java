@@ -0,0 +1,7 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.entity.PosicaoFila;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PosicaoFilaRepository extends JpaRepository<PosicaoFila, String> {
+}
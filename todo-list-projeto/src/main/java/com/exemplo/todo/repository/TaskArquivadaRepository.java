@@ -0,0 +1,14 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.entity.TaskArquivada;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+// Tasks arquivadas; como em TaskJpaRepository, as consultas são filtradas pelo tenant atual
+public interface TaskArquivadaRepository extends JpaRepository<TaskArquivada, Long> {
+
+    // Paginação por cursor (keyset) pelo índice (tenant, id)
+    List<TaskArquivada> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+}
@@ -0,0 +1,145 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import jakarta.persistence.LockModeType;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Implementação JPA (padrão) de TaskRepository; cache "tasks" (por tenant e id), configurado em spring.cache.*.
+// As consultas JPQL e derivadas são filtradas pelo tenant atual (@TenantId em Task)
+public interface TaskJpaRepository extends JpaRepository<Task, Long>, TaskRepository {
+
+    @Override
+    @Cacheable(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0)")
+    Optional<Task> findById(Long id);
+
+    @Override
+    @Caching(evict = @CacheEvict(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0.id)", condition = "#p0.id != null", beforeInvocation = true),
+            put = @CachePut(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#result.id)"))
+    <S extends Task> S save(S task);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    <S extends Task> List<S> saveAll(Iterable<S> tasks);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0)")
+    void deleteById(Long id);
+
+    @Override
+    @Caching(evict = @CacheEvict(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0.id)", condition = "#p0.id != null", beforeInvocation = true),
+            put = @CachePut(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#result.id)"))
+    <S extends Task> S saveAndFlush(S task);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", key = "T(com.exemplo.todo.config.ContextoTenant).chave(#p0.id)", condition = "#p0.id != null")
+    void delete(Task task);
+
+    // Demais gravações e remoções em lote: esvaziam o cache inteiro, como saveAll
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAll(Iterable<? extends Task> tasks);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAllInBatch(Iterable<Task> tasks);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    void deleteAllInBatch();
+
+    // Operações em lote: um único UPDATE/DELETE por bloco de ids, sem carregar as entidades.
+    // O UPDATE em massa não passa pelo @Version, então a versão é incrementada aqui
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    @Query("update Task t set t.concluida = true, t.concluidaEm = instant, t.versao = t.versao + 1 where t.id in :ids and t.concluida = false")
+    @Override
+    int concluirPorIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    @Query("delete from Task t where t.id in :ids")
+    @Override
+    int excluirPorIds(Collection<Long> ids);
+
+    // Validador (ETag) da listagem: o contador de alterações do tenant, uma linha lida pela chave (ver VersoesListagem)
+    @Override
+    default ResumoVersoes resumirVersoes() {
+        return new ResumoVersoes(String.valueOf(contarAlteracoes()));
+    }
+
+    @Query("select coalesce(max(v.versao), 0) from VersaoListagem v where v.tenant = :#{T(com.exemplo.todo.config.ContextoTenant).atual()}")
+    long contarAlteracoes();
+
+    // Próximo bloco de ids com a situação informada, em ordem de id (keyset)
+    @Query("select t.id from Task t where t.concluida = :concluida and t.id > :cursor order by t.id")
+    @Override
+    List<Long> findIdsPorSituacao(boolean concluida, Long cursor, Pageable pagina);
+
+    // Listagem filtrada por keyset; parâmetros nulos desligam o filtro correspondente
+    @Query("""
+            select new com.exemplo.todo.dto.TaskResumo(t.id, t.titulo, t.concluida) from Task t
+            where t.id > :cursor
+              and (:concluida is null or t.concluida = :concluida)
+              and (:prefixo is null or t.titulo like :prefixo escape '\\')
+            order by t.id""")
+    @Override
+    List<TaskResumo> listarResumos(Long cursor, Boolean concluida, String prefixo, Pageable pagina);
+
+    @Query("""
+            select new com.exemplo.todo.dto.TaskResumo(t.id, t.titulo, t.concluida) from Task t
+            where t.id < :cursor
+              and (:concluida is null or t.concluida = :concluida)
+              and (:prefixo is null or t.titulo like :prefixo escape '\\')
+            order by t.id desc""")
+    @Override
+    List<TaskResumo> listarResumosDecrescente(Long cursor, Boolean concluida, String prefixo, Pageable pagina);
+
+    // Concluídas sem data de conclusão: gravadas antes da coluna existir num banco criado pelo ddl-auto,
+    // sem o preenchimento da V3. Como na migração, passam a contar a idade a partir de agora
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = "tasks", allEntries = true)
+    @Query("update Task t set t.concluidaEm = :agora where t.concluida = true and t.concluidaEm is null")
+    int preencherConcluidaEm(Instant agora);
+
+    // Arquivamento: as concluídas antes do limite, mais antigas primeiro, travadas até o fim da
+    // transação do lote para que ninguém altere ou exclua uma task entre a cópia e a remoção
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.concluidaEm < :limite order by t.concluidaEm")
+    List<Task> findArquivaveis(Instant limite, Limit lote);
+
+    // Tenants com tasks, para o arquivamento percorrer um de cada vez (nativa: fora do filtro de tenant)
+    @Query(value = "select distinct tenant from task", nativeQuery = true)
+    List<String> listarTenants();
+}
@@ -1,7 +1,38 @@
 package com.exemplo.todo.repository;
 
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.TaskResumo;
 import com.exemplo.todo.entity.Task;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.NoRepositoryBean;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Contrato de armazenamento das tasks usado pelos serviços. Implementado pelo JPA
+ * (TaskJpaRepository, padrão) e pelo armazenamento compacto em memória
+ * (TaskRepositoryCompactoPorTenant, com todo.armazenamento=compacto). As duas só enxergam as
+ * tasks do tenant atual (ContextoTenant).
+ */
+@NoRepositoryBean
+public interface TaskRepository extends ListCrudRepository<Task, Long> {
+
+    // Conclui as pendentes entre os ids informados, incrementando a versão; retorna quantas mudaram
+    int concluirPorIds(Collection<Long> ids);
+
+    int excluirPorIds(Collection<Long> ids);
+
+    // Próximo bloco de ids com a situação informada, em ordem de id (keyset)
+    List<Long> findIdsPorSituacao(boolean concluida, Long cursor, Pageable pagina);
+
+    // Listagem filtrada por keyset; parâmetros nulos desligam o filtro correspondente.
+    // prefixo é um padrão LIKE já escapado com '\' e terminado em '%'
+    List<TaskResumo> listarResumos(Long cursor, Boolean concluida, String prefixo, Pageable pagina);
+
+    List<TaskResumo> listarResumosDecrescente(Long cursor, Boolean concluida, String prefixo, Pageable pagina);
+
+    // Validador (ETag) da listagem: muda a cada inclusão, alteração ou exclusão de task do tenant
+    ResumoVersoes resumirVersoes();
 }
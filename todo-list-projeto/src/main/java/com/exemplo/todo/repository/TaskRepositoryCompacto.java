@@ -0,0 +1,624 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazenamento de tasks em memória, por colunas: ids em um long[] ordenado, versões em int[],
+ * concluída e excluída em BitSet e os títulos em UTF-8 numa única área de bytes, sem um objeto
+ * por task. Cada alteração é anexada a um log em arquivo mapeado em memória, relido na subida;
+ * se o log tiver muitos registros superados, é reescrito só com as tasks vivas.
+ * Guarda as tasks de um tenant; a aplicação usa uma instância por tenant (TaskRepositoryCompactoPorTenant).
+ */
+public class TaskRepositoryCompacto implements TaskRepository, Closeable {
+
+    // Tipos de registro no log. O tipo é escrito por último: registro com tipo 0 é o fim do log
+    private static final byte FIM = 0;
+    private static final byte GRAVAR = 1;
+    private static final byte EXCLUIR = 2;
+    private static final byte LIMPAR = 3;
+    private static final byte PROXIMA_REGIAO = 4;
+    // tipo + id + versão + concluída + tamanho do título
+    private static final int CABECALHO = 1 + 8 + 4 + 1 + 4;
+    static final int TAMANHO_REGIAO = 64 * 1024 * 1024;
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[1024];
+    private int[] versoes = new int[1024];
+    private int[] inicioTitulo = new int[1024];
+    // -1 = título nulo
+    private int[] tamanhoTitulo = new int[1024];
+    private final BitSet concluidas = new BitSet();
+    private final BitSet excluidas = new BitSet();
+    private byte[] titulos = new byte[64 * 1024];
+    private int usadoTitulos;
+    // Posições ocupadas, incluindo as excluídas (que só somem quando o log é compactado na subida)
+    private int quantidade;
+    private int vivas;
+    private long somaVersoes;
+    private long ultimoId;
+
+    private final Path arquivo;
+    private final boolean sincronizar;
+    private FileChannel canal;
+    private MappedByteBuffer regiao;
+    private long inicioRegiao;
+    private long registrosNoLog;
+
+    public TaskRepositoryCompacto(Path arquivo, boolean sincronizar) {
+        this.arquivo = arquivo;
+        this.sincronizar = sincronizar;
+        try {
+            Path pasta = arquivo.toAbsolutePath().getParent();
+            if (pasta != null) {
+                Files.createDirectories(pasta);
+            }
+            abrir(true);
+            if (registrosNoLog > 2L * vivas + 1024) {
+                compactar();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log de tasks " + arquivo, e);
+        }
+    }
+
+    @Override
+    public <S extends Task> S save(S task) {
+        trava.writeLock().lock();
+        try {
+            int p = task.getId() == null ? -1 : posicao(task.getId());
+            if (p < 0) {
+                // Nova, ou com id desconhecido (como no merge do JPA): recebe o próximo id
+                p = acrescentar(ultimoId + 1, 0, task.isConcluida(), utf8(task.getTitulo()));
+            } else {
+                if (task.getVersao() != null && task.getVersao() != versoes[p]) {
+                    throw new OptimisticLockingFailureException("Task " + task.getId() + " foi alterada por outra gravação");
+                }
+                alterar(p, versoes[p] + 1, task.isConcluida(), utf8(task.getTitulo()));
+            }
+            registrarGravacao(p);
+            task.setId(ids[p]);
+            task.setVersao((long) versoes[p]);
+            return task;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> salvas = new ArrayList<>();
+        for (S task : tasks) {
+            salvas.add(save(task));
+        }
+        return salvas;
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        trava.readLock().lock();
+        try {
+            int p = posicao(id);
+            return p < 0 ? Optional.empty() : Optional.of(materializar(p));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        trava.readLock().lock();
+        try {
+            return posicao(id) >= 0;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        trava.readLock().lock();
+        try {
+            List<Task> tasks = new ArrayList<>(vivas);
+            for (int p = excluidas.nextClearBit(0); p < quantidade; p = excluidas.nextClearBit(p + 1)) {
+                tasks.add(materializar(p));
+            }
+            return tasks;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> idsBuscados) {
+        trava.readLock().lock();
+        try {
+            List<Task> tasks = new ArrayList<>();
+            for (Long id : idsBuscados) {
+                int p = posicao(id);
+                if (p >= 0) {
+                    tasks.add(materializar(p));
+                }
+            }
+            return tasks;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        trava.readLock().lock();
+        try {
+            return vivas;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        excluirPorIds(List.of(id));
+    }
+
+    @Override
+    public void delete(Task task) {
+        deleteById(task.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> idsExcluidos) {
+        List<Long> lista = new ArrayList<>();
+        idsExcluidos.forEach(lista::add);
+        excluirPorIds(lista);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        List<Long> lista = new ArrayList<>();
+        tasks.forEach(task -> lista.add(task.getId()));
+        excluirPorIds(lista);
+    }
+
+    @Override
+    public void deleteAll() {
+        trava.writeLock().lock();
+        try {
+            excluidas.set(0, quantidade);
+            vivas = 0;
+            somaVersoes = 0;
+            anexar(LIMPAR, 0, 0, false, null);
+            sincronizarSeConfigurado();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int concluirPorIds(Collection<Long> idsConcluidos) {
+        trava.writeLock().lock();
+        try {
+            int afetadas = 0;
+            for (Long id : idsConcluidos) {
+                int p = posicao(id);
+                if (p >= 0 && !concluidas.get(p)) {
+                    concluidas.set(p);
+                    versoes[p]++;
+                    somaVersoes++;
+                    anexarGravacao(p);
+                    afetadas++;
+                }
+            }
+            sincronizarSeConfigurado();
+            return afetadas;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int excluirPorIds(Collection<Long> idsExcluidos) {
+        trava.writeLock().lock();
+        try {
+            int afetadas = 0;
+            for (Long id : idsExcluidos) {
+                int p = posicao(id);
+                if (p >= 0) {
+                    excluir(p);
+                    anexar(EXCLUIR, id, 0, false, null);
+                    afetadas++;
+                }
+            }
+            sincronizarSeConfigurado();
+            return afetadas;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findIdsPorSituacao(boolean concluida, Long cursor, Pageable pagina) {
+        trava.readLock().lock();
+        try {
+            List<Long> encontrados = new ArrayList<>();
+            for (int p = primeiraApos(cursor); p < quantidade && encontrados.size() < pagina.getPageSize(); p++) {
+                if (!excluidas.get(p) && concluidas.get(p) == concluida) {
+                    encontrados.add(ids[p]);
+                }
+            }
+            return encontrados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TaskResumo> listarResumos(Long cursor, Boolean concluida, String prefixo, Pageable pagina) {
+        byte[] inicio = prefixo == null ? null : utf8(prefixoDoPadrao(prefixo));
+        trava.readLock().lock();
+        try {
+            List<TaskResumo> resumos = new ArrayList<>();
+            for (int p = primeiraApos(cursor); p < quantidade && resumos.size() < pagina.getPageSize(); p++) {
+                if (atende(p, concluida, inicio)) {
+                    resumos.add(new TaskResumo(ids[p], titulo(p), concluidas.get(p)));
+                }
+            }
+            return resumos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TaskResumo> listarResumosDecrescente(Long cursor, Boolean concluida, String prefixo, Pageable pagina) {
+        byte[] inicio = prefixo == null ? null : utf8(prefixoDoPadrao(prefixo));
+        trava.readLock().lock();
+        try {
+            List<TaskResumo> resumos = new ArrayList<>();
+            for (int p = primeiraApos(cursor - 1) - 1; p >= 0 && resumos.size() < pagina.getPageSize(); p--) {
+                if (atende(p, concluida, inicio)) {
+                    resumos.add(new TaskResumo(ids[p], titulo(p), concluidas.get(p)));
+                }
+            }
+            return resumos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Total, maior id e soma das versões: mantidos a cada gravação, e deduzidos das tasks (valem depois de reabrir o log)
+    @Override
+    public ResumoVersoes resumirVersoes() {
+        trava.readLock().lock();
+        try {
+            if (vivas == 0) {
+                return new ResumoVersoes("0");
+            }
+            return new ResumoVersoes(vivas + "-" + ids[excluidas.previousClearBit(quantidade - 1)] + "-" + somaVersoes);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Bytes ocupados pelas colunas, para comparar com o consumo do JPA/H2
+    public long bytesOcupados() {
+        trava.readLock().lock();
+        try {
+            return (long) ids.length * Long.BYTES + (long) versoes.length * Integer.BYTES * 3
+                    + titulos.length + concluidas.size() / 8 + excluidas.size() / 8;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        trava.writeLock().lock();
+        try {
+            if (canal != null) {
+                regiao.force();
+                canal.close();
+                canal = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // ---- colunas ----
+
+    private int posicao(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int p = Arrays.binarySearch(ids, 0, quantidade, id);
+        return p >= 0 && !excluidas.get(p) ? p : -1;
+    }
+
+    // Primeira posição com id maior que o cursor
+    private int primeiraApos(long cursor) {
+        int p = Arrays.binarySearch(ids, 0, quantidade, cursor);
+        return p >= 0 ? p + 1 : -p - 1;
+    }
+
+    private boolean atende(int p, Boolean concluida, byte[] prefixo) {
+        if (excluidas.get(p) || (concluida != null && concluidas.get(p) != concluida)) {
+            return false;
+        }
+        if (prefixo == null) {
+            return true;
+        }
+        int inicio = inicioTitulo[p];
+        return tamanhoTitulo[p] >= prefixo.length
+                && Arrays.equals(titulos, inicio, inicio + prefixo.length, prefixo, 0, prefixo.length);
+    }
+
+    // Ids só crescem, então acrescentar no fim mantém o vetor ordenado
+    private int acrescentar(long id, int versao, boolean concluida, byte[] titulo) {
+        if (quantidade == ids.length) {
+            int capacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            versoes = Arrays.copyOf(versoes, capacidade);
+            inicioTitulo = Arrays.copyOf(inicioTitulo, capacidade);
+            tamanhoTitulo = Arrays.copyOf(tamanhoTitulo, capacidade);
+        }
+        int p = quantidade++;
+        ids[p] = id;
+        versoes[p] = versao;
+        concluidas.set(p, concluida);
+        guardarTitulo(p, titulo);
+        ultimoId = Math.max(ultimoId, id);
+        vivas++;
+        somaVersoes += versao;
+        return p;
+    }
+
+    private void alterar(int p, int versao, boolean concluida, byte[] titulo) {
+        somaVersoes += versao - versoes[p];
+        versoes[p] = versao;
+        concluidas.set(p, concluida);
+        if (!mesmoTitulo(p, titulo)) {
+            // O título antigo fica como lixo na área até a próxima compactação
+            guardarTitulo(p, titulo);
+        }
+    }
+
+    private void excluir(int p) {
+        excluidas.set(p);
+        vivas--;
+        somaVersoes -= versoes[p];
+    }
+
+    private void guardarTitulo(int p, byte[] titulo) {
+        if (titulo == null) {
+            inicioTitulo[p] = 0;
+            tamanhoTitulo[p] = -1;
+            return;
+        }
+        if (usadoTitulos + titulo.length > titulos.length) {
+            long capacidade = Math.max((long) titulos.length * 2, (long) usadoTitulos + titulo.length);
+            if (capacidade > Integer.MAX_VALUE - 8) {
+                throw new DataAccessResourceFailureException("Área de títulos do armazenamento compacto esgotada");
+            }
+            titulos = Arrays.copyOf(titulos, (int) capacidade);
+        }
+        System.arraycopy(titulo, 0, titulos, usadoTitulos, titulo.length);
+        inicioTitulo[p] = usadoTitulos;
+        tamanhoTitulo[p] = titulo.length;
+        usadoTitulos += titulo.length;
+    }
+
+    private boolean mesmoTitulo(int p, byte[] titulo) {
+        if (titulo == null || tamanhoTitulo[p] < 0) {
+            return titulo == null && tamanhoTitulo[p] < 0;
+        }
+        int inicio = inicioTitulo[p];
+        return Arrays.equals(titulos, inicio, inicio + tamanhoTitulo[p], titulo, 0, titulo.length);
+    }
+
+    private String titulo(int p) {
+        return tamanhoTitulo[p] < 0 ? null : new String(titulos, inicioTitulo[p], tamanhoTitulo[p], StandardCharsets.UTF_8);
+    }
+
+    private Task materializar(int p) {
+        return new Task(ids[p], titulo(p), concluidas.get(p), (long) versoes[p]);
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // O serviço envia "prefixo%" com \, % e _ escapados por '\'; aqui só interessa o prefixo literal
+    static String prefixoDoPadrao(String padrao) {
+        StringBuilder prefixo = new StringBuilder(padrao.length());
+        int fim = padrao.endsWith("%") ? padrao.length() - 1 : padrao.length();
+        for (int i = 0; i < fim; i++) {
+            char c = padrao.charAt(i);
+            if (c == '\\' && i + 1 < fim) {
+                c = padrao.charAt(++i);
+            }
+            prefixo.append(c);
+        }
+        return prefixo.toString();
+    }
+
+    // ---- log ----
+
+    private void registrarGravacao(int p) {
+        anexarGravacao(p);
+        sincronizarSeConfigurado();
+    }
+
+    private void anexarGravacao(int p) {
+        byte[] titulo = tamanhoTitulo[p] < 0 ? null
+                : Arrays.copyOfRange(titulos, inicioTitulo[p], inicioTitulo[p] + tamanhoTitulo[p]);
+        anexar(GRAVAR, ids[p], versoes[p], concluidas.get(p), titulo);
+    }
+
+    private void anexar(byte tipo, long id, int versao, boolean concluida, byte[] titulo) {
+        int tamanho = CABECALHO + (titulo == null ? 0 : titulo.length);
+        // Sempre sobra espaço para o marcador de fim depois do registro
+        if (regiao.remaining() < tamanho + 1) {
+            if (tamanho + 1 > TAMANHO_REGIAO) {
+                throw new DataAccessResourceFailureException("Título grande demais para o log do armazenamento compacto");
+            }
+            regiao.put(regiao.position(), PROXIMA_REGIAO);
+            mapear(inicioRegiao + TAMANHO_REGIAO);
+        }
+        int inicio = regiao.position();
+        regiao.position(inicio + 1);
+        regiao.putLong(id).putInt(versao).put((byte) (concluida ? 1 : 0)).putInt(titulo == null ? -1 : titulo.length);
+        if (titulo != null) {
+            regiao.put(titulo);
+        }
+        regiao.put(regiao.position(), FIM);
+        // Só agora o registro passa a valer: uma queda no meio da escrita deixa o tipo em 0
+        regiao.put(inicio, tipo);
+        registrosNoLog++;
+    }
+
+    private void sincronizarSeConfigurado() {
+        if (sincronizar) {
+            regiao.force();
+        }
+    }
+
+    private void mapear(long inicio) {
+        try {
+            inicioRegiao = inicio;
+            regiao = canal.map(FileChannel.MapMode.READ_WRITE, inicio, TAMANHO_REGIAO);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível mapear o log de tasks " + arquivo, e);
+        }
+    }
+
+    // Abre o log e posiciona no fim, reaplicando os registros se "aplicar" for verdadeiro
+    private void abrir(boolean aplicar) throws IOException {
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapear(0);
+        registrosNoLog = 0;
+        while (true) {
+            int inicio = regiao.position();
+            byte tipo = regiao.get(inicio);
+            if (tipo == PROXIMA_REGIAO) {
+                mapear(inicioRegiao + TAMANHO_REGIAO);
+                continue;
+            }
+            if (tipo == FIM) {
+                return;
+            }
+            regiao.position(inicio + 1);
+            long id = regiao.getLong();
+            int versao = regiao.getInt();
+            boolean concluida = regiao.get() == 1;
+            int tamanho = regiao.getInt();
+            byte[] titulo = null;
+            if (tamanho >= 0) {
+                titulo = new byte[tamanho];
+                regiao.get(titulo);
+            }
+            registrosNoLog++;
+            if (aplicar) {
+                reaplicar(tipo, id, versao, concluida, titulo);
+            }
+        }
+    }
+
+    private void reaplicar(byte tipo, long id, int versao, boolean concluida, byte[] titulo) {
+        switch (tipo) {
+            case GRAVAR -> {
+                int p = posicao(id);
+                if (p < 0) {
+                    acrescentar(id, versao, concluida, titulo);
+                } else {
+                    alterar(p, versao, concluida, titulo);
+                }
+            }
+            case EXCLUIR -> {
+                int p = posicao(id);
+                if (p >= 0) {
+                    excluir(p);
+                }
+                ultimoId = Math.max(ultimoId, id);
+            }
+            case LIMPAR -> {
+                excluidas.set(0, quantidade);
+                vivas = 0;
+                somaVersoes = 0;
+            }
+            default -> throw new IllegalStateException("Registro inválido no log de tasks " + arquivo);
+        }
+    }
+
+    // Reescreve o log (e as colunas) só com as tasks vivas e troca o arquivo de uma vez
+    private void compactar() throws IOException {
+        long[] antigosIds = ids;
+        int[] antigasVersoes = versoes;
+        int[] antigosInicios = inicioTitulo;
+        int[] antigosTamanhos = tamanhoTitulo;
+        BitSet antigasConcluidas = (BitSet) concluidas.clone();
+        BitSet antigasExcluidas = (BitSet) excluidas.clone();
+        byte[] antigosTitulos = titulos;
+        int antigaQuantidade = quantidade;
+
+        ids = new long[Math.max(1024, vivas)];
+        versoes = new int[ids.length];
+        inicioTitulo = new int[ids.length];
+        tamanhoTitulo = new int[ids.length];
+        titulos = new byte[Math.max(64 * 1024, usadoTitulos)];
+        concluidas.clear();
+        excluidas.clear();
+        usadoTitulos = 0;
+        quantidade = 0;
+        vivas = 0;
+        somaVersoes = 0;
+        long maiorId = ultimoId;
+
+        canal.close();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+        Files.deleteIfExists(temporario);
+        canal = FileChannel.open(temporario, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapear(0);
+        registrosNoLog = 0;
+        for (int p = antigasExcluidas.nextClearBit(0); p < antigaQuantidade; p = antigasExcluidas.nextClearBit(p + 1)) {
+            byte[] titulo = antigosTamanhos[p] < 0 ? null
+                    : Arrays.copyOfRange(antigosTitulos, antigosInicios[p], antigosInicios[p] + antigosTamanhos[p]);
+            anexarGravacao(acrescentar(antigosIds[p], antigasVersoes[p], antigasConcluidas.get(p), titulo));
+        }
+        // Ids de tasks excluídas não voltam a ser usados, nem depois da próxima subida
+        if (maiorId > ultimoId) {
+            anexar(EXCLUIR, maiorId, 0, false, null);
+            ultimoId = maiorId;
+        }
+        regiao.force();
+        canal.close();
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        abrir(false);
+    }
+}
@@ -0,0 +1,150 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazenamento compacto particionado por tenant: cada tenant tem o seu TaskRepositoryCompacto
+ * (colunas e log próprios), aberto no primeiro acesso, então uma consulta só percorre as tasks
+ * do tenant atual. O tenant padrão usa o arquivo configurado; os outros, um arquivo ao lado
+ * com o nome do tenant (tasks.log -> tasks-<tenant>.log). Os ids são sequenciais por tenant.
+ * Ligado por todo.armazenamento=compacto (perfil "compacto"), que também desliga JPA e H2.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.armazenamento", havingValue = "compacto")
+public class TaskRepositoryCompactoPorTenant implements TaskRepository, Closeable {
+
+    private final Path arquivo;
+    private final boolean sincronizar;
+    private final ConcurrentHashMap<String, TaskRepositoryCompacto> particoes = new ConcurrentHashMap<>();
+
+    public TaskRepositoryCompactoPorTenant(@Value("${todo.compacto.arquivo:data/tasks.log}") Path arquivo,
+                                           @Value("${todo.compacto.sincronizar:false}") boolean sincronizar) {
+        this.arquivo = arquivo;
+        this.sincronizar = sincronizar;
+    }
+
+    private TaskRepositoryCompacto particao() {
+        return particoes.computeIfAbsent(ContextoTenant.atual(), this::abrir);
+    }
+
+    private TaskRepositoryCompacto abrir(String tenant) {
+        if (tenant.equals(ContextoTenant.PADRAO)) {
+            return new TaskRepositoryCompacto(arquivo, sincronizar);
+        }
+        String nome = arquivo.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String arquivoTenant = ponto < 0 ? nome + "-" + tenant : nome.substring(0, ponto) + "-" + tenant + nome.substring(ponto);
+        return new TaskRepositoryCompacto(arquivo.resolveSibling(arquivoTenant), sincronizar);
+    }
+
+    @Override
+    public <S extends Task> S save(S task) {
+        return particao().save(task);
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        return particao().saveAll(tasks);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return particao().findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return particao().existsById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return particao().findAll();
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        return particao().findAllById(ids);
+    }
+
+    @Override
+    public long count() {
+        return particao().count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        particao().deleteById(id);
+    }
+
+    @Override
+    public void delete(Task task) {
+        particao().delete(task);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        particao().deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        particao().deleteAll(tasks);
+    }
+
+    @Override
+    public void deleteAll() {
+        particao().deleteAll();
+    }
+
+    @Override
+    public int concluirPorIds(Collection<Long> ids) {
+        return particao().concluirPorIds(ids);
+    }
+
+    @Override
+    public int excluirPorIds(Collection<Long> ids) {
+        return particao().excluirPorIds(ids);
+    }
+
+    @Override
+    public List<Long> findIdsPorSituacao(boolean concluida, Long cursor, Pageable pagina) {
+        return particao().findIdsPorSituacao(concluida, cursor, pagina);
+    }
+
+    @Override
+    public List<TaskResumo> listarResumos(Long cursor, Boolean concluida, String prefixo, Pageable pagina) {
+        return particao().listarResumos(cursor, concluida, prefixo, pagina);
+    }
+
+    @Override
+    public List<TaskResumo> listarResumosDecrescente(Long cursor, Boolean concluida, String prefixo, Pageable pagina) {
+        return particao().listarResumosDecrescente(cursor, concluida, prefixo, pagina);
+    }
+
+    @Override
+    public ResumoVersoes resumirVersoes() {
+        return particao().resumirVersoes();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        particoes.values().forEach(TaskRepositoryCompacto::close);
+    }
+}
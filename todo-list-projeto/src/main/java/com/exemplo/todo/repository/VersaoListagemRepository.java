@@ -0,0 +1,14 @@
+package com.exemplo.todo.repository;
+
+import com.exemplo.todo.entity.VersaoListagem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface VersaoListagemRepository extends JpaRepository<VersaoListagem, String> {
+
+    // Zero quando o tenant ainda não tem linha
+    @Modifying
+    @Query("update VersaoListagem v set v.versao = v.versao + 1 where v.tenant = :tenant")
+    int incrementar(String tenant);
+}
@@ -0,0 +1,152 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.entity.TaskArquivada;
+import com.exemplo.todo.repository.TaskJpaRepository;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import com.exemplo.todo.service.FeedAlteracoes.Tipo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Arquivamento (todo.arquivamento.habilitado=true): de tempos em tempos move as tasks concluídas
+ * há mais de todo.arquivamento.idade da tabela task para task_arquivada, lida só por
+ * GET /tasks/arquivadas. Cada lote é uma transação curta que trava as suas linhas, copia e
+ * remove; entre um lote e outro há uma pausa, para não disputar o banco com as requisições.
+ * As consultas são filtradas por tenant, então o arquivamento passa por um tenant de cada vez.
+ * Métricas: todo.arquivamento.tasks (movidas) e todo.arquivamento.duracao (cada execução).
+ */
+@Component
+// A tabela fria é JPA; o armazenamento compacto não guarda a data de conclusão
+@ConditionalOnExpression("${todo.arquivamento.habilitado:false} and '${todo.armazenamento:jpa}' == 'jpa'")
+public class ArquivamentoTasks {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoTasks.class);
+
+    private final TaskJpaRepository tasks;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transacao;
+    private final ApplicationEventPublisher eventos;
+    private final Duration idade;
+    private final int tamanhoLote;
+    private final Duration pausa;
+    // Tenants com esquema próprio não aparecem na consulta de tenants, que roda no esquema padrão
+    private final Set<String> tenantsComEsquema;
+    private final Counter movidas;
+    private final Timer duracao;
+
+    public ArquivamentoTasks(TaskJpaRepository tasks, EntityManager entityManager, TransactionTemplate transacao,
+                             ApplicationEventPublisher eventos, MeterRegistry registro, Environment ambiente,
+                             @Value("${todo.arquivamento.idade:30d}") Duration idade,
+                             @Value("${todo.arquivamento.tamanho-lote:500}") int tamanhoLote,
+                             @Value("${todo.arquivamento.pausa-entre-lotes:50ms}") Duration pausa) {
+        this.tasks = tasks;
+        this.entityManager = entityManager;
+        this.transacao = transacao;
+        this.eventos = eventos;
+        this.idade = idade;
+        this.tamanhoLote = tamanhoLote;
+        this.pausa = pausa;
+        this.tenantsComEsquema = Binder.get(ambiente)
+                .bind("todo.tenants.esquemas", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .keySet();
+        this.movidas = Counter.builder("todo.arquivamento.tasks")
+                .description("Tasks concluídas movidas para task_arquivada")
+                .register(registro);
+        this.duracao = Timer.builder("todo.arquivamento.duracao")
+                .description("Duração de cada execução do arquivamento")
+                .register(registro);
+    }
+
+    // Retorna quantas tasks foram movidas, somando todos os tenants
+    @Scheduled(initialDelayString = "${todo.arquivamento.intervalo:1h}", fixedDelayString = "${todo.arquivamento.intervalo:1h}")
+    public int arquivar() {
+        Instant limite = Instant.now().minus(idade);
+        Timer.Sample inicio = Timer.start();
+        int total = 0;
+        try {
+            for (String tenant : tenants()) {
+                int doTenant = ContextoTenant.executarComo(tenant, () -> arquivarTenant(limite));
+                if (doTenant > 0) {
+                    log.info("{} tasks concluídas antes de {} arquivadas no tenant {}", doTenant, limite, tenant);
+                }
+                total += doTenant;
+            }
+        } finally {
+            inicio.stop(duracao);
+        }
+        return total;
+    }
+
+    private Set<String> tenants() {
+        Set<String> tenants = new TreeSet<>(tasks.listarTenants());
+        tenants.addAll(tenantsComEsquema);
+        return tenants;
+    }
+
+    private int arquivarTenant(Instant limite) {
+        // Sem isto as concluídas sem data nunca seriam arquivadas (null < limite não é verdadeiro)
+        int semData = transacao.execute(status -> tasks.preencherConcluidaEm(Instant.now()));
+        if (semData > 0) {
+            log.info("{} tasks concluídas sem data de conclusão passam a contar a idade a partir de agora", semData);
+        }
+        int doTenant = 0;
+        int lote;
+        do {
+            lote = transacao.execute(status -> arquivarLote(limite));
+            doTenant += lote;
+            movidas.increment(lote);
+        } while (lote == tamanhoLote && pausar());
+        // Um evento por tenant, como as outras operações em lote: os inscritos recarregam a listagem
+        if (doTenant > 0) {
+            eventos.publishEvent(new Alteracao(Tipo.LOTE, null, null));
+        }
+        return doTenant;
+    }
+
+    private int arquivarLote(Instant limite) {
+        List<Task> lote = tasks.findArquivaveis(limite, Limit.of(tamanhoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        Instant agora = Instant.now();
+        lote.forEach(task -> entityManager.persist(TaskArquivada.de(task, agora)));
+        // O DELETE em massa faz o flush dos inserts antes e limpa o cache "tasks"
+        tasks.excluirPorIds(lote.stream().map(Task::getId).toList());
+        return lote.size();
+    }
+
+    // Interrompido (encerramento da aplicação): para depois do lote atual, o resto fica para a próxima execução
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausa.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
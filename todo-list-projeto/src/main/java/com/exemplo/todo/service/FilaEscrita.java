@@ -0,0 +1,417 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.dto.EscritaAceita;
+import com.exemplo.todo.dto.SituacaoEscrita;
+import com.exemplo.todo.dto.SituacaoEscrita.Situacao;
+import com.exemplo.todo.entity.PosicaoFila;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.PosicaoFilaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo write-behind (todo.escrita-assincrona.habilitado=true): criação e conclusão de tasks
+ * entram numa fila limitada e são respondidas com 202 e um id provisório; uma thread grava a
+ * fila em lotes, uma transação por lote. Antes do 202 cada operação é anotada num journal
+ * local com fsync (um fsync cobre todas as requisições que chegaram enquanto o anterior
+ * rodava), e a posição até onde o journal já foi aplicado é gravada na mesma transação do
+ * lote. Depois de um crash a subida reaplica exatamente as operações aceitas e não gravadas.
+ * O checkpoint é por journal (cada um ganha uma identidade num arquivo .id ao lado dele), então
+ * instâncias com journals próprios não sobrescrevem a posição umas das outras.
+ * Cada operação guarda o tenant de quem a pediu e é gravada como esse tenant.
+ */
+@Component
+// O checkpoint do journal fica numa tabela, então o modo só existe com o armazenamento JPA
+@ConditionalOnExpression("${todo.escrita-assincrona.habilitado:false} and '${todo.armazenamento:jpa}' == 'jpa'")
+public class FilaEscrita {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaEscrita.class);
+
+    // Checkpoint único de antes da identidade por journal; herdado por um journal ainda sem o arquivo .id
+    static final String NOME = "tasks";
+    private static final int RESULTADOS_GUARDADOS = 100_000;
+    // Com a fila vazia o journal já foi todo aplicado e pode ser zerado
+    private static final long TAMANHO_COMPACTACAO = 8 * 1024 * 1024;
+    private static final long ESPERA_MAXIMA_RETENTATIVA_MILLIS = 5_000;
+    private static final byte[] QUEBRA_LINHA = {'\n'};
+
+    public enum Tipo {
+        CRIAR, CONCLUIR
+    }
+
+    // Uma linha do journal; linhas gravadas antes do multi-tenant não têm tenant e ficam no padrão
+    public record Operacao(long sequencia, Tipo tipo, String titulo, Long taskId, String tenant) {
+        public Operacao {
+            tenant = tenant != null ? tenant : ContextoTenant.PADRAO;
+        }
+    }
+
+    // Só o tenant que pediu a escrita consulta a situação dela
+    private record Resultado(String tenant, SituacaoEscrita situacao) {
+    }
+
+    private final TaskService service;
+    private final PosicaoFilaRepository posicoes;
+    private final TransactionTemplate transacao;
+    private final ObjectMapper objectMapper;
+    private final Path caminhoJournal;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final long intervaloNanos;
+    private final long esperaMaximaNanos;
+
+    private final BlockingQueue<Operacao> fila = new LinkedBlockingQueue<>();
+    private final Object travaEscrita = new Object();
+    private final Object travaSincronia = new Object();
+    private final Map<Long, Resultado> resultados = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Resultado> maisAntigo) {
+            return size() > RESULTADOS_GUARDADOS;
+        }
+    };
+    // Vagas da fila; devolvidas quando o lote é gravado
+    private Semaphore vagas;
+    // Operações reaplicadas além da capacidade: as primeiras gravações as descontam em vez de devolver vagas
+    private int excedente;
+    private String chave;
+    private FileChannel journal;
+    private long sequencia;
+    private long sincronizadoAte;
+    private volatile boolean aceitando;
+    private Thread gravador;
+
+    public FilaEscrita(TaskService service, PosicaoFilaRepository posicoes, TransactionTemplate transacao,
+                       ObjectMapper objectMapper, MeterRegistry registro,
+                       @Value("${todo.escrita-assincrona.journal:data/todo-escritas.journal}") Path caminhoJournal,
+                       @Value("${todo.escrita-assincrona.capacidade:10000}") int capacidade,
+                       @Value("${todo.escrita-assincrona.tamanho-lote:500}") int tamanhoLote,
+                       @Value("${todo.escrita-assincrona.intervalo:20ms}") Duration intervalo,
+                       @Value("${todo.escrita-assincrona.espera-maxima:200ms}") Duration esperaMaxima) {
+        this.service = service;
+        this.posicoes = posicoes;
+        this.transacao = transacao;
+        this.objectMapper = objectMapper;
+        this.caminhoJournal = caminhoJournal;
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloNanos = intervalo.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        Gauge.builder("todo.fila.escrita.pendentes", fila, BlockingQueue::size)
+                .description("Escritas aceitas (202) ainda não gravadas no banco")
+                .register(registro);
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        Files.createDirectories(caminhoJournal.toAbsolutePath().getParent());
+        boolean anteriorAIdentidade = Files.exists(caminhoJournal) && !Files.exists(arquivoIdentidade());
+        chave = identificarJournal();
+        long aplicada = posicoes.findById(anteriorAIdentidade ? NOME : chave).map(PosicaoFila::getSequencia).orElse(0L);
+        List<Operacao> pendentes = recuperar(aplicada);
+        if (!pendentes.isEmpty()) {
+            log.info("Reaplicando {} escritas aceitas antes da última parada", pendentes.size());
+        }
+        pendentes.forEach(operacao -> registrar(operacao, Situacao.PENDENTE, null));
+        fila.addAll(pendentes);
+        excedente = Math.max(0, pendentes.size() - capacidade);
+        vagas = new Semaphore(Math.max(0, capacidade - pendentes.size()));
+        journal = FileChannel.open(caminhoJournal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        aceitando = true;
+        gravador = new Thread(this::gravarContinuamente, "fila-escrita");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    private Path arquivoIdentidade() {
+        return caminhoJournal.resolveSibling(caminhoJournal.getFileName() + ".id");
+    }
+
+    // Lê a identidade do journal ou cria uma nova (gravada com fsync antes do primeiro checkpoint)
+    private String identificarJournal() throws IOException {
+        Path arquivo = arquivoIdentidade();
+        if (Files.exists(arquivo)) {
+            return Files.readString(arquivo).strip();
+        }
+        String identidade = NOME + "-" + UUID.randomUUID();
+        Path temporario = Files.createTempFile(caminhoJournal.toAbsolutePath().getParent(), "journal", ".id.tmp");
+        try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+            novo.write(ByteBuffer.wrap(identidade.getBytes(StandardCharsets.UTF_8)));
+            novo.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+        return identidade;
+    }
+
+    // Lê o journal, guarda só o que ainda não foi aplicado e o reescreve (descartando uma última linha incompleta)
+    private List<Operacao> recuperar(long aplicada) throws IOException {
+        sequencia = aplicada;
+        Path diretorio = caminhoJournal.toAbsolutePath().getParent();
+        if (!Files.exists(caminhoJournal)) {
+            return List.of();
+        }
+        List<Operacao> pendentes = new ArrayList<>();
+        try (BufferedReader leitor = Files.newBufferedReader(caminhoJournal)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                Operacao operacao;
+                try {
+                    operacao = objectMapper.readValue(linha, Operacao.class);
+                } catch (JsonProcessingException e) {
+                    log.warn("Linha incompleta no fim do journal {} descartada", caminhoJournal);
+                    break;
+                }
+                sequencia = Math.max(sequencia, operacao.sequencia());
+                if (operacao.sequencia() > aplicada) {
+                    pendentes.add(operacao);
+                }
+            }
+        }
+        Path temporario = Files.createTempFile(diretorio, "journal", ".tmp");
+        try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+            for (Operacao operacao : pendentes) {
+                novo.write(linha(operacao));
+            }
+            novo.force(true);
+        }
+        Files.move(temporario, caminhoJournal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return pendentes;
+    }
+
+    public EscritaAceita criar(String titulo) {
+        return enfileirar(Tipo.CRIAR, titulo, null);
+    }
+
+    public EscritaAceita concluir(Long taskId) {
+        return enfileirar(Tipo.CONCLUIR, null, taskId);
+    }
+
+    public SituacaoEscrita situacao(long idProvisorio) {
+        Resultado resultado;
+        synchronized (resultados) {
+            resultado = resultados.get(idProvisorio);
+        }
+        return resultado != null && resultado.tenant().equals(ContextoTenant.atual()) ? resultado.situacao() : null;
+    }
+
+    // Anota no journal e enfileira; null se a fila continuar cheia depois da espera máxima (backpressure)
+    private EscritaAceita enfileirar(Tipo tipo, String titulo, Long taskId) {
+        try {
+            if (!aceitando || !vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        Operacao operacao;
+        long fim;
+        synchronized (travaEscrita) {
+            operacao = new Operacao(sequencia + 1, tipo, titulo, taskId, ContextoTenant.atual());
+            try {
+                journal.write(linha(operacao));
+                fim = journal.position();
+            } catch (IOException e) {
+                vagas.release();
+                throw new UncheckedIOException("Falha ao anotar a escrita no journal", e);
+            }
+            sequencia++;
+            registrar(operacao, Situacao.PENDENTE, null);
+            fila.add(operacao);
+        }
+        try {
+            sincronizar(fim);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha no fsync do journal", e);
+        }
+        return new EscritaAceita(operacao.sequencia());
+    }
+
+    // Quem chega enquanto outro faz o fsync é coberto pelo fsync seguinte, um só para todos
+    private void sincronizar(long ate) throws IOException {
+        synchronized (travaSincronia) {
+            if (sincronizadoAte >= ate) {
+                return;
+            }
+            long alvo;
+            synchronized (travaEscrita) {
+                alvo = journal.position();
+            }
+            journal.force(false);
+            sincronizadoAte = alvo;
+        }
+    }
+
+    private ByteBuffer[] linha(Operacao operacao) throws JsonProcessingException {
+        return new ByteBuffer[]{ByteBuffer.wrap(objectMapper.writeValueAsBytes(operacao)), ByteBuffer.wrap(QUEBRA_LINHA)};
+    }
+
+    private void registrar(Operacao operacao, Situacao situacao, Long taskId) {
+        synchronized (resultados) {
+            resultados.put(operacao.sequencia(), new Resultado(operacao.tenant(),
+                    new SituacaoEscrita(operacao.sequencia(), situacao, taskId)));
+        }
+    }
+
+    // Um lote fecha ao atingir tamanho-lote ou quando passa o intervalo desde a primeira operação
+    private void gravarContinuamente() {
+        List<Operacao> lote = new ArrayList<>(tamanhoLote);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                Operacao primeira = fila.poll(intervaloNanos, TimeUnit.NANOSECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                long prazo = System.nanoTime() + intervaloNanos;
+                while (lote.size() < tamanhoLote) {
+                    Operacao proxima = fila.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (proxima == null) {
+                        break;
+                    }
+                    lote.add(proxima);
+                }
+                gravar(lote);
+                liberarVagas(lote.size());
+                lote.clear();
+                compactarJournal();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Falha ao compactar o journal {}", caminhoJournal, e);
+            }
+        }
+    }
+
+    private void liberarVagas(int gravadas) {
+        int descontadas = Math.min(excedente, gravadas);
+        excedente -= descontadas;
+        vagas.release(gravadas - descontadas);
+    }
+
+    // Uma transação (e a sessão do Hibernate) só enxerga um tenant: o lote é gravado em trechos
+    // consecutivos do mesmo tenant, na ordem do journal, cada um com o seu checkpoint
+    private void gravar(List<Operacao> lote) throws InterruptedException {
+        int inicio = 0;
+        for (int i = 1; i <= lote.size(); i++) {
+            if (i == lote.size() || !lote.get(i).tenant().equals(lote.get(inicio).tenant())) {
+                gravarTrecho(lote.get(inicio).tenant(), lote.subList(inicio, i));
+                inicio = i;
+            }
+        }
+    }
+
+    private void gravarTrecho(String tenant, List<Operacao> trecho) throws InterruptedException {
+        long ate = trecho.get(trecho.size() - 1).sequencia();
+        try {
+            comRetentativa(() -> aplicar(tenant, trecho, ate));
+        } catch (RuntimeException e) {
+            // Alguma operação do trecho é inválida: grava uma a uma para isolar a culpada
+            for (Operacao operacao : trecho) {
+                try {
+                    comRetentativa(() -> aplicar(tenant, List.of(operacao), operacao.sequencia()));
+                } catch (RuntimeException falha) {
+                    log.warn("Escrita {} descartada: {}", operacao, falha.getMessage());
+                    comRetentativa(() -> aplicar(tenant, List.of(), operacao.sequencia()));
+                    registrar(operacao, Situacao.FALHOU, operacao.taskId());
+                }
+            }
+        }
+    }
+
+    // Banco fora do ar não descarta nada: o lote é tentado de novo com espera crescente
+    private void comRetentativa(Runnable gravacao) throws InterruptedException {
+        long espera = Math.max(1, TimeUnit.NANOSECONDS.toMillis(intervaloNanos));
+        while (true) {
+            try {
+                gravacao.run();
+                return;
+            } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+                log.warn("Banco indisponível para a fila de escrita, nova tentativa em {} ms: {}", espera, e.getMessage());
+                Thread.sleep(espera);
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_RETENTATIVA_MILLIS);
+            }
+        }
+    }
+
+    private void aplicar(String tenant, List<Operacao> operacoes, long ate) {
+        List<Operacao> criacoes = operacoes.stream().filter(o -> o.tipo() == Tipo.CRIAR).toList();
+        List<Operacao> conclusoes = operacoes.stream().filter(o -> o.tipo() == Tipo.CONCLUIR).toList();
+        Set<Long> existentes = new HashSet<>();
+        List<Task> criadas = ContextoTenant.executarComo(tenant, () -> transacao.execute(status -> {
+            List<Task> salvas = criacoes.isEmpty() ? List.of()
+                    : service.criarEmLote(criacoes.stream().map(Operacao::titulo).toList());
+            if (!conclusoes.isEmpty()) {
+                List<Long> ids = conclusoes.stream().map(Operacao::taskId).distinct().toList();
+                existentes.addAll(service.existentes(ids));
+                service.concluirEmLote(existentes);
+            }
+            posicoes.save(new PosicaoFila(chave, ate));
+            return salvas;
+        }));
+        for (int i = 0; i < criacoes.size(); i++) {
+            registrar(criacoes.get(i), Situacao.GRAVADA, criadas.get(i).getId());
+        }
+        // Conclusão de uma task que não existe (ou é de outro tenant) falha como no modo síncrono
+        conclusoes.forEach(o -> registrar(o, existentes.contains(o.taskId()) ? Situacao.GRAVADA : Situacao.FALHOU,
+                o.taskId()));
+    }
+
+    private void compactarJournal() throws IOException {
+        synchronized (travaSincronia) {
+            synchronized (travaEscrita) {
+                if (fila.isEmpty() && journal.position() > TAMANHO_COMPACTACAO) {
+                    journal.truncate(0);
+                    sincronizadoAte = 0;
+                }
+            }
+        }
+    }
+
+    // Para de aceitar, grava o que já está na fila e fecha o journal; o que sobrar é reaplicado na próxima subida
+    @PreDestroy
+    void encerrar() throws InterruptedException, IOException {
+        aceitando = false;
+        gravador.join(30_000);
+        synchronized (travaEscrita) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.PaginaTasksArquivadas;
+import com.exemplo.todo.entity.TaskArquivada;
+import com.exemplo.todo.repository.TaskArquivadaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Leitura das tasks movidas pelo ArquivamentoTasks; fica disponível mesmo com o arquivamento desligado
+@Service
+@ConditionalOnProperty(name = "todo.armazenamento", havingValue = "jpa", matchIfMissing = true)
+public class TaskArquivadaService {
+
+    private final TaskArquivadaRepository repository;
+
+    public TaskArquivadaService(TaskArquivadaRepository repository) {
+        this.repository = repository;
+    }
+
+    // Página a partir do cursor (último id recebido), em ordem de id
+    @Transactional(readOnly = true)
+    public PaginaTasksArquivadas listar(Long cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TaskService.TAMANHO_MAXIMO_PAGINA));
+        // Busca um registro a mais só para saber se existe próxima página
+        List<TaskArquivada> tasks = repository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(limite + 1));
+        if (tasks.size() <= limite) {
+            return new PaginaTasksArquivadas(tasks, null);
+        }
+        List<TaskArquivada> conteudo = tasks.subList(0, limite);
+        return new PaginaTasksArquivadas(conteudo, conteudo.get(limite - 1).getId());
+    }
+
+    @Transactional(readOnly = true)
+    public TaskArquivada buscarPorId(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tarefa arquivada não encontrada"));
+    }
+}
@@ -1,37 +1,201 @@
 package com.exemplo.todo.service;
 
+import com.exemplo.todo.dto.PaginaTasks;
+import com.exemplo.todo.dto.ResumoVersoes;
+import com.exemplo.todo.dto.TaskResumo;
 import com.exemplo.todo.entity.Task;
 import com.exemplo.todo.repository.TaskRepository;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import com.exemplo.todo.service.FeedAlteracoes.Tipo;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 
 @Service
+@Observed(name = "todo.servico")
 public class TaskService {
 
+    static final int TAMANHO_LOTE = 1000;
+    static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
     private final TaskRepository repository;
+    private final ApplicationEventPublisher eventos;
 
-    public TaskService(TaskRepository repository) {
+    public TaskService(TaskRepository repository, ApplicationEventPublisher eventos) {
         this.repository = repository;
+        this.eventos = eventos;
     }
 
     public Task criarTask(String titulo) {
         Task task = new Task();
         task.setTitulo(titulo);
-        return repository.save(task);
+        Task salva = repository.save(task);
+        publicar(Tipo.CRIADO, salva);
+        return salva;
     }
 
+    @Transactional(readOnly = true)
     public List<Task> listarTodas() {
         return repository.findAll();
     }
 
-    public Task marcarComoConcluida(Long id) {
-        Task task = repository.findById(id)
+    public Task buscarPorId(Long id) {
+        return repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tarefa não encontrada"));
-        task.setConcluida(true);
-        return repository.save(task);
+    }
+
+    // Versão da listagem do tenant para o ETag (uma linha lida pela chave)
+    @Transactional(readOnly = true)
+    public ResumoVersoes resumirVersoes() {
+        return repository.resumirVersoes();
+    }
+
+    // Lista uma página de resumos filtrada; o cursor é o último id recebido na página anterior
+    @Transactional(readOnly = true)
+    public PaginaTasks listarResumos(Boolean concluida, String prefixo, Long cursor, int tamanho, boolean decrescente) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        // Busca um registro a mais só para saber se existe próxima página
+        PageRequest pagina = PageRequest.ofSize(limite + 1);
+        String padrao = prefixo == null || prefixo.isEmpty() ? null : escaparLike(prefixo) + "%";
+        List<TaskResumo> tasks = decrescente
+                ? repository.listarResumosDecrescente(cursor == null ? Long.MAX_VALUE : cursor, concluida, padrao, pagina)
+                : repository.listarResumos(cursor == null ? 0L : cursor, concluida, padrao, pagina);
+        if (tasks.size() <= limite) {
+            return new PaginaTasks(tasks, null);
+        }
+        List<TaskResumo> conteudo = tasks.subList(0, limite);
+        return new PaginaTasks(conteudo, conteudo.get(limite - 1).id());
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public Task marcarComoConcluida(Long id) {
+        return marcarComoConcluida(id, null);
+    }
+
+    // Conclui exigindo a versão esperada (If-Match); nula dispensa a checagem
+    public Task marcarComoConcluida(Long id, Long versaoEsperada) {
+        Task atual = buscarPorId(id);
+        if (versaoEsperada != null && !versaoEsperada.equals(atual.getVersao())) {
+            throw conflitoDeVersao();
+        }
+        // Grava uma instância nova; se a gravação falhar, a carregada continua como estava
+        Task task = new Task(atual.getId(), atual.getTitulo(), true, atual.getVersao());
+        // Concluir de novo não adia o arquivamento
+        task.setConcluidaEm(atual.isConcluida() && atual.getConcluidaEm() != null ? atual.getConcluidaEm() : Instant.now());
+        Task salva;
+        try {
+            salva = repository.save(task);
+        } catch (OptimisticLockingFailureException e) {
+            // Outra gravação passou entre a leitura e o UPDATE
+            throw conflitoDeVersao();
+        }
+        publicar(Tipo.ATUALIZADO, salva);
+        return salva;
+    }
+
+    private static ResponseStatusException conflitoDeVersao() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Tarefa alterada por outra requisição; recarregue e tente de novo.");
     }
 
     public void excluirTask(Long id) {
         repository.deleteById(id);
+        eventos.publishEvent(new Alteracao(Tipo.EXCLUIDO, id, null));
+    }
+
+    // O feed recebe um resumo imutável, não a entidade (que o chamador ainda pode alterar)
+    private void publicar(Tipo tipo, Task task) {
+        eventos.publishEvent(new Alteracao(tipo, task.getId(), new TaskResumo(task.getId(), task.getTitulo(), task.isConcluida())));
+    }
+
+    // Cria várias tasks em uma transação (usado pela fila de escrita)
+    @Transactional
+    public List<Task> criarEmLote(List<String> titulos) {
+        List<Task> tasks = new ArrayList<>(titulos.size());
+        for (String titulo : titulos) {
+            Task task = new Task();
+            task.setTitulo(titulo);
+            tasks.add(task);
+        }
+        List<Task> salvas = repository.saveAll(tasks);
+        salvas.forEach(task -> publicar(Tipo.CRIADO, task));
+        return salvas;
+    }
+
+    // Conclui as tasks informadas; retorna quantas estavam pendentes e foram concluídas
+    @Transactional
+    public int concluirEmLote(Collection<Long> ids) {
+        return emBlocos(ids, repository::concluirPorIds);
+    }
+
+    // Entre os ids informados, os que existem no tenant atual
+    @Transactional(readOnly = true)
+    public Set<Long> existentes(Collection<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        repository.findAllById(ids).forEach(task -> existentes.add(task.getId()));
+        return existentes;
+    }
+
+    @Transactional
+    public int excluirEmLote(Collection<Long> ids) {
+        return emBlocos(ids, repository::excluirPorIds);
+    }
+
+    @Transactional
+    public int concluirPendentes() {
+        return porSituacao(false, repository::concluirPorIds);
+    }
+
+    @Transactional
+    public int excluirConcluidas() {
+        return porSituacao(true, repository::excluirPorIds);
+    }
+
+    private int emBlocos(Collection<Long> ids, ToIntFunction<List<Long>> operacao) {
+        List<Long> lista = new ArrayList<>(ids);
+        int afetadas = 0;
+        for (int inicio = 0; inicio < lista.size(); inicio += TAMANHO_LOTE) {
+            afetadas += operacao.applyAsInt(lista.subList(inicio, Math.min(lista.size(), inicio + TAMANHO_LOTE)));
+        }
+        publicarLote(afetadas);
+        return afetadas;
+    }
+
+    // Percorre por keyset os ids na situação informada, aplicando a operação bloco a bloco
+    private int porSituacao(boolean concluida, ToIntFunction<List<Long>> operacao) {
+        int afetadas = 0;
+        long cursor = 0L;
+        List<Long> bloco;
+        do {
+            bloco = repository.findIdsPorSituacao(concluida, cursor, PageRequest.ofSize(TAMANHO_LOTE));
+            if (!bloco.isEmpty()) {
+                afetadas += operacao.applyAsInt(bloco);
+                cursor = bloco.get(bloco.size() - 1);
+            }
+        } while (bloco.size() == TAMANHO_LOTE);
+        publicarLote(afetadas);
+        return afetadas;
+    }
+
+    // Operações em lote geram um único evento; inscritos recarregam a listagem
+    private void publicarLote(int afetadas) {
+        if (afetadas > 0) {
+            eventos.publishEvent(new Alteracao(Tipo.LOTE, null, null));
+        }
     }
 }
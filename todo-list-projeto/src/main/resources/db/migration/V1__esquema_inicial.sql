@@ -0,0 +1,17 @@
+-- Esquema equivalente ao gerado pelo Hibernate a partir das entidades Task e PosicaoFila
+create table task (
+    id bigint generated by default as identity,
+    titulo varchar(255),
+    concluida boolean not null,
+    versao bigint not null,
+    primary key (id)
+);
+
+create index idx_task_concluida_id on task (concluida, id);
+create index idx_task_titulo on task (titulo);
+
+create table fila_escrita_posicao (
+    fila varchar(255) not null,
+    sequencia bigint not null,
+    primary key (fila)
+);
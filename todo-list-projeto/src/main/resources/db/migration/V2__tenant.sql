@@ -0,0 +1,10 @@
+-- Multi-tenant por coluna: tasks existentes ficam no tenant padrão e os índices passam a começar
+-- pelo tenant, já que toda consulta filtra por ele
+alter table task add column tenant varchar(64) default 'padrao' not null;
+
+drop index idx_task_concluida_id;
+drop index idx_task_titulo;
+
+create index idx_task_tenant_concluida_id on task (tenant, concluida, id);
+create index idx_task_tenant_titulo on task (tenant, titulo);
+create index idx_task_tenant_id on task (tenant, id);
@@ -0,0 +1,18 @@
+-- Arquivamento das tasks concluídas: data de conclusão na tabela task e tabela fria task_arquivada.
+-- As já concluídas passam a contar a idade a partir desta migração
+alter table task add column concluida_em timestamp(6) with time zone;
+update task set concluida_em = current_timestamp where concluida;
+
+create index idx_task_tenant_concluida_em on task (tenant, concluida_em);
+
+create table task_arquivada (
+    id bigint not null,
+    titulo varchar(255),
+    versao bigint not null,
+    concluida_em timestamp(6) with time zone,
+    arquivada_em timestamp(6) with time zone not null,
+    tenant varchar(64) default 'padrao' not null,
+    primary key (id)
+);
+
+create index idx_task_arquivada_tenant_id on task_arquivada (tenant, id);
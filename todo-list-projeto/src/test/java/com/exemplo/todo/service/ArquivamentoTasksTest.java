@@ -0,0 +1,102 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.MultiTenantConfig;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.entity.TaskArquivada;
+import com.exemplo.todo.repository.TaskArquivadaRepository;
+import com.exemplo.todo.repository.TaskJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(MultiTenantConfig.class)
+class ArquivamentoTasksTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TaskJpaRepository tasks;
+    @Autowired
+    private TaskArquivadaRepository arquivadas;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    @Autowired
+    private Environment ambiente;
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private ArquivamentoTasks arquivamento;
+
+    @BeforeEach
+    void preparar() {
+        // Lotes de 2 para passar por mais de uma transação
+        arquivamento = new ArquivamentoTasks(tasks, entityManager.getEntityManager(), new TransactionTemplate(transactionManager),
+                eventos, registro, ambiente, Duration.ofDays(30), 2, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Deve mover só as tasks concluídas há mais tempo que a idade configurada")
+    void deveMoverConcluidasAntigas() {
+        // Cenário
+        Instant antiga = Instant.now().minus(40, ChronoUnit.DAYS);
+        List<Task> antigas = List.of(concluida("Antiga 1", antiga), concluida("Antiga 2", antiga), concluida("Antiga 3", antiga));
+        Task recente = concluida("Recente", Instant.now().minus(1, ChronoUnit.DAYS));
+        Task pendente = entityManager.persistAndFlush(new Task(null, "Pendente", false));
+
+        // Ação
+        int movidas = arquivamento.arquivar();
+
+        // Verificação
+        assertEquals(3, movidas);
+        assertEquals(List.of(recente.getId(), pendente.getId()), tasks.findAll().stream().map(Task::getId).sorted().toList());
+        List<TaskArquivada> frias = arquivadas.findAll();
+        assertEquals(antigas.stream().map(Task::getId).toList(), frias.stream().map(TaskArquivada::getId).sorted().toList());
+        TaskArquivada primeira = arquivadas.findById(antigas.get(0).getId()).orElseThrow();
+        assertEquals("Antiga 1", primeira.getTitulo());
+        assertNotNull(primeira.getArquivadaEm());
+        assertEquals(3.0, registro.get("todo.arquivamento.tasks").counter().count());
+        assertEquals(1, registro.get("todo.arquivamento.duracao").timer().count());
+
+        // Uma nova execução não encontra mais nada
+        assertEquals(0, arquivamento.arquivar());
+    }
+
+    @Test
+    @DisplayName("Deve datar as concluídas sem data de conclusão e arquivá-las quando atingirem a idade")
+    void deveArquivarConcluidasSemData() {
+        // Cenário: concluída antes de existir concluida_em (banco criado pelo ddl-auto, sem a V3)
+        Task legada = concluida("Legada", null);
+        ArquivamentoTasks semIdade = new ArquivamentoTasks(tasks, entityManager.getEntityManager(),
+                new TransactionTemplate(transactionManager), eventos, registro, ambiente, Duration.ZERO, 2, Duration.ZERO);
+
+        // Ação e Verificação: a primeira execução só a data, como a migração; a seguinte já a encontra
+        assertEquals(0, semIdade.arquivar());
+        assertNotNull(tasks.findById(legada.getId()).orElseThrow().getConcluidaEm());
+        assertEquals(1, semIdade.arquivar());
+        assertTrue(arquivadas.findById(legada.getId()).isPresent());
+    }
+
+    private Task concluida(String titulo, Instant concluidaEm) {
+        Task task = new Task(null, titulo, true);
+        task.setConcluidaEm(concluidaEm);
+        return entityManager.persistAndFlush(task);
+    }
+}
@@ -0,0 +1,239 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.service.FeedAlteracoes.Alteracao;
+import com.exemplo.todo.service.FeedAlteracoes.Evento;
+import com.exemplo.todo.service.FeedAlteracoes.Tipo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedAlteracoesTest {
+
+    private final FeedAlteracoes feed = new FeedAlteracoes(3, 10_000, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        feed.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve devolver apenas os eventos posteriores ao offset informado")
+    void deveRetomarAPartirDoOffset() {
+        // Cenário
+        feed.aoAlterar(new Alteracao(Tipo.CRIADO, 1L, null));
+        feed.aoAlterar(new Alteracao(Tipo.ATUALIZADO, 1L, null));
+        feed.aoAlterar(new Alteracao(Tipo.EXCLUIDO, 1L, null));
+
+        // Ação
+        List<Evento> eventos = feed.eventosDesde(ContextoTenant.PADRAO, 1);
+
+        // Verificação
+        assertEquals(List.of(2L, 3L), eventos.stream().map(Evento::offset).toList());
+        assertEquals(Tipo.EXCLUIDO, eventos.get(1).tipo());
+        assertTrue(feed.eventosDesde(ContextoTenant.PADRAO, 3).isEmpty(), "Cliente em dia não deveria receber nada");
+    }
+
+    @Test
+    @DisplayName("Deve pedir recarga quando o offset já saiu do buffer ou é de antes de um reinício")
+    void devePedirRecargaForaDoBuffer() {
+        // Cenário: capacidade 3, cinco eventos; sobram os offsets 3, 4 e 5
+        for (long id = 1; id <= 5; id++) {
+            feed.aoAlterar(new Alteracao(Tipo.CRIADO, id, null));
+        }
+
+        // Ação e Verificação
+        assertNull(feed.eventosDesde(ContextoTenant.PADRAO, 1), "Offset 2 já foi sobrescrito");
+        assertEquals(List.of(3L, 4L, 5L), feed.eventosDesde(ContextoTenant.PADRAO, 2).stream().map(Evento::offset).toList());
+        assertNull(feed.eventosDesde(ContextoTenant.PADRAO, 42), "Offset maior que o último indica servidor reiniciado");
+    }
+
+    @Test
+    @DisplayName("Deve entregar na ordem dos offsets alterações gravadas ao mesmo tempo")
+    void deveEntregarEmOrdemComGravacoesConcorrentes() throws Exception {
+        // Cenário
+        FeedAlteracoes grande = new FeedAlteracoes(10_000, 10_000, Duration.ofMinutes(1));
+        EmissorAnotado emissor = new EmissorAnotado();
+        grande.inscrever(null, emissor);
+
+        // Ação
+        gravarEmParalelo(grande, 4, 500, null);
+
+        // Verificação
+        assertEquals(LongStream.rangeClosed(1, 2000).boxed().toList(), emissor.aguardar(2000));
+        grande.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve reenviar os perdidos sem duplicar quem se inscreve durante as gravações")
+    void deveRetomarSemDuplicarDuranteGravacoes() throws Exception {
+        // Cenário
+        FeedAlteracoes grande = new FeedAlteracoes(10_000, 10_000, Duration.ofMinutes(1));
+        EmissorAnotado emissor = new EmissorAnotado();
+
+        // Ação: o cliente reconecta (desde o início) no meio das gravações
+        gravarEmParalelo(grande, 4, 500, () -> grande.inscrever(0L, emissor));
+
+        // Verificação: cada offset exatamente uma vez, em ordem
+        assertEquals(LongStream.rangeClosed(1, 2000).boxed().toList(), emissor.aguardar(2000));
+        grande.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve manter offsets, buffer e inscritos separados por tenant")
+    void deveSepararFeedPorTenant() throws Exception {
+        // Cenário: globex inscrita; acme grava mais alterações que a capacidade, globex grava uma
+        EmissorAnotado daGlobex = new EmissorAnotado();
+        ContextoTenant.executarComo("globex", () -> feed.inscrever(null, daGlobex));
+        ContextoTenant.executarComo("acme", () -> {
+            for (long id = 1; id <= 5; id++) {
+                feed.aoAlterar(new Alteracao(Tipo.CRIADO, id, null));
+            }
+        });
+        ContextoTenant.executarComo("globex", () -> feed.aoAlterar(new Alteracao(Tipo.CRIADO, 9L, null)));
+
+        // Verificação: a globex só recebe o seu evento, com o seu próprio offset 1
+        assertEquals(List.of(1L), daGlobex.aguardar(1));
+        List<Evento> daGlobexDesdeOInicio = feed.eventosDesde("globex", 0);
+        assertEquals(List.of(9L), daGlobexDesdeOInicio.stream().map(Evento::id).toList());
+        assertNull(feed.eventosDesde("globex", 5), "Offset da acme não vale no feed da globex");
+        assertEquals(List.of(3L, 4L, 5L), feed.eventosDesde("acme", 2).stream().map(Evento::offset).toList());
+        assertTrue(feed.eventosDesde(ContextoTenant.PADRAO, 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve deixar um inscrito que parou de ler atrasar os outros nem acumular eventos")
+    void deveDesconectarInscritoQueParouDeLer() throws Exception {
+        // Cenário: fila de 5 por inscrito; o primeiro trava no primeiro envio, o segundo lê normalmente
+        FeedAlteracoes feed = new FeedAlteracoes(10_000, 5, Duration.ofMinutes(1));
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmissorAnotado travado = new EmissorAnotado(liberar);
+        EmissorAnotado emDia = new EmissorAnotado();
+        feed.inscrever(null, travado);
+        feed.inscrever(null, emDia);
+
+        // Ação: 20 gravações, cada uma depois de o inscrito em dia receber a anterior; nenhuma espera o travado
+        long gravandoNanos = 0;
+        for (long id = 1; id <= 20; id++) {
+            long inicio = System.nanoTime();
+            feed.aoAlterar(new Alteracao(Tipo.CRIADO, id, null));
+            gravandoNanos += System.nanoTime() - inicio;
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (emDia.offsets.size() < id && System.nanoTime() < limite) {
+                Thread.sleep(1);
+            }
+        }
+
+        // Verificação
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(gravandoNanos) < 1000, "Gravação esperou o inscrito travado");
+        assertEquals(LongStream.rangeClosed(1, 20).boxed().toList(), emDia.aguardar(20));
+        liberar.countDown();
+        // O travado termina o envio em curso, recebe resync e é desconectado, sem o resto da fila
+        assertTrue(travado.aguardarConclusao(), "Inscrito atrasado deveria ser desconectado");
+        assertEquals(List.of(1L), travado.aguardar(1));
+        assertEquals(List.of("resync"), travado.nomesSemId);
+        feed.aoAlterar(new Alteracao(Tipo.CRIADO, 21L, null));
+        assertEquals(21, emDia.aguardar(21).size());
+        assertEquals(List.of(1L), travado.aguardar(1));
+        feed.encerrar();
+    }
+
+    // Cada thread grava "porThread" alterações; "noMeio" roda quando metade delas já foi gravada
+    private static void gravarEmParalelo(FeedAlteracoes feed, int threads, int porThread, Runnable noMeio) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch metade = new CountDownLatch(threads * porThread / 2);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                awaitSemInterrupcao(largada);
+                for (int i = 0; i < porThread; i++) {
+                    feed.aoAlterar(new Alteracao(Tipo.CRIADO, (long) i, null));
+                    metade.countDown();
+                }
+            });
+        }
+        largada.countDown();
+        if (noMeio != null) {
+            metade.await();
+            noMeio.run();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static void awaitSemInterrupcao(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Emissor sem conexão que só anota os offsets (id do evento SSE) na ordem de envio, e o nome dos
+    // eventos sem id (resync). Com "liberar", o primeiro envio espera, como um cliente que parou de ler
+    private static final class EmissorAnotado extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("^id:(\\d+)", Pattern.MULTILINE);
+        private static final Pattern NOME = Pattern.compile("^event:(\\w+)", Pattern.MULTILINE);
+
+        private final List<Long> offsets = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> nomesSemId = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch liberar;
+        private final CountDownLatch concluido = new CountDownLatch(1);
+
+        EmissorAnotado() {
+            this(new CountDownLatch(0));
+        }
+
+        EmissorAnotado(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) {
+            awaitSemInterrupcao(liberar);
+            String texto = evento.build().iterator().next().getData().toString();
+            Matcher id = ID.matcher(texto);
+            if (id.find()) {
+                offsets.add(Long.valueOf(id.group(1)));
+            } else {
+                Matcher nome = NOME.matcher(texto);
+                nomesSemId.add(nome.find() ? nome.group(1) : texto);
+            }
+        }
+
+        @Override
+        public void complete() {
+            concluido.countDown();
+        }
+
+        boolean aguardarConclusao() throws InterruptedException {
+            return concluido.await(10, TimeUnit.SECONDS);
+        }
+
+        List<Long> aguardar(int quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (offsets.size() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            // Um pouco mais, para um envio duplicado atrasado aparecer
+            Thread.sleep(50);
+            return List.copyOf(offsets);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.dto.SituacaoEscrita;
+import com.exemplo.todo.dto.SituacaoEscrita.Situacao;
+import com.exemplo.todo.entity.PosicaoFila;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.PosicaoFilaRepository;
+import com.exemplo.todo.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class FilaEscritaTest {
+
+    private static Path diretorio;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private FilaEscrita fila;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private PosicaoFilaRepository posicoes;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registro) throws Exception {
+        diretorio = Files.createTempDirectory("fila-escrita");
+        registro.add("todo.escrita-assincrona.habilitado", () -> "true");
+        registro.add("todo.escrita-assincrona.journal", () -> diretorio.resolve("principal.journal").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveAceitarCriacaoEConclusaoEGravarDepois() throws Exception {
+        // Criação: 202 com id provisório, gravada pela thread da fila
+        String resposta = mockMvc.perform(post("/tasks").param("titulo", "Assíncrona"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/tasks/escritas/")))
+                .andReturn().getResponse().getContentAsString();
+        long idProvisorio = objectMapper.readTree(resposta).get("idProvisorio").asLong();
+        SituacaoEscrita criacao = aguardar(() -> fila.situacao(idProvisorio));
+        assertNotNull(criacao.taskId());
+        assertEquals("Assíncrona", repository.findById(criacao.taskId()).orElseThrow().getTitulo());
+
+        // Conclusão sem If-Match também vai pela fila
+        resposta = mockMvc.perform(put("/tasks/{id}/concluir", criacao.taskId()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        long idConclusao = objectMapper.readTree(resposta).get("idProvisorio").asLong();
+        aguardar(() -> fila.situacao(idConclusao));
+        mockMvc.perform(get("/tasks/escritas/{id}", idConclusao))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.situacao", is("GRAVADA")));
+        assertTrue(repository.findById(criacao.taskId()).orElseThrow().isConcluida());
+    }
+
+    @Test
+    void deveReaplicarNaSubidaSoAsEscritasNaoGravadas() throws Exception {
+        // Cenário: journal de um processo que caiu; a operação 1 já tinha sido gravada, a 2 não,
+        // e a última linha ficou pela metade
+        long aplicada = posicoes.findById(FilaEscrita.NOME).map(PosicaoFila::getSequencia).orElse(0L) + 100;
+        posicoes.save(new PosicaoFila(FilaEscrita.NOME, aplicada + 1));
+        Path journal = diretorio.resolve("recuperacao.journal");
+        Files.writeString(journal, String.join("\n",
+                objectMapper.writeValueAsString(new FilaEscrita.Operacao(aplicada + 1, FilaEscrita.Tipo.CRIAR, "Já gravada", null, null)),
+                objectMapper.writeValueAsString(new FilaEscrita.Operacao(aplicada + 2, FilaEscrita.Tipo.CRIAR, "Perdida no crash", null, null)),
+                "{\"sequencia\":" + (aplicada + 3) + ",\"tip"));
+
+        // Ação: nova instância lendo o journal, como numa subida
+        FilaEscrita recuperada = new FilaEscrita(service, posicoes, transacao, objectMapper, new SimpleMeterRegistry(),
+                journal, 100, 10, Duration.ofMillis(10), Duration.ofMillis(10));
+        recuperada.iniciar();
+        SituacaoEscrita situacao = aguardar(() -> recuperada.situacao(aplicada + 2));
+        recuperada.encerrar();
+
+        // Verificação
+        assertEquals("Perdida no crash", repository.findById(situacao.taskId()).orElseThrow().getTitulo());
+        assertEquals(1, repository.findAll().size(), "A operação já gravada não deveria ser reaplicada");
+        assertFalse(Files.readString(journal).contains("\"sequencia\":" + (aplicada + 3)),
+                "A linha incompleta deveria ser descartada");
+    }
+
+    @Test
+    void deveMarcarComoFalhaAConclusaoDeTaskInexistente() throws Exception {
+        // Cenário
+        Task existente = new Task();
+        existente.setTitulo("Existente");
+        Long id = repository.save(existente).getId();
+
+        // Ação: as duas conclusões entram na fila juntas e tendem a cair no mesmo lote
+        long conclusao = fila.concluir(id).idProvisorio();
+        long inexistente = fila.concluir(id + 1_000).idProvisorio();
+
+        // Verificação
+        aguardar(() -> fila.situacao(conclusao));
+        aguardar(() -> fila.situacao(inexistente), Situacao.FALHOU);
+        assertTrue(repository.findById(id).orElseThrow().isConcluida());
+    }
+
+    @Test
+    void deveManterUmCheckpointPorJournal() throws Exception {
+        // Cenário: duas instâncias, cada uma com o seu journal; a segunda tem uma escrita aceita e não gravada
+        Path primeiro = diretorio.resolve("primeira-instancia.journal");
+        Path segundo = diretorio.resolve("segunda-instancia.journal");
+        iniciar(primeiro).encerrar();
+        iniciar(segundo).encerrar();
+        Files.writeString(segundo, objectMapper.writeValueAsString(
+                new FilaEscrita.Operacao(1, FilaEscrita.Tipo.CRIAR, "Da segunda", null, null)) + "\n");
+
+        // Ação: a primeira grava bem mais escritas antes de a segunda subir de novo
+        FilaEscrita primeira = iniciar(primeiro);
+        long ultima = 0;
+        for (int i = 0; i < 5; i++) {
+            ultima = primeira.criar("Da primeira " + i).idProvisorio();
+        }
+        long ultimaDaPrimeira = ultima;
+        aguardar(() -> primeira.situacao(ultimaDaPrimeira));
+        primeira.encerrar();
+        FilaEscrita segunda = iniciar(segundo);
+        SituacaoEscrita situacao = aguardar(() -> segunda.situacao(1));
+        segunda.encerrar();
+
+        // Verificação: o checkpoint da primeira (5) não fez a segunda pular a sua operação 1
+        assertEquals("Da segunda", repository.findById(situacao.taskId()).orElseThrow().getTitulo());
+        assertEquals(6, repository.findAll().size());
+    }
+
+    private FilaEscrita iniciar(Path journal) throws Exception {
+        FilaEscrita instancia = new FilaEscrita(service, posicoes, transacao, objectMapper, new SimpleMeterRegistry(),
+                journal, 100, 10, Duration.ofMillis(10), Duration.ofMillis(10));
+        instancia.iniciar();
+        return instancia;
+    }
+
+    private static SituacaoEscrita aguardar(Supplier<SituacaoEscrita> consulta) throws InterruptedException {
+        return aguardar(consulta, Situacao.GRAVADA);
+    }
+
+    private static SituacaoEscrita aguardar(Supplier<SituacaoEscrita> consulta, Situacao esperada)
+            throws InterruptedException {
+        long prazo = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < prazo) {
+            SituacaoEscrita situacao = consulta.get();
+            if (situacao != null && situacao.situacao() != Situacao.PENDENTE) {
+                assertEquals(esperada, situacao.situacao());
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        return fail("A escrita não foi gravada a tempo");
+    }
+}
@@ -0,0 +1,102 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// O tenant globex tenta ler e alterar as tasks do tenant acme
+@SpringBootTest
+@AutoConfigureMockMvc
+class IsolamentoTenantTest {
+
+    private static final String DONO = "acme";
+    private static final String OUTRO = "globex";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        ContextoTenant.executarComo(DONO, () -> repository.deleteAll());
+        ContextoTenant.executarComo(OUTRO, () -> repository.deleteAll());
+    }
+
+    @Test
+    @DisplayName("Não deve entregar a outro tenant uma task, nem quando ela está no cache")
+    void naoDeveBuscarTaskDeOutroTenant() throws Exception {
+        // Cenário: a task do dono é lida uma vez e fica no cache
+        Long id = salvarDoDono("Da acme", false);
+        mockMvc.perform(get("/tasks/{id}", id).header("X-Tenant", DONO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo", is("Da acme")));
+        assertNotNull(cacheManager.getCache("tasks").get(ContextoTenant.executarComo(DONO, () -> ContextoTenant.chave(id))));
+
+        // Ação e Verificação
+        ContextoTenant.executarComo(OUTRO, () -> {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> service.buscarPorId(id));
+            assertEquals("Tarefa não encontrada", exception.getMessage());
+        });
+        mockMvc.perform(get("/tasks").header("X-Tenant", OUTRO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertTrue(ContextoTenant.executarComo(OUTRO, () -> repository.findById(id)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve concluir nem excluir tasks de outro tenant, uma a uma ou em lote")
+    void naoDeveAlterarTasksDeOutroTenant() throws Exception {
+        // Cenário
+        Long pendente = salvarDoDono("Pendente da acme", false);
+        Long concluida = salvarDoDono("Concluída da acme", true);
+        String ids = "[" + pendente + "," + concluida + "]";
+
+        // Ação
+        ContextoTenant.executarComo(OUTRO, () -> {
+            assertThrows(RuntimeException.class, () -> service.marcarComoConcluida(pendente));
+            service.excluirTask(pendente);
+        });
+        mockMvc.perform(post("/tasks/lote/concluir").header("X-Tenant", OUTRO)
+                        .contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(jsonPath("$.afetadas", is(0)));
+        mockMvc.perform(post("/tasks/lote/excluir").header("X-Tenant", OUTRO)
+                        .contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(jsonPath("$.afetadas", is(0)));
+        mockMvc.perform(put("/tasks/pendentes/concluir").header("X-Tenant", OUTRO))
+                .andExpect(jsonPath("$.afetadas", is(0)));
+        mockMvc.perform(delete("/tasks/concluidas").header("X-Tenant", OUTRO))
+                .andExpect(jsonPath("$.afetadas", is(0)));
+
+        // Verificação: as duas tasks do dono continuam como estavam
+        mockMvc.perform(get("/tasks").header("X-Tenant", DONO))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.id == " + pendente + ")].concluida", contains(false)))
+                .andExpect(jsonPath("$[?(@.id == " + concluida + ")].concluida", contains(true)));
+    }
+
+    private Long salvarDoDono(String titulo, boolean concluida) {
+        return ContextoTenant.executarComo(DONO, () -> repository.save(new Task(null, titulo, concluida)).getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.exemplo.todo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Deve expor no Prometheus os tempos de endpoints, serviços e repositórios")
+    void deveExporMetricasNoPrometheus() throws Exception {
+        // Cenário
+        mockMvc.perform(post("/tasks").param("titulo", "Medir"));
+        mockMvc.perform(get("/tasks"));
+
+        // Ação e Verificação
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("todo_servico_seconds_count{class=\"com.exemplo.todo.service.TaskService\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")));
+    }
+}
@@ -0,0 +1,33 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Perfil "rapido" com validate: as migrações precisam produzir exatamente o esquema das entidades
+@SpringBootTest(properties = {
+        "spring.profiles.active=rapido",
+        "spring.datasource.url=jdbc:h2:mem:migracoes",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class MigracoesTest {
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void deveCriarEsquemaPelasMigracoes() {
+        // Verificação: o Flyway registrou a V1 e a entidade grava normalmente no esquema migrado
+        assertEquals(1, jdbc.queryForObject("select count(*) from \"flyway_schema_history\" where \"version\" = '1'", Integer.class));
+        Task task = repository.save(new Task(null, "Migrada", false));
+        assertEquals(0L, task.getVersao());
+    }
+}
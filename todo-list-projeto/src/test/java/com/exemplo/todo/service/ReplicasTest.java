@@ -0,0 +1,62 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.RoteamentoDataSource;
+import com.exemplo.todo.repository.TaskRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A "réplica" é o mesmo banco H2 em memória; o teste cobre a montagem dos pools e a aderência ao primário
+@SpringBootTest(properties = {
+        "todo.replicas.habilitado=true",
+        "todo.replicas.urls=jdbc:h2:mem:testdb"
+})
+@AutoConfigureMockMvc
+class ReplicasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RoteamentoDataSource roteamento;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void deveLerPelaReplicaEFixarNoPrimarioAposEscrita() throws Exception {
+        assertNotSame(roteamento, dataSource, "O DataSource principal deveria ser o proxy preguiçoso sobre o roteamento");
+
+        // A escrita devolve o cookie que mantém o cliente no primário
+        Cookie cookie = mockMvc.perform(post("/tasks").param("titulo", "Replicada"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().maxAge("todo-primario", 5))
+                .andReturn().getResponse().getCookie("todo-primario");
+
+        mockMvc.perform(get("/tasks").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].titulo", hasItem("Replicada")));
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].titulo", hasItem("Replicada")));
+    }
+}
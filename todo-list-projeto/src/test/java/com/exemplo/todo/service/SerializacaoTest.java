@@ -0,0 +1,32 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.SerializacaoConfig;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializacaoTest {
+
+    private final ObjectMapper reflexao = new ObjectMapper();
+    private final ObjectMapper manual = new ObjectMapper().registerModule(SerializacaoConfig.modulo());
+
+    @Test
+    void deveGerarOMesmoJsonQueAReflexao() throws Exception {
+        // Cenário: nulos, acentos e caracteres que precisam de escape
+        Task task = new Task(7L, "Revisar \"PR\" ☕", true, 3L);
+        task.setTenant("acme");
+        List<Object> valores = List.of(task, new Task(null, null, false), List.of(
+                new TaskResumo(1L, "Estudar Spring", false), new TaskResumo(2L, "Linha\nnova", true)));
+
+        // Ação e Verificação
+        for (Object valor : valores) {
+            assertEquals(reflexao.writeValueAsString(valor), manual.writeValueAsString(valor));
+        }
+        assertFalse(manual.writeValueAsString(task).contains("acme"));
+    }
+}
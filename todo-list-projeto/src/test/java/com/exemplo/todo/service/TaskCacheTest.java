@@ -0,0 +1,99 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskCacheTest {
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve guardar a task no cache ao salvar e atualizá-lo ao concluir")
+    void deveAtualizarCacheAoConcluir() {
+        // Cenário
+        Task task = repository.save(new Task(null, "Cachear", false));
+
+        // Ação
+        service.marcarComoConcluida(task.getId());
+
+        // Verificação
+        Task emCache = cacheManager.getCache("tasks").get(ContextoTenant.chave(task.getId()), Task.class);
+        assertNotNull(emCache, "A task salva deveria estar no cache");
+        assertTrue(emCache.isConcluida(), "O cache deveria refletir a conclusão");
+        assertTrue(repository.findById(task.getId()).orElseThrow().isConcluida());
+    }
+
+    @Test
+    @DisplayName("Deve remover a task do cache ao excluir")
+    void deveRemoverDoCacheAoExcluir() {
+        // Cenário
+        Task task = repository.save(new Task(null, "Excluir", false));
+
+        // Ação
+        service.excluirTask(task.getId());
+
+        // Verificação
+        assertNull(cacheManager.getCache("tasks").get(ContextoTenant.chave(task.getId())), "A task excluída não deveria estar no cache");
+        assertTrue(repository.findById(task.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve entregar uma instância própria a cada leitura do cache")
+    void deveEntregarCopiasDoCache() {
+        // Cenário
+        Task task = repository.save(new Task(null, "Original", false));
+        Task lida = repository.findById(task.getId()).orElseThrow();
+
+        // Ação: uma requisição altera a instância que recebeu, sem gravar
+        lida.setTitulo("Alterada sem salvar");
+        task.setTitulo("Também alterada");
+
+        // Verificação
+        Task deNovo = repository.findById(task.getId()).orElseThrow();
+        assertEquals("Original", deNovo.getTitulo());
+        assertNotSame(lida, deNovo);
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache ao excluir pela entidade ou por vários ids")
+    void deveRemoverDoCacheEmTodasAsExclusoes() {
+        // Cenário
+        Task primeira = repository.save(new Task(null, "Primeira", false));
+        Task segunda = repository.save(new Task(null, "Segunda", false));
+        Task terceira = repository.save(new Task(null, "Terceira", false));
+
+        // Ação
+        repository.delete(primeira);
+        repository.deleteAllById(List.of(segunda.getId(), terceira.getId()));
+
+        // Verificação
+        for (Task task : List.of(primeira, segunda, terceira)) {
+            assertNull(cacheManager.getCache("tasks").get(ContextoTenant.chave(task.getId())));
+            assertTrue(repository.findById(task.getId()).isEmpty());
+        }
+    }
+}
@@ -11,9 +11,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -28,6 +31,9 @@ class TaskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TaskService service;
+
     // Limpa o banco de dados após cada teste para garantir o isolamento
     @AfterEach
     void tearDown() {
@@ -88,4 +94,134 @@ class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveConcluirTasksEmLoteViaEndpointPost() throws Exception {
+        // Cenário
+        Task primeira = repository.save(new Task(null, "Lote 1", false));
+        Task segunda = repository.save(new Task(null, "Lote 2", false));
+        repository.save(new Task(null, "Fora do lote", false));
+
+        // Ação e Verificação
+        mockMvc.perform(post("/tasks/lote/concluir")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(primeira.getId(), segunda.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afetadas", is(2)));
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(jsonPath("$[?(@.concluida == true)]", hasSize(2)));
+    }
+
+    @Test
+    void deveExcluirTasksConcluidasViaEndpointDelete() throws Exception {
+        // Cenário
+        repository.save(new Task(null, "Feita", true));
+        repository.save(new Task(null, "Também feita", true));
+        repository.save(new Task(null, "A fazer", false));
+
+        // Ação e Verificação
+        mockMvc.perform(delete("/tasks/concluidas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afetadas", is(2)));
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titulo", is("A fazer")));
+    }
+
+    @Test
+    void deveFiltrarEPaginarTasksViaEndpointGet() throws Exception {
+        // Cenário
+        repository.save(new Task(null, "Comprar pão", false));
+        repository.save(new Task(null, "Comprar leite", true));
+        Task segundaPendente = repository.save(new Task(null, "Comprar café", false));
+        repository.save(new Task(null, "Lavar louça", false));
+
+        // Ação e Verificação: só pendentes com o prefixo, uma por página
+        String cursor = mockMvc.perform(get("/tasks")
+                        .param("concluida", "false")
+                        .param("prefixo", "Comprar")
+                        .param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titulo", is("Comprar pão")))
+                .andExpect(header().exists("X-Proximo-Cursor"))
+                .andReturn().getResponse().getHeader("X-Proximo-Cursor");
+
+        mockMvc.perform(get("/tasks")
+                        .param("concluida", "false")
+                        .param("prefixo", "Comprar")
+                        .param("tamanho", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(segundaPendente.getId().intValue())))
+                .andExpect(header().doesNotExist("X-Proximo-Cursor"));
+    }
+
+    @Test
+    void deveRecusarOrdemInvalida() throws Exception {
+        mockMvc.perform(get("/tasks").param("ordem", "decrescente"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks").param("ordem", "DESC"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveResponder304QuandoListaNaoMudou() throws Exception {
+        // Cenário
+        repository.save(new Task(null, "Inalterada", false));
+        String etag = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Ação e Verificação
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Qualquer alteração muda o ETag
+        mockMvc.perform(post("/tasks").param("titulo", "Nova"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void deveMudarEtagUmaVezPorTransacao() throws Exception {
+        // Cenário
+        String etag = mockMvc.perform(get("/tasks"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Ação: três tasks gravadas na mesma transação
+        service.criarEmLote(List.of("Primeira", "Segunda", "Terceira"));
+
+        // Verificação: o contador do tenant sobe uma vez
+        String novo = mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andReturn().getResponse().getHeader("ETag");
+        assertEquals(versao(etag) + 1, versao(novo));
+    }
+
+    private static long versao(String etag) {
+        return Long.parseLong(etag.replace("\"", ""));
+    }
+
+    @Test
+    void deveRecusarConclusaoComIfMatchDesatualizado() throws Exception {
+        // Cenário
+        Task task = repository.save(new Task(null, "Disputada", false));
+        String etag = mockMvc.perform(get("/tasks/{id}", task.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Ação e Verificação: a primeira conclusão usa a versão lida; a segunda, com o mesmo ETag, chega atrasada
+        mockMvc.perform(put("/tasks/{id}/concluir", task.getId()).header("If-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        mockMvc.perform(put("/tasks/{id}/concluir", task.getId()).header("If-Match", etag))
+                .andExpect(status().isConflict());
+    }
+}
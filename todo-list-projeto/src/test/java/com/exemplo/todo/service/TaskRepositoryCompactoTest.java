@@ -0,0 +1,143 @@
+package com.exemplo.todo.service;
+
+import com.exemplo.todo.config.ContextoTenant;
+import com.exemplo.todo.dto.TaskResumo;
+import com.exemplo.todo.entity.Task;
+import com.exemplo.todo.repository.TaskRepositoryCompacto;
+import com.exemplo.todo.repository.TaskRepositoryCompactoPorTenant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRepositoryCompactoTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void deveGravarBuscarEConcluirTasks() {
+        try (TaskRepositoryCompacto repository = new TaskRepositoryCompacto(pasta.resolve("tasks.log"), false)) {
+            // Cenário
+            Task primeira = repository.save(new Task(null, "Estudar Spring", false));
+            Task segunda = repository.save(new Task(null, "Café ☕", false));
+
+            // Ação
+            int concluidas = repository.concluirPorIds(List.of(segunda.getId(), 999L));
+
+            // Verificação
+            assertEquals(1, concluidas);
+            assertEquals(List.of(primeira.getId(), segunda.getId()), repository.findAll().stream().map(Task::getId).toList());
+            Task lida = repository.findById(segunda.getId()).orElseThrow();
+            assertEquals("Café ☕", lida.getTitulo());
+            assertTrue(lida.isConcluida());
+            assertEquals(1L, lida.getVersao());
+            assertEquals("2-" + segunda.getId() + "-1", repository.resumirVersoes().etag());
+        }
+    }
+
+    @Test
+    void deveRecusarGravacaoComVersaoDesatualizada() {
+        try (TaskRepositoryCompacto repository = new TaskRepositoryCompacto(pasta.resolve("tasks.log"), false)) {
+            // Cenário: duas cópias da mesma versão
+            Task task = repository.save(new Task(null, "Disputada", false));
+            Task copia = new Task(task.getId(), task.getTitulo(), false, task.getVersao());
+            task.setConcluida(true);
+            repository.save(task);
+
+            // Ação e Verificação
+            copia.setTitulo("Atrasada");
+            assertThrows(OptimisticLockingFailureException.class, () -> repository.save(copia));
+            assertEquals("Disputada", repository.findById(task.getId()).orElseThrow().getTitulo());
+        }
+    }
+
+    @Test
+    void deveFiltrarPorPrefixoESituacaoComCursor() {
+        try (TaskRepositoryCompacto repository = new TaskRepositoryCompacto(pasta.resolve("tasks.log"), false)) {
+            // Cenário
+            repository.save(new Task(null, "Comprar pão", false));
+            repository.save(new Task(null, "Comprar leite", true));
+            Task terceira = repository.save(new Task(null, "Comprar café", false));
+            repository.save(new Task(null, "Comprar_x", false));
+
+            // Ação: padrão LIKE como o serviço monta ("_" escapado)
+            List<TaskResumo> pendentes = repository.listarResumos(0L, false, "Comprar%", PageRequest.ofSize(10));
+            List<TaskResumo> literal = repository.listarResumos(0L, null, "Comprar\\_%", PageRequest.ofSize(10));
+            List<TaskResumo> anteriores = repository.listarResumosDecrescente(terceira.getId(), null, null, PageRequest.ofSize(1));
+
+            // Verificação
+            assertEquals(List.of("Comprar pão", "Comprar café", "Comprar_x"), pendentes.stream().map(TaskResumo::titulo).toList());
+            assertEquals(List.of("Comprar_x"), literal.stream().map(TaskResumo::titulo).toList());
+            assertEquals(List.of("Comprar leite"), anteriores.stream().map(TaskResumo::titulo).toList());
+        }
+    }
+
+    @Test
+    void deveRecuperarEstadoDoLogNaSubida() {
+        Path arquivo = pasta.resolve("tasks.log");
+        long excluida;
+        try (TaskRepositoryCompacto repository = new TaskRepositoryCompacto(arquivo, false)) {
+            for (int i = 0; i < 3000; i++) {
+                Task task = repository.save(new Task(null, "Task " + i, false));
+                // Regravações sucessivas deixam o log com muito registro superado (compactado na subida)
+                task.setTitulo("Task " + i + " rascunho");
+                repository.save(task);
+                task.setTitulo("Task " + i + " revisada");
+                repository.save(task);
+            }
+            repository.concluirPorIds(List.of(1L, 2L));
+            excluida = repository.save(new Task(null, "Última", false)).getId();
+            repository.deleteById(excluida);
+        }
+
+        // Duas subidas: a primeira compacta o log, a segunda lê o log compactado
+        for (int subida = 0; subida < 2; subida++) {
+            try (TaskRepositoryCompacto repository = new TaskRepositoryCompacto(arquivo, false)) {
+                assertEquals(3000, repository.count());
+                Task primeira = repository.findById(1L).orElseThrow();
+                assertEquals("Task 0 revisada", primeira.getTitulo());
+                assertTrue(primeira.isConcluida());
+                assertEquals(3L, primeira.getVersao());
+                assertFalse(repository.existsById(excluida));
+                // O id da task excluída não é reaproveitado
+                assertTrue(repository.save(new Task(null, "Nova", false)).getId() > excluida);
+                repository.deleteById(excluida + 1 + subida);
+            }
+        }
+    }
+
+    @Test
+    void deveIsolarTenantsNoArmazenamentoPorTenant() throws Exception {
+        try (TaskRepositoryCompactoPorTenant repository = new TaskRepositoryCompactoPorTenant(pasta.resolve("tasks.log"), false)) {
+            // Os ids são sequenciais por tenant: as duas primeiras tasks têm o mesmo id
+            Long daAcme = ContextoTenant.executarComo("acme", () -> repository.save(new Task(null, "Da acme", false)).getId());
+            assertTrue(ContextoTenant.executarComo("globex", () -> repository.findById(daAcme)).isEmpty());
+            Long daGlobex = ContextoTenant.executarComo("globex", () -> repository.save(new Task(null, "Da globex", false)).getId());
+            assertEquals(daAcme, daGlobex);
+
+            // A globex conclui e exclui "as suas" tasks sem alcançar as da acme
+            ContextoTenant.executarComo("globex", () -> {
+                assertEquals(1, repository.concluirPorIds(List.of(daGlobex)));
+                assertEquals(1, repository.excluirPorIds(List.of(daGlobex)));
+                assertEquals(0, repository.count());
+            });
+
+            ContextoTenant.executarComo("acme", () -> {
+                Task task = repository.findById(daAcme).orElseThrow();
+                assertEquals("Da acme", task.getTitulo());
+                assertFalse(task.isConcluida());
+                assertEquals(List.of("Da acme"), repository.findAll().stream().map(Task::getTitulo).toList());
+            });
+            assertTrue(repository.findAll().isEmpty(), "O tenant padrão não deveria ver as tasks dos outros");
+        }
+        assertTrue(Files.exists(pasta.resolve("tasks-acme.log")));
+        assertTrue(Files.exists(pasta.resolve("tasks-globex.log")));
+    }
+}
@@ -1,5 +1,7 @@
 package com.exemplo.todo.service;
 
+import com.exemplo.todo.config.MultiTenantConfig;
+import com.exemplo.todo.dto.TaskResumo;
 import com.exemplo.todo.entity.Task;
 import com.exemplo.todo.repository.TaskRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -7,12 +9,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+// O slice JPA não carrega as @Configuration da aplicação, e o Hibernate exige o resolvedor de tenant
+@Import(MultiTenantConfig.class)
 class TaskRepositoryTest {
 
     @Autowired
@@ -53,4 +60,37 @@ class TaskRepositoryTest {
         // Verificação
         assertFalse(taskDeletada.isPresent(), "A task não deveria mais existir no banco de dados após ser deletada");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve concluir em lote apenas as tasks pendentes informadas")
+    void deveConcluirEmLote() {
+        // Cenário
+        Task pendente = entityManager.persistAndFlush(new Task(null, "Pendente", false));
+        Task concluida = entityManager.persistAndFlush(new Task(null, "Já concluída", true));
+        Task outra = entityManager.persistAndFlush(new Task(null, "Fora do lote", false));
+
+        // Ação
+        int afetadas = repository.concluirPorIds(List.of(pendente.getId(), concluida.getId()));
+
+        // Verificação
+        assertEquals(1, afetadas, "Só a task pendente do lote deveria ser afetada");
+        assertTrue(repository.findById(pendente.getId()).orElseThrow().isConcluida());
+        assertNotNull(repository.findById(pendente.getId()).orElseThrow().getConcluidaEm(), "A conclusão em lote deveria registrar a data");
+        assertFalse(repository.findById(outra.getId()).orElseThrow().isConcluida());
+    }
+
+    @Test
+    @DisplayName("Deve tratar curingas do LIKE no prefixo como texto literal")
+    void deveListarResumosComPrefixoLiteral() {
+        // Cenário
+        entityManager.persistAndFlush(new Task(null, "100% pronto", false));
+        entityManager.persistAndFlush(new Task(null, "1000 itens", false));
+
+        // Ação
+        List<TaskResumo> resumos = repository.listarResumos(0L, null, "100\\%%", PageRequest.ofSize(10));
+
+        // Verificação
+        assertEquals(1, resumos.size());
+        assertEquals("100% pronto", resumos.get(0).titulo());
+    }
+}
@@ -4,6 +4,7 @@ import com.exemplo.todo.entity.Task;
 import com.exemplo.todo.repository.TaskRepository;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -15,6 +16,9 @@ class TaskServiceTest {
     @Mock
     private TaskRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventos;
+
     @InjectMocks
     private TaskService service;
 
@@ -135,4 +139,23 @@ class TaskServiceTest {
         // Confirma que o método deleteById foi chamado com o ID correto
         verify(repository, times(1)).deleteById(taskId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve concluir em lote dividindo os ids em blocos")
+    void deveConcluirEmLoteEmBlocos() {
+        // Cenário
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        when(repository.concluirPorIds(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // Ação
+        int afetadas = service.concluirEmLote(ids);
+
+        // Verificação
+        assertEquals(1500, afetadas);
+        // 1500 ids viram dois UPDATEs: 1000 + 500
+        verify(repository, times(2)).concluirPorIds(anyList());
+    }
+}